@@ -0,0 +1,16 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "crm.bulk")
+public class BulkConfig {
+    
+    // Records per CreateMultiple request
+    private int chunkSize = 100;
+    // Chunks executed concurrently
+    private int parallelism = 4;
+}
@@ -0,0 +1,14 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "whatsapp.bulk-notifications")
+public class BulkNotificationConfig {
+    
+    // Notifications of one bulk request queued at the same time; the rest wait to be read
+    private int maxInFlight = 100;
+}
@@ -0,0 +1,26 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "whatsapp.campaign")
+public class CampaignConfig {
+    
+    // Recipients sent and checkpointed together
+    private int chunkSize = 200;
+    // Default campaign send rate, leaving the rest of the tier for conversations
+    private double messagesPerSecond = 40;
+    // Campaigns dispatched at the same time
+    private int maxConcurrentCampaigns = 2;
+    // Recipients inserted per batch while importing
+    private int importBatchSize = 500;
+    // Lease on a campaign, renewed every chunk; a campaign whose lease ran out is taken over
+    private Duration leaseTtl = Duration.ofMinutes(5);
+    // How often each node looks for campaigns whose lease ran out (ISO-8601, read by @Scheduled)
+    private Duration resumeInterval = Duration.ofMinutes(1);
+}
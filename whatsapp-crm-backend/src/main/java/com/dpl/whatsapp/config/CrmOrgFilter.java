@@ -0,0 +1,47 @@
+package com.dpl.whatsapp.config;
+
+import com.dpl.whatsapp.service.CrmOrgContext;
+import com.dpl.whatsapp.service.CrmOrgRouter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Selects the Dynamics 365 org for a request from the X-Crm-Org header or "org" query
+ * parameter (e.g. n8n calls and Dataverse webhooks). Requests without either use the default org.
+ */
+@Component
+@RequiredArgsConstructor
+public class CrmOrgFilter extends OncePerRequestFilter {
+
+    public static final String ORG_HEADER = "X-Crm-Org";
+
+    private final CrmOrgRouter router;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String orgId = request.getHeader(ORG_HEADER);
+        if (orgId == null) {
+            orgId = request.getQueryString() != null ? request.getParameter("org") : null;
+        }
+        if (orgId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!router.isKnownOrg(orgId)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown CRM org: " + orgId);
+            return;
+        }
+
+        try (CrmOrgContext.Scope ignored = CrmOrgContext.open(orgId)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "crm.webhook")
+public class DataverseWebhookConfig {
+    
+    private boolean enabled = true;
+    // Shared secret configured on the Dataverse service endpoint (HttpHeader or WebhookKey auth)
+    private String secret;
+    private String headerName = "X-Dataverse-Secret";
+    // Entity logical name -> Web API entity set name
+    private Map<String, String> entitySets = new LinkedHashMap<>(Map.of(
+            "account", "accounts",
+            "contact", "contacts",
+            "salesorder", "salesorders",
+            "quote", "quotes",
+            "incident", "incidents",
+            "lead", "leads",
+            "opportunity", "opportunities"));
+}
@@ -0,0 +1,44 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool, protocol and timeout settings per downstream (dataverse, whatsapp, n8n, azure, ...).
+ * Circuit breakers and bulkheads of the same names are configured under resilience4j.
+ * Pool metrics are published as reactor.netty.connection.provider.* tagged with the downstream name.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "downstream")
+public class DownstreamConfig {
+    
+    private Map<String, Client> clients = new LinkedHashMap<>();
+    
+    @Data
+    public static class Client {
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration responseTimeout = Duration.ofSeconds(30);
+        private int maxConnections = 50;
+        // Time a request may wait for a free pooled connection
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        // Requests allowed to wait for a connection; -1 is twice maxConnections
+        private int pendingAcquireMaxCount = -1;
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        // Recycle connections so DNS and load balancer changes are picked up
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+        // Close idle and expired connections in the background rather than on next acquire
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        // Offer HTTP/2 over TLS (ALPN); HTTP/1.1 is used when the server does not support it
+        private boolean http2 = false;
+    }
+    
+    public Client client(String name) {
+        return clients.getOrDefault(name, new Client());
+    }
+}
@@ -4,14 +4,30 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "dynamics365")
 public class Dynamics365Config {
     
+    // The top-level base-url/azure settings form the default org
+    public static final String DEFAULT_ORG = "default";
+    
     private String baseUrl;
     private String apiVersion;
     private Azure azure = new Azure();
+    private SingleFlight singleFlight = new SingleFlight();
+    private ResponseCache responseCache = new ResponseCache();
+    private Limiter limiter = new Limiter();
+    // Additional orgs (e.g. one per business unit), keyed by org id
+    private Map<String, Org> orgs = new LinkedHashMap<>();
     
     @Data
     public static class Azure {
@@ -19,10 +35,80 @@ public class Dynamics365Config {
         private String clientId;
         private String clientSecret;
         private String scope;
+        // Refresh the token in the background after this fraction of its lifetime
+        private double refreshAheadRatio = 0.8;
+        // How often tokens are checked for refresh-ahead (top level only)
+        private Duration refreshCheckInterval = Duration.ofSeconds(30);
+    }
+    
+    @Data
+    public static class Org {
+        private String baseUrl;
+        private String apiVersion;
+        private Azure azure = new Azure();
+        // WhatsApp phone_number_ids whose conversations belong to this org
+        private List<String> phoneNumberIds = new ArrayList<>();
+        
+        public String getApiUrl() {
+            return baseUrl + "/api/data/" + apiVersion;
+        }
+    }
+    
+    @Data
+    public static class SingleFlight {
+        private boolean enabled = true;
+        private Duration maxWait = Duration.ofSeconds(10);
+    }
+    
+    @Data
+    public static class ResponseCache {
+        private boolean enabled = true;
+        private long maxBytes = 32 * 1024 * 1024;
+    }
+    
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 8;
+        private int minLimit = 1;
+        // Dataverse allows 52 concurrent requests per user
+        private int maxLimit = 50;
+        private double backoffRatio = 0.7;
+        private Duration queueTimeout = Duration.ofSeconds(30);
+        private int maxRetries = 3;
+        private Duration defaultRetryAfter = Duration.ofSeconds(5);
+    }
+    
+    /**
+     * Settings of an org; an unset api-version falls back to the top level
+     */
+    public Org getOrg(String orgId) {
+        if (orgId == null || DEFAULT_ORG.equals(orgId)) {
+            Org org = new Org();
+            org.setBaseUrl(baseUrl);
+            org.setApiVersion(apiVersion);
+            org.setAzure(azure);
+            return org;
+        }
+        Org org = orgs.get(orgId);
+        if (org == null) {
+            throw new IllegalArgumentException("Unknown Dynamics 365 org: " + orgId);
+        }
+        if (org.getApiVersion() == null) {
+            org.setApiVersion(apiVersion);
+        }
+        return org;
+    }
+    
+    public Set<String> getOrgIds() {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(DEFAULT_ORG);
+        ids.addAll(orgs.keySet());
+        return ids;
     }
     
     /**
-     * Get the full API URL for Dataverse Web API
+     * Get the full API URL for Dataverse Web API (default org)
      */
     public String getApiUrl() {
         return baseUrl + "/api/data/" + apiVersion;
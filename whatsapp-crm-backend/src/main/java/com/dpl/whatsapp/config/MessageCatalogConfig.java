@@ -0,0 +1,25 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "whatsapp.messages")
+public class MessageCatalogConfig {
+
+    // Directory of <language>.yml catalog files, e.g. file:/etc/dpl/messages/ to edit texts without a release
+    private String location = "classpath:messages/";
+
+    // Must define every message; other languages fall back to it for texts they leave out
+    private String defaultLanguage = "en";
+
+    // How often the catalog files are checked for changes
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    // How long a customer's language preference is cached for notifications
+    private Duration preferenceTtl = Duration.ofMinutes(10);
+}
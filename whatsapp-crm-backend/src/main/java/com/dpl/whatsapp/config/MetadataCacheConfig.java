@@ -0,0 +1,14 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "crm.metadata-cache")
+public class MetadataCacheConfig {
+    
+    private boolean enabled = true;
+    private String snapshotPath = "data/entity-metadata.json";
+}
@@ -0,0 +1,21 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "crm.phone-index")
+public class PhoneIndexConfig {
+    
+    private boolean enabled = true;
+    private String snapshotPath = "data/phone-index.json";
+    private int pageSize = 5000;
+    // Delta refresh (ISO-8601, read by @Scheduled); misses are trusted while the last one is under two intervals old
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    // How long a miss is remembered while the index is not current
+    private Duration missTtl = Duration.ofMinutes(2);
+}
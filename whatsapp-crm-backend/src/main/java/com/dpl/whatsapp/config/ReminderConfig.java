@@ -0,0 +1,62 @@
+package com.dpl.whatsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Birthday, contract-expiry and shipment reminders sent by the backend from a local
+ * due-date index kept in sync with Dataverse (instead of n8n querying and calling us)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "whatsapp.reminders")
+public class ReminderConfig {
+    
+    // Off by default: enable once n8n no longer sends these reminders
+    private boolean enabled = false;
+    // Due-date index refresh (ISO-8601, read by @Scheduled)
+    private Duration syncInterval = Duration.ofMinutes(15);
+    // When due reminders are sent (cron and zone, read by @Scheduled)
+    private String dispatchCron = "0 0 10 * * *";
+    private String zone = "Asia/Kolkata";
+    // Each reminder type starts at a random offset up to this
+    private Duration jitter = Duration.ofMinutes(15);
+    private double messagesPerSecond = 20;
+    // Leader lease; only the node holding it syncs and dispatches
+    private Duration lockTtl = Duration.ofMinutes(10);
+    private int pageSize = 1000;
+    private Source birthday = new Source();
+    private Source contractExpiry = new Source();
+    private Source shipmentReminder = new Source();
+    
+    /**
+     * Dataverse table holding one kind of due date, and the columns to read
+     */
+    @Data
+    public static class Source {
+        private boolean enabled = true;
+        private String entitySet;
+        private String idField;
+        // Birth date, contract end date or last shipment date
+        private String dateField;
+        // Single-valued navigation property to the customer contact (e.g. customerid_contact on
+        // salesorder), for tables without phone and name columns of their own. Phone and name
+        // are then read from the expanded contact; not supported with change tracking.
+        private String customerLookup;
+        // Contact columns, on the table itself or on the customer lookup
+        private String phoneField = "mobilephone";
+        private String nameField = "fullname";
+        private String referenceField;
+        private String quantityField;
+        // Days before the date that the reminder goes out
+        private int leadDays;
+        // Follow the table with change tracking delta tokens (requires change tracking on the
+        // table); otherwise the upcoming date range is queried on each sync
+        private boolean changeTracking;
+        // Extra $filter for date-range queries, e.g. "statecode eq 0"
+        private String filter;
+    }
+}
@@ -1,44 +1,60 @@
 package com.dpl.whatsapp.config;
 
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
-
-import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * One WebClient per downstream, each with its own connection pool, timeouts,
+ * bulkhead and circuit breaker, so a slow n8n cannot starve WhatsApp replies.
+ */
 @Configuration
+@RequiredArgsConstructor
 public class WebClientConfig {
 
+    public static final String DATAVERSE = "dataverse";
+    public static final String WHATSAPP = "whatsapp";
+    public static final String N8N = "n8n";
+    public static final String AZURE = "azure";
+    public static final String WHATSAPP_MEDIA = "whatsapp-media";
+    public static final String DOCUMENTS = "documents";
+
+    private final WebClientFactory factory;
+
+    @Bean
+    public WebClient dataverseWebClient() {
+        return factory.create(DATAVERSE);
+    }
+
+    @Bean
+    public WebClient whatsappWebClient() {
+        return factory.create(WHATSAPP);
+    }
+
+    /**
+     * Media uploads get their own pool and longer timeouts so they cannot hold up message sends
+     */
+    @Bean
+    public WebClient whatsappMediaWebClient() {
+        return factory.create(WHATSAPP_MEDIA);
+    }
+
+    /**
+     * Our document server, from which quotation and invoice PDFs are fetched for upload
+     */
+    @Bean
+    public WebClient documentsWebClient() {
+        return factory.create(DOCUMENTS);
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30000)
-                .responseTimeout(Duration.ofSeconds(30))
-                .doOnConnected(conn -> conn
-                        .addHandlerLast(new ReadTimeoutHandler(30, TimeUnit.SECONDS))
-                        .addHandlerLast(new WriteTimeoutHandler(30, TimeUnit.SECONDS)));
-
-        // Increase buffer size for large responses
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(configurer -> configurer
-                        .defaultCodecs()
-                        .maxInMemorySize(16 * 1024 * 1024)) // 16MB
-                .build();
-
-        return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .exchangeStrategies(strategies);
+    public WebClient n8nWebClient() {
+        return factory.create(N8N);
     }
 
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        return builder.build();
+    public WebClient azureWebClient() {
+        return factory.create(AZURE);
     }
 }
@@ -0,0 +1,111 @@
+package com.dpl.whatsapp.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds downstream WebClients, each with its own connection pool, timeouts,
+ * bulkhead and circuit breaker.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebClientFactory {
+
+    private final DownstreamConfig config;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    /**
+     * Client with the pool, breaker and bulkhead settings of the downstream of the same name
+     */
+    public WebClient create(String name) {
+        return create(name, name);
+    }
+
+    /**
+     * Client named {@code name} (own pool, breaker and bulkhead) using the settings of {@code settings},
+     * e.g. one Dataverse client per org
+     */
+    public WebClient create(String name, String settings) {
+        DownstreamConfig.Client client = config.client(settings);
+
+        ConnectionProvider pool = ConnectionProvider.builder(name)
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+                .maxIdleTime(client.getMaxIdleTime())
+                .maxLifeTime(client.getMaxLifeTime())
+                .evictInBackground(client.getEvictInBackground())
+                // Active, idle and pending connections (and HTTP/2 streams) per pool in Micrometer
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+                .responseTimeout(client.getResponseTimeout());
+        if (client.isHttp2()) {
+            // Negotiated per connection; plain-http and HTTP/1.1-only servers stay on HTTP/1.1.
+            // Channel timeout handlers would apply to the shared connection, so streams rely
+            // on the response timeout alone.
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        } else {
+            long timeoutMillis = client.getResponseTimeout().toMillis();
+            httpClient = httpClient.doOnConnected(conn -> conn
+                    .addHandlerLast(new ReadTimeoutHandler(timeoutMillis, TimeUnit.MILLISECONDS))
+                    .addHandlerLast(new WriteTimeoutHandler(timeoutMillis, TimeUnit.MILLISECONDS)));
+        }
+
+        // Increase buffer size for large responses
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer
+                        .defaultCodecs()
+                        .maxInMemorySize(16 * 1024 * 1024)) // 16MB
+                .build();
+
+        CircuitBreaker circuitBreaker = name.equals(settings)
+                ? circuitBreakers.circuitBreaker(name)
+                : circuitBreakers.circuitBreaker(name, circuitBreakers.circuitBreaker(settings).getCircuitBreakerConfig());
+        Bulkhead bulkhead = name.equals(settings)
+                ? bulkheads.bulkhead(name)
+                : bulkheads.bulkhead(name, bulkheads.bulkhead(settings).getBulkheadConfig());
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(strategies)
+                .filter(resilience(circuitBreaker, bulkhead))
+                .build();
+    }
+
+    /**
+     * Bulkhead inside the circuit breaker: an open breaker fails fast without taking a permit.
+     * 5xx responses are turned into errors here so the breaker counts them; 4xx responses
+     * (including 429, handled by the callers) pass through unchanged.
+     */
+    private static ExchangeFilterFunction resilience(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        return (request, next) -> next.exchange(request)
+                .flatMap(response -> response.statusCode().is5xxServerError()
+                        ? response.createException().flatMap(Mono::error)
+                        : Mono.just(response))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
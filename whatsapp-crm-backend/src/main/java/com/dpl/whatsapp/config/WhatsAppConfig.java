@@ -1,9 +1,18 @@
 package com.dpl.whatsapp.config;
 
+import com.dpl.whatsapp.service.OutboundPriority;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "whatsapp.api")
@@ -11,14 +20,141 @@ public class WhatsAppConfig {
     
     private String baseUrl;
     private String phoneNumberId;
+    // WhatsApp Business Account that owns the phone number and its message templates
+    private String businessAccountId;
     private String accessToken;
     private String verifyToken;
     private String webhookSecret;
+    // Business numbers of the additional Dynamics 365 orgs, by org id; the default org uses the number above
+    private Map<String, BusinessNumber> orgs = new LinkedHashMap<>();
+    private Outbound outbound = new Outbound();
+    private Media media = new Media();
+    private Retry retry = new Retry();
+    private Templates templates = new Templates();
+    
+    /**
+     * A WhatsApp business number messages are sent from; unset fields fall back to the top level
+     */
+    @Data
+    public static class BusinessNumber {
+        private String phoneNumberId;
+        private String businessAccountId;
+        private String accessToken;
+    }
+    
+    @Data
+    public static class Outbound {
+        private boolean enabled = true;
+        // Cloud API throughput per business number (messages/second); 80 by default, up to 1000 when upgraded
+        private double messagesPerSecond = 80;
+        // Overrides per phone_number_id
+        private Map<String, Double> messagesPerSecondByNumber = new HashMap<>();
+        // Per-recipient pacing (pair rate limit): a burst, then one message per interval
+        private int recipientBurst = 10;
+        private Duration recipientInterval = Duration.ofSeconds(6);
+        // Rate-limited sends (130429, 131056) are re-queued with exponential backoff
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofSeconds(2);
+        private Duration maxBackoff = Duration.ofSeconds(60);
+        // Per priority, so bulk traffic cannot fill the queue for replies and notifications
+        private int maxQueueSize = 10_000;
+        // How long a message may wait in the queue; once posted, the caller waits for the response
+        private Duration sendTimeout = Duration.ofSeconds(60);
+        // Share of the throughput each priority gets while several have messages waiting (at least 1 each)
+        private Map<OutboundPriority, Integer> weights = new EnumMap<>(Map.of(
+                OutboundPriority.INTERACTIVE, 16,
+                OutboundPriority.TRANSACTIONAL, 4,
+                OutboundPriority.MARKETING, 1));
+    }
+    
+    @Data
+    public static class Media {
+        // Upload documents once and send them by media id instead of link
+        private boolean enabled = true;
+        // Meta deletes uploaded media after 30 days; re-upload a day early
+        private Duration ttl = Duration.ofDays(29);
+        // How long a link is trusted to still serve the uploaded document; after that it is
+        // revalidated (conditional GET) and re-hashed if it changed
+        private Duration linkTtl = Duration.ofMinutes(10);
+        // Hosts documents are downloaded from for upload; documents on other hosts are sent by link
+        private List<String> allowedHosts = new ArrayList<>();
+        private int maxEntries = 10_000;
+        // Cloud API limit for documents
+        private long maxSizeBytes = 100L * 1024 * 1024;
+        // Documents are downloaded and uploaded on this many threads, off the senders' threads
+        private int threads = 8;
+        // Documents are spooled here while being hashed and uploaded
+        private String tempDir = System.getProperty("java.io.tmpdir");
+    }
+    
+    @Data
+    public static class Retry {
+        // Persist failed retryable sends and try them again later
+        private boolean enabled = true;
+        private int maxAttempts = 6;
+        private Duration initialBackoff = Duration.ofSeconds(30);
+        private Duration maxBackoff = Duration.ofHours(1);
+        // Due messages sent per poll
+        private int batchSize = 100;
+        private Duration pollInterval = Duration.ofSeconds(10);
+        // Leader lease; only the node holding it polls the queue
+        private Duration lockTtl = Duration.ofMinutes(5);
+    }
+    
+    @Data
+    public static class Templates {
+        // Validate template sends against the templates registered with Meta
+        private boolean enabled = true;
+        private Duration refreshInterval = Duration.ofMinutes(15);
+        private int pageSize = 100;
+    }
+    
+    /**
+     * The number an org's conversations and notifications go out from
+     */
+    public BusinessNumber getNumber(String orgId) {
+        BusinessNumber configured = orgId != null ? orgs.get(orgId) : null;
+        BusinessNumber number = new BusinessNumber();
+        number.setPhoneNumberId(configured != null && configured.getPhoneNumberId() != null
+                ? configured.getPhoneNumberId() : phoneNumberId);
+        number.setBusinessAccountId(configured != null && configured.getBusinessAccountId() != null
+                ? configured.getBusinessAccountId() : businessAccountId);
+        number.setAccessToken(configured != null && configured.getAccessToken() != null
+                ? configured.getAccessToken() : accessToken);
+        return number;
+    }
+    
+    /**
+     * The configured number with this phone_number_id, or the default number if there is none
+     */
+    public BusinessNumber getNumberById(String id) {
+        for (String orgId : orgs.keySet()) {
+            BusinessNumber number = getNumber(orgId);
+            if (number.getPhoneNumberId() != null && number.getPhoneNumberId().equals(id)) {
+                return number;
+            }
+        }
+        return getNumber(null);
+    }
+    
+    /**
+     * Get the messages API endpoint of a number
+     */
+    public String getMessagesUrl(BusinessNumber number) {
+        return baseUrl + "/" + number.getPhoneNumberId() + "/messages";
+    }
+    
+    /**
+     * Get the media upload endpoint of a number
+     */
+    public String getMediaUrl(BusinessNumber number) {
+        return baseUrl + "/" + number.getPhoneNumberId() + "/media";
+    }
     
     /**
-     * Get the messages API endpoint
+     * Get the message templates endpoint of a business account
      */
-    public String getMessagesUrl() {
-        return baseUrl + "/" + phoneNumberId + "/messages";
+    public String getMessageTemplatesUrl(String businessAccountId) {
+        return baseUrl + "/" + businessAccountId + "/message_templates";
     }
 }
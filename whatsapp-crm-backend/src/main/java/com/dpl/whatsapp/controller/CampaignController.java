@@ -0,0 +1,83 @@
+package com.dpl.whatsapp.controller;
+
+import com.dpl.whatsapp.dto.notification.CampaignRecipientDto;
+import com.dpl.whatsapp.dto.notification.CampaignRequestDto;
+import com.dpl.whatsapp.dto.notification.CampaignStatsDto;
+import com.dpl.whatsapp.entity.CampaignRecipient;
+import com.dpl.whatsapp.service.CampaignService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Controller for bulk greeting and reminder campaigns.
+ * One call starts a campaign for any number of recipients instead of one notification call per customer.
+ */
+@RestController
+@RequestMapping("/campaigns")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Campaigns", description = "Bulk greetings and reminders with progress tracking")
+public class CampaignController {
+
+    private final CampaignService campaignService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Start a campaign with inline recipients or a Dataverse query as recipient source")
+    public ResponseEntity<CampaignStatsDto> createCampaign(@RequestBody CampaignRequestDto request) {
+        return ResponseEntity.accepted().body(campaignService.create(request, null));
+    }
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Start a campaign with recipients from an uploaded file (JSON array or NDJSON)")
+    public ResponseEntity<CampaignStatsDto> uploadCampaign(@RequestPart("campaign") CampaignRequestDto request,
+                                                           @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream();
+             MappingIterator<CampaignRecipientDto> recipients =
+                     objectMapper.readerFor(CampaignRecipientDto.class).readValues(in)) {
+            return ResponseEntity.accepted().body(campaignService.create(request, recipients));
+        }
+    }
+
+    @GetMapping
+    @Operation(summary = "List campaigns with their progress")
+    public ResponseEntity<List<CampaignStatsDto>> getCampaigns() {
+        return ResponseEntity.ok(campaignService.getAllStats());
+    }
+
+    @GetMapping("/{campaignId}")
+    @Operation(summary = "Get campaign progress, throughput and failure counts")
+    public ResponseEntity<CampaignStatsDto> getCampaign(@PathVariable String campaignId) {
+        return campaignService.getStats(campaignId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{campaignId}/failures")
+    @Operation(summary = "List recipients whose message could not be sent")
+    public ResponseEntity<List<CampaignRecipient>> getFailures(@PathVariable String campaignId,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(campaignService.getFailures(campaignId, page, size));
+    }
+
+    @PostMapping("/{campaignId}/cancel")
+    @Operation(summary = "Stop a campaign after the chunk in progress")
+    public ResponseEntity<CampaignStatsDto> cancelCampaign(@PathVariable String campaignId) {
+        return campaignService.cancel(campaignId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,15 +1,23 @@
 package com.dpl.whatsapp.controller;
 
 import com.dpl.whatsapp.dto.crm.*;
+import com.dpl.whatsapp.service.BulkCrmService;
+import com.dpl.whatsapp.service.CustomerPhoneIndex;
 import com.dpl.whatsapp.service.DataverseService;
+import com.dpl.whatsapp.service.EntityMetadataCache;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,7 +32,13 @@ import java.util.Optional;
 @Tag(name = "CRM Operations", description = "Endpoints for Dynamics 365 CRM operations")
 public class CrmController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final DataverseService dataverseService;
+    private final CustomerPhoneIndex customerPhoneIndex;
+    private final EntityMetadataCache metadataCache;
+    private final BulkCrmService bulkCrmService;
+    private final ObjectMapper objectMapper;
 
     // ==================== CUSTOMER ENDPOINTS ====================
 
@@ -37,7 +51,7 @@ public class CrmController {
     @GetMapping("/customers/by-phone/{phone}")
     @Operation(summary = "Get customer by phone number")
     public ResponseEntity<CustomerDto> getCustomerByPhone(@PathVariable String phone) {
-        Optional<CustomerDto> customer = dataverseService.getCustomerByPhone(phone);
+        Optional<CustomerDto> customer = customerPhoneIndex.findByPhone(phone);
         return customer.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -51,6 +65,12 @@ public class CrmController {
         return ResponseEntity.ok(leadId);
     }
 
+    @PostMapping(value = "/leads/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Create leads in bulk (JSON array or NDJSON)")
+    public ResponseEntity<BulkResultDto> createLeads(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkCrmService.createLeads(readAll(body, LeadDto.class)));
+    }
+
     // ==================== QUOTE ENDPOINTS ====================
 
     @GetMapping("/quotes/{quoteId}")
@@ -80,6 +100,12 @@ public class CrmController {
         return ResponseEntity.ok(oppId);
     }
 
+    @PostMapping(value = "/opportunities/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Create opportunities in bulk (JSON array or NDJSON)")
+    public ResponseEntity<BulkResultDto> createOpportunities(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkCrmService.createOpportunities(readAll(body, OpportunityDto.class)));
+    }
+
     // ==================== COMPLAINT ENDPOINTS ====================
 
     @PostMapping("/complaints")
@@ -89,6 +115,12 @@ public class CrmController {
         return ResponseEntity.ok(complaintId);
     }
 
+    @PostMapping(value = "/complaints/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Create complaints/cases in bulk (JSON array or NDJSON)")
+    public ResponseEntity<BulkResultDto> createComplaints(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkCrmService.createComplaints(readAll(body, ComplaintDto.class)));
+    }
+
     @GetMapping("/complaints/customer/{accountId}")
     @Operation(summary = "Get complaints for a customer")
     public ResponseEntity<List<ComplaintDto>> getCustomerComplaints(@PathVariable String accountId) {
@@ -112,18 +144,24 @@ public class CrmController {
         return ResponseEntity.ok(doId);
     }
 
+    @PostMapping(value = "/delivery-orders/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Create delivery orders in bulk (JSON array or NDJSON)")
+    public ResponseEntity<BulkResultDto> createDeliveryOrders(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkCrmService.createDeliveryOrders(readAll(body, DeliveryOrderDto.class)));
+    }
+
     // ==================== METADATA ENDPOINTS ====================
 
     @GetMapping("/entities/{entityName}/metadata")
     @Operation(summary = "Get entity metadata (fields, attributes)")
     public ResponseEntity<JsonNode> getEntityMetadata(@PathVariable String entityName) {
-        return ResponseEntity.ok(dataverseService.getEntityMetadata(entityName));
+        return ResponseEntity.ok(metadataCache.getEntityMetadata(entityName));
     }
 
     @GetMapping("/entities/custom")
     @Operation(summary = "Get all custom entities in the system")
     public ResponseEntity<JsonNode> getCustomEntities() {
-        return ResponseEntity.ok(dataverseService.getCustomEntities());
+        return ResponseEntity.ok(metadataCache.getCustomEntities());
     }
 
     // ==================== GENERIC QUERY ENDPOINT ====================
@@ -147,4 +185,13 @@ public class CrmController {
         
         return ResponseEntity.ok(dataverseService.get(entitySet, query.toString()));
     }
+
+    /**
+     * Read a JSON array or a stream of newline-delimited JSON objects without buffering the raw body
+     */
+    private <T> List<T> readAll(InputStream body, Class<T> type) throws IOException {
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            return items.readAll();
+        }
+    }
 }
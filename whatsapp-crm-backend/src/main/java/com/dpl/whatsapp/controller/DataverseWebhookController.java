@@ -0,0 +1,82 @@
+package com.dpl.whatsapp.controller;
+
+import com.dpl.whatsapp.config.DataverseWebhookConfig;
+import com.dpl.whatsapp.service.DataverseChangeDispatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Controller for Dataverse service endpoint webhooks.
+ * Register a webhook step (Create/Update/Delete) per entity whose cached data should follow CRM.
+ */
+@RestController
+@RequestMapping("/webhook/dataverse")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dataverse Webhook", description = "Change notifications from Dynamics 365 used to invalidate caches")
+public class DataverseWebhookController {
+
+    private final DataverseWebhookConfig config;
+    private final DataverseChangeDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    @PostConstruct
+    void checkSecret() {
+        if (config.isEnabled() && !hasSecret()) {
+            log.warn("crm.webhook.secret is not set; Dataverse webhooks will be rejected until it is");
+        }
+    }
+
+    @PostMapping
+    @Operation(summary = "Receive a Dataverse RemoteExecutionContext notification")
+    public ResponseEntity<String> handleWebhook(@RequestBody String payload, HttpServletRequest request) {
+        if (!config.isEnabled()) {
+            return ResponseEntity.status(404).build();
+        }
+        if (!isAuthorized(request)) {
+            log.warn("Rejected Dataverse webhook with missing or invalid secret");
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+
+        try {
+            JsonNode context = objectMapper.readTree(payload);
+            dispatcher.dispatch(context);
+            return ResponseEntity.ok("OK");
+        } catch (Exception e) {
+            log.error("Error processing Dataverse webhook", e);
+            return ResponseEntity.badRequest().body("Invalid payload");
+        }
+    }
+
+    /**
+     * Dataverse cannot sign payloads; it sends a shared secret either as a header
+     * (HttpHeader auth) or as the "code" query parameter (WebhookKey auth).
+     * Without a configured secret nothing is accepted.
+     */
+    private boolean isAuthorized(HttpServletRequest request) {
+        if (!hasSecret()) {
+            return false;
+        }
+        String provided = request.getHeader(config.getHeaderName());
+        if (provided == null) {
+            provided = request.getParameter("code");
+        }
+        return provided != null && MessageDigest.isEqual(
+                provided.getBytes(StandardCharsets.UTF_8), config.getSecret().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean hasSecret() {
+        return config.getSecret() != null && !config.getSecret().isBlank();
+    }
+}
@@ -0,0 +1,60 @@
+package com.dpl.whatsapp.controller;
+
+import com.dpl.whatsapp.dto.whatsapp.DeadLetterReplayDto;
+import com.dpl.whatsapp.entity.DeadLetterMessage;
+import com.dpl.whatsapp.service.MessageRetryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for WhatsApp messages that could not be delivered
+ */
+@RestController
+@RequestMapping("/dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dead Letters", description = "Inspect and replay WhatsApp messages that failed permanently or ran out of retries")
+public class DeadLetterController {
+
+    private final MessageRetryService retryService;
+
+    @GetMapping
+    @Operation(summary = "List dead-lettered messages, newest first, optionally by Graph API error code")
+    public ResponseEntity<List<DeadLetterMessage>> getDeadLetters(@RequestParam(required = false) Integer errorCode,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(retryService.getDeadLetters(errorCode, page, size));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Number of messages waiting for retry and in the dead-letter table")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(Map.of(
+                "retryQueue", retryService.getRetryQueueSize(),
+                "deadLetters", retryService.getDeadLetterCount()));
+    }
+
+    @PostMapping("/replay")
+    @Operation(summary = "Replay dead letters by id, by error code, or all of them")
+    public ResponseEntity<Map<String, Integer>> replay(@RequestBody(required = false) DeadLetterReplayDto request) {
+        int replayed = request != null
+                ? retryService.replay(request.getIds(), request.getErrorCode())
+                : retryService.replay(null, null);
+        return ResponseEntity.ok(Map.of("replayed", replayed));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Discard a dead letter")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        return retryService.deleteDeadLetter(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
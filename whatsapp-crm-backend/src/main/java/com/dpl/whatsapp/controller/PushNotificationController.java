@@ -2,14 +2,22 @@ package com.dpl.whatsapp.controller;
 
 import com.dpl.whatsapp.dto.notification.*;
 import com.dpl.whatsapp.dto.whatsapp.MessageResponse;
+import com.dpl.whatsapp.dto.whatsapp.MultipartMessageResponse;
+import com.dpl.whatsapp.service.BulkNotificationService;
 import com.dpl.whatsapp.service.PushNotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller for sending push notifications to customers
  * These endpoints are called by CRM triggers or n8n workflows
@@ -21,7 +29,10 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Push Notifications", description = "Endpoints for sending WhatsApp notifications to customers")
 public class PushNotificationController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final PushNotificationService notificationService;
+    private final BulkNotificationService bulkNotificationService;
 
     @PostMapping("/customer-onboarded")
     @Operation(summary = "Send customer onboarding welcome message")
@@ -36,16 +47,16 @@ public class PushNotificationController {
 
     @PostMapping("/quotation")
     @Operation(summary = "Send quotation with accept/reject buttons")
-    public ResponseEntity<MessageResponse> sendQuotation(@RequestBody QuotationNotificationDto request) {
-        MessageResponse response = notificationService.sendQuotation(
+    public CompletableFuture<ResponseEntity<MultipartMessageResponse>> sendQuotation(
+            @RequestBody QuotationNotificationDto request) {
+        return notificationService.sendQuotation(
                 request.getPhoneNumber(),
                 request.getCustomerName(),
                 request.getQuoteNumber(),
                 request.getTotalAmount(),
                 request.getPdfUrl(),
                 request.getQuoteId()
-        );
-        return ResponseEntity.ok(response);
+        ).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/sales-order-created")
@@ -75,16 +86,16 @@ public class PushNotificationController {
 
     @PostMapping("/invoice")
     @Operation(summary = "Send invoice with tracking link")
-    public ResponseEntity<MessageResponse> sendInvoice(@RequestBody InvoiceNotificationDto request) {
-        MessageResponse response = notificationService.sendInvoice(
+    public CompletableFuture<ResponseEntity<MultipartMessageResponse>> sendInvoice(
+            @RequestBody InvoiceNotificationDto request) {
+        return notificationService.sendInvoice(
                 request.getPhoneNumber(),
                 request.getCustomerName(),
                 request.getInvoiceNumber(),
                 request.getAmount(),
                 request.getPdfUrl(),
                 request.getTrackingLink()
-        );
-        return ResponseEntity.ok(response);
+        ).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/complaint-registered")
@@ -182,4 +193,20 @@ public class PushNotificationController {
         );
         return ResponseEntity.ok(response);
     }
+
+    // ==================== BULK ENDPOINTS ====================
+
+    @PostMapping(value = "/{type}/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Send a notification to many recipients (JSON array or NDJSON of the single-recipient "
+            + "request); one NDJSON result line per item is streamed back as each send completes")
+    public void sendBulk(@PathVariable String type, InputStream body, HttpServletResponse response) throws IOException {
+        if (!bulkNotificationService.supports(type)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown notification type " + type
+                    + ", expected one of " + bulkNotificationService.getKinds());
+            return;
+        }
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        bulkNotificationService.send(type, body, response.getOutputStream());
+    }
 }
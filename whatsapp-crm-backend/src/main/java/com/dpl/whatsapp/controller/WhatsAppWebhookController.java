@@ -3,7 +3,10 @@ package com.dpl.whatsapp.controller;
 import com.dpl.whatsapp.config.WhatsAppConfig;
 import com.dpl.whatsapp.dto.whatsapp.IncomingMessageDto;
 import com.dpl.whatsapp.service.ChatbotService;
+import com.dpl.whatsapp.service.CrmOrgContext;
+import com.dpl.whatsapp.service.CrmOrgRouter;
 import com.dpl.whatsapp.service.N8nWebhookService;
+import com.dpl.whatsapp.service.OutboundPriority;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,7 @@ public class WhatsAppWebhookController {
 
     private final WhatsAppConfig config;
     private final ChatbotService chatbotService;
+    private final CrmOrgRouter orgRouter;
     private final N8nWebhookService n8nService;
     private final ObjectMapper objectMapper;
 
@@ -74,10 +78,14 @@ public class WhatsAppWebhookController {
                     
                     JsonNode value = change.get("value");
                     
-                    // Process messages
+                    // Route CRM calls to the org that owns the receiving business number
+                    String orgId = orgRouter.orgForPhoneNumberId(value.path("metadata").path("phone_number_id").asText(null));
+                    
+                    // Process messages; replies go ahead of notifications and campaigns
                     if (value.has("messages")) {
                         for (JsonNode message : value.get("messages")) {
-                            processMessage(message, value);
+                            CrmOrgContext.run(orgId,
+                                    () -> OutboundPriority.INTERACTIVE.run(() -> processMessage(message, value)));
                         }
                     }
                     
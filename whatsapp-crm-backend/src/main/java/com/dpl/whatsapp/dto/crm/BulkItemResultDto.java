@@ -0,0 +1,17 @@
+package com.dpl.whatsapp.dto.crm;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDto {
+    private int index;
+    private boolean success;
+    private String id;
+    private String error;
+    // Timed out or failed server-side: the record may have been created; check before resubmitting
+    private boolean outcomeUnknown;
+}
@@ -0,0 +1,13 @@
+package com.dpl.whatsapp.dto.crm;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BulkResultDto {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private int unknown;
+    private List<BulkItemResultDto> items;
+}
@@ -0,0 +1,16 @@
+package com.dpl.whatsapp.dto.notification;
+
+import lombok.Data;
+
+/**
+ * Campaign recipient; reference is the order number (shipment reminders) or contract
+ * number (contract expiry), dueDate the last date or expiry date
+ */
+@Data
+public class CampaignRecipientDto {
+    private String phoneNumber;
+    private String customerName;
+    private String reference;
+    private String dueDate;
+    private Double quantity;
+}
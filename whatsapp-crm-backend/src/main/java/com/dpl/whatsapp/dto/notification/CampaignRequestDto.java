@@ -0,0 +1,36 @@
+package com.dpl.whatsapp.dto.notification;
+
+import com.dpl.whatsapp.entity.Campaign;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * New campaign; recipients come inline, from an uploaded file, or from a Dataverse query
+ */
+@Data
+public class CampaignRequestDto {
+    private String name;
+    private Campaign.Type type;
+    private String festivalName;
+    private String customMessage;
+    // Defaults to whatsapp.campaign.messages-per-second
+    private Double messagesPerSecond;
+    private List<CampaignRecipientDto> recipients;
+    private DataverseSource dataverse;
+
+    /**
+     * Records of an entity set query (e.g. contacts with a $filter), with the columns
+     * holding each recipient field
+     */
+    @Data
+    public static class DataverseSource {
+        private String entitySet = "contacts";
+        private String query;
+        private String phoneField = "mobilephone";
+        private String nameField = "fullname";
+        private String referenceField;
+        private String dueDateField;
+        private String quantityField;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dpl.whatsapp.dto.notification;
+
+import com.dpl.whatsapp.entity.Campaign;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CampaignStatsDto {
+    private String id;
+    private String name;
+    private String orgId;
+    private Campaign.Type type;
+    private Campaign.Status status;
+    private int total;
+    private int sent;
+    private int failed;
+    // Failed with a retryable error, waiting in the message retry store
+    private int retrying;
+    private int pending;
+    private double progressPercent;
+    // Messages processed per second since the campaign started
+    private double throughput;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,18 @@
+package com.dpl.whatsapp.dto.notification;
+
+import lombok.Data;
+
+/**
+ * Outcome of one item of a bulk notification request, streamed back as it completes
+ */
+@Data
+public class NotificationResultDto {
+    // Position of the item in the request
+    private int index;
+    private String phoneNumber;
+    private boolean success;
+    // Last message sent for the item (the buttons of a quotation, the text of an invoice)
+    private String messageId;
+    private String error;
+    private Integer errorCode;
+}
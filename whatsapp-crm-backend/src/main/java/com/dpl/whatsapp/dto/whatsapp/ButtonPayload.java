@@ -0,0 +1,70 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Interactive reply-button message (max 3 buttons, titles up to 20 characters)
+ */
+@Value
+public class ButtonPayload implements WhatsAppPayload {
+    String to;
+    String headerText;
+    String bodyText;
+    String footerText;
+    List<ButtonDto> buttons;
+
+    public ButtonPayload(String to, String headerText, String bodyText, String footerText, List<ButtonDto> buttons) {
+        this.to = to;
+        this.headerText = headerText;
+        this.bodyText = bodyText;
+        this.footerText = footerText;
+        this.buttons = List.copyOf(buttons.subList(0, Math.min(buttons.size(), 3)));
+    }
+
+    @Override
+    public void writeContent(JsonGenerator gen) throws IOException {
+        gen.writeStringField("type", "interactive");
+        gen.writeObjectFieldStart("interactive");
+        gen.writeStringField("type", "button");
+
+        // Header (optional)
+        if (headerText != null && !headerText.isEmpty()) {
+            gen.writeObjectFieldStart("header");
+            gen.writeStringField("type", "text");
+            gen.writeStringField("text", headerText);
+            gen.writeEndObject();
+        }
+
+        // Body (required)
+        gen.writeObjectFieldStart("body");
+        gen.writeStringField("text", bodyText);
+        gen.writeEndObject();
+
+        // Footer (optional)
+        if (footerText != null && !footerText.isEmpty()) {
+            gen.writeObjectFieldStart("footer");
+            gen.writeStringField("text", footerText);
+            gen.writeEndObject();
+        }
+
+        gen.writeObjectFieldStart("action");
+        gen.writeArrayFieldStart("buttons");
+        for (ButtonDto button : buttons) {
+            gen.writeStartObject();
+            gen.writeStringField("type", "reply");
+            gen.writeObjectFieldStart("reply");
+            gen.writeStringField("id", button.getId());
+            gen.writeStringField("title", WhatsAppPayload.truncate(button.getTitle(), 20));
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
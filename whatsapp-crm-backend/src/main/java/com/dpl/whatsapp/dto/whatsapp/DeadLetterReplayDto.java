@@ -0,0 +1,14 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Dead letters to replay: the given ids, else every dead letter with the given error code, else all
+ */
+@Data
+public class DeadLetterReplayDto {
+    private List<String> ids;
+    private Integer errorCode;
+}
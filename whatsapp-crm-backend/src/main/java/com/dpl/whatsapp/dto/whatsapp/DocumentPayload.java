@@ -0,0 +1,42 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+
+/**
+ * Document message, referring either to an uploaded media id or to a link Meta fetches
+ */
+@Value
+public class DocumentPayload implements WhatsAppPayload {
+    String to;
+    String mediaId;
+    String link;
+    String filename;
+    String caption;
+
+    public static DocumentPayload ofLink(String to, String link, String filename, String caption) {
+        return new DocumentPayload(to, null, link, filename, caption);
+    }
+
+    public static DocumentPayload ofMediaId(String to, String mediaId, String filename, String caption) {
+        return new DocumentPayload(to, mediaId, null, filename, caption);
+    }
+
+    @Override
+    public void writeContent(JsonGenerator gen) throws IOException {
+        gen.writeStringField("type", "document");
+        gen.writeObjectFieldStart("document");
+        if (mediaId != null) {
+            gen.writeStringField("id", mediaId);
+        } else {
+            gen.writeStringField("link", link);
+        }
+        gen.writeStringField("filename", filename);
+        if (caption != null) {
+            gen.writeStringField("caption", caption);
+        }
+        gen.writeEndObject();
+    }
+}
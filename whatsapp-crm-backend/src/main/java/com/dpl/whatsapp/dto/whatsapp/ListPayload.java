@@ -0,0 +1,78 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Interactive list message (row titles up to 24, descriptions up to 72 characters)
+ */
+@Value
+public class ListPayload implements WhatsAppPayload {
+    String to;
+    String headerText;
+    String bodyText;
+    String footerText;
+    String buttonText;
+    List<ListSectionDto> sections;
+
+    public ListPayload(String to, String headerText, String bodyText, String footerText, String buttonText,
+                       List<ListSectionDto> sections) {
+        this.to = to;
+        this.headerText = headerText;
+        this.bodyText = bodyText;
+        this.footerText = footerText;
+        this.buttonText = buttonText;
+        this.sections = List.copyOf(sections);
+    }
+
+    @Override
+    public void writeContent(JsonGenerator gen) throws IOException {
+        gen.writeStringField("type", "interactive");
+        gen.writeObjectFieldStart("interactive");
+        gen.writeStringField("type", "list");
+
+        if (headerText != null) {
+            gen.writeObjectFieldStart("header");
+            gen.writeStringField("type", "text");
+            gen.writeStringField("text", headerText);
+            gen.writeEndObject();
+        }
+
+        gen.writeObjectFieldStart("body");
+        gen.writeStringField("text", bodyText);
+        gen.writeEndObject();
+
+        if (footerText != null) {
+            gen.writeObjectFieldStart("footer");
+            gen.writeStringField("text", footerText);
+            gen.writeEndObject();
+        }
+
+        gen.writeObjectFieldStart("action");
+        gen.writeStringField("button", buttonText);
+        gen.writeArrayFieldStart("sections");
+        for (ListSectionDto section : sections) {
+            gen.writeStartObject();
+            gen.writeStringField("title", section.getTitle());
+            gen.writeArrayFieldStart("rows");
+            for (ListRowDto row : section.getRows()) {
+                gen.writeStartObject();
+                gen.writeStringField("id", row.getId());
+                gen.writeStringField("title", WhatsAppPayload.truncate(row.getTitle(), 24));
+                if (row.getDescription() != null) {
+                    gen.writeStringField("description", WhatsAppPayload.truncate(row.getDescription(), 72));
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
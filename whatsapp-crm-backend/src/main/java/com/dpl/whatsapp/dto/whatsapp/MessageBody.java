@@ -0,0 +1,21 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Complete Cloud API messages request body, as queued and sent by the outbound scheduler
+ */
+public interface MessageBody {
+
+    /**
+     * Normalized recipient phone number
+     */
+    String getTo();
+
+    /**
+     * Write the complete request body
+     */
+    void writeTo(JsonGenerator gen) throws IOException;
+}
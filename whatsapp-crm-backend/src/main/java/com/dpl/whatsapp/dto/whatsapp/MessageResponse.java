@@ -1,14 +1,29 @@
 package com.dpl.whatsapp.dto.whatsapp;
 
 import lombok.Data;
-import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class MessageResponse {
     private boolean success;
     private String messageId;
     private String error;
+    // Graph API error code of a failed send, when Meta returned one
+    private Integer errorCode;
+    // Whether a failed send may succeed when tried again later
+    private Boolean retryable;
+
+    public MessageResponse(boolean success, String messageId, String error) {
+        this.success = success;
+        this.messageId = messageId;
+        this.error = error;
+    }
+
+    public static MessageResponse failure(String error, Integer errorCode, boolean retryable) {
+        MessageResponse response = new MessageResponse(false, null, error);
+        response.setErrorCode(errorCode);
+        response.setRetryable(retryable);
+        return response;
+    }
 }
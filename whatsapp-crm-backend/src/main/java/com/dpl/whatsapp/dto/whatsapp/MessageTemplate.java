@@ -0,0 +1,198 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template registered with Meta, compiled into a payload skeleton: the name,
+ * language and component headers are encoded once, so a send only writes parameter values.
+ * Only the components that take parameters (header, body, individual buttons) have a slot.
+ */
+@Getter
+public class MessageTemplate {
+
+    public static final String APPROVED = "APPROVED";
+
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString TEMPLATE = new SerializedString("template");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString LANGUAGE = new SerializedString("language");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString COMPONENTS = new SerializedString("components");
+    private static final SerializedString SUB_TYPE = new SerializedString("sub_type");
+    private static final SerializedString INDEX = new SerializedString("index");
+    private static final SerializedString PARAMETERS = new SerializedString("parameters");
+
+    private final String name;
+    private final String language;
+    private final String status;
+    private final String category;
+    private final List<Slot> slots;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final SerializedString encodedName;
+    @Getter(lombok.AccessLevel.NONE)
+    private final SerializedString encodedLanguage;
+
+    /**
+     * A component that takes parameters
+     */
+    @Getter
+    public static class Slot {
+        // header, body or button
+        private final String type;
+        // Buttons: url, copy_code, quick_reply
+        private final String subType;
+        private final Integer index;
+        // Headers: text, image, video, document or location
+        private final String format;
+        private final int minParameters;
+        private final int maxParameters;
+
+        @Getter(lombok.AccessLevel.NONE)
+        private final SerializedString encodedType;
+        @Getter(lombok.AccessLevel.NONE)
+        private final SerializedString encodedSubType;
+        @Getter(lombok.AccessLevel.NONE)
+        private final SerializedString encodedIndex;
+
+        public Slot(String type, String subType, Integer index, String format, int minParameters, int maxParameters) {
+            this.type = type;
+            this.subType = subType;
+            this.index = index;
+            this.format = format;
+            this.minParameters = minParameters;
+            this.maxParameters = maxParameters;
+            this.encodedType = new SerializedString(type);
+            this.encodedSubType = subType != null ? new SerializedString(subType) : null;
+            this.encodedIndex = index != null ? new SerializedString(index.toString()) : null;
+        }
+
+        private String describe() {
+            return index != null ? type + " " + index : type;
+        }
+    }
+
+    public MessageTemplate(String name, String language, String status, String category, List<Slot> slots) {
+        this.name = name;
+        this.language = language;
+        this.status = status;
+        this.category = category;
+        this.slots = List.copyOf(slots);
+        this.encodedName = new SerializedString(name);
+        this.encodedLanguage = new SerializedString(language);
+    }
+
+    public boolean isApproved() {
+        return APPROVED.equals(status);
+    }
+
+    /**
+     * Check a send against this template and build its payload
+     *
+     * @throws IllegalArgumentException if the template is not approved or the parameters do not fit
+     */
+    public TemplatePayload payload(String to, List<TemplateComponentDto> components) {
+        if (!isApproved()) {
+            throw new IllegalArgumentException("Template " + name + " (" + language + ") is " + status);
+        }
+
+        List<TemplateComponentDto> given = components != null ? components : List.of();
+        List<Slot> matched = new ArrayList<>(given.size());
+        for (TemplateComponentDto component : given) {
+            Slot slot = match(component, matched);
+            int count = component.getParameters() != null ? component.getParameters().size() : 0;
+            if (count < slot.minParameters || count > slot.maxParameters) {
+                throw new IllegalArgumentException("Template " + name + " " + slot.describe() + " takes "
+                        + range(slot) + " parameters, got " + count);
+            }
+            if (slot.format != null && !"text".equals(slot.format) && count > 0
+                    && !slot.format.equals(component.getParameters().get(0).getType())) {
+                throw new IllegalArgumentException("Template " + name + " header takes a " + slot.format + " parameter");
+            }
+            matched.add(slot);
+        }
+        for (Slot slot : slots) {
+            if (slot.minParameters > 0 && !matched.contains(slot)) {
+                throw new IllegalArgumentException("Template " + name + " " + slot.describe() + " takes "
+                        + range(slot) + " parameters, got none");
+            }
+        }
+        return new TemplatePayload(to, this, given, matched);
+    }
+
+    /**
+     * Headers and bodies by type; buttons by index, or else the next button that needs parameters
+     */
+    private Slot match(TemplateComponentDto component, List<Slot> matched) {
+        String type = component.getType() != null ? component.getType().toLowerCase() : "";
+        for (Slot slot : slots) {
+            if (!slot.type.equals(type) || matched.contains(slot)) {
+                continue;
+            }
+            if (component.getIndex() != null ? component.getIndex().equals(slot.index) : slot.minParameters > 0) {
+                return slot;
+            }
+        }
+        throw new IllegalArgumentException("Template " + name + " has no " + type
+                + (component.getIndex() != null ? " " + component.getIndex() : "") + " parameters to fill");
+    }
+
+    private static String range(Slot slot) {
+        return slot.minParameters == slot.maxParameters
+                ? String.valueOf(slot.minParameters)
+                : slot.minParameters + "-" + slot.maxParameters;
+    }
+
+    /**
+     * Write the template content of a validated send
+     */
+    void writeContent(JsonGenerator gen, List<TemplateComponentDto> components, List<Slot> matched) throws IOException {
+        gen.writeFieldName(TYPE);
+        gen.writeString(TEMPLATE);
+        gen.writeFieldName(TEMPLATE);
+        gen.writeStartObject();
+        gen.writeFieldName(NAME);
+        gen.writeString(encodedName);
+        gen.writeFieldName(LANGUAGE);
+        gen.writeStartObject();
+        gen.writeFieldName(CODE);
+        gen.writeString(encodedLanguage);
+        gen.writeEndObject();
+
+        if (!components.isEmpty()) {
+            gen.writeFieldName(COMPONENTS);
+            gen.writeStartArray();
+            for (int i = 0; i < components.size(); i++) {
+                Slot slot = matched.get(i);
+                gen.writeStartObject();
+                gen.writeFieldName(TYPE);
+                gen.writeString(slot.encodedType);
+                if (slot.encodedSubType != null) {
+                    gen.writeFieldName(SUB_TYPE);
+                    gen.writeString(slot.encodedSubType);
+                    gen.writeFieldName(INDEX);
+                    gen.writeString(slot.encodedIndex);
+                }
+                gen.writeFieldName(PARAMETERS);
+                gen.writeStartArray();
+                List<TemplateParameterDto> parameters = components.get(i).getParameters();
+                if (parameters != null) {
+                    for (TemplateParameterDto param : parameters) {
+                        TemplatePayload.writeParameter(gen, param);
+                    }
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,28 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a notification sent as several messages.
+ * success is set only if every part was sent; messageId is that of the last part.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class MultipartMessageResponse extends MessageResponse {
+    private List<String> messageIds;
+    private List<MessageResponse> parts;
+
+    public MultipartMessageResponse(List<MessageResponse> parts) {
+        super(parts.stream().allMatch(MessageResponse::isSuccess),
+                parts.isEmpty() ? null : parts.get(parts.size() - 1).getMessageId(),
+                parts.stream().map(MessageResponse::getError).filter(Objects::nonNull).findFirst().orElse(null));
+        this.messageIds = parts.stream().map(MessageResponse::getMessageId).toList();
+        this.parts = List.copyOf(parts);
+    }
+}
@@ -0,0 +1,164 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Optional;
+
+/**
+ * A phone number in E.164 form, stored as digits without the leading '+' (the form the
+ * Cloud API uses for wa_id and message recipients). Every phone number that is used as a
+ * key — chat sessions, the customer index, CRM lookups, outbound recipients, campaign
+ * dedup — goes through {@link #of} so differently formatted inputs end up equal.
+ * <p>
+ * Normalization: digits only, leading trunk/international zeros dropped, India's country
+ * code added to 10-digit numbers. Instances are interned by raw input, so repeat lookups
+ * of the same sender do not parse or allocate.
+ */
+public final class PhoneNumber {
+
+    public static final String DEFAULT_COUNTRY_CODE = "91";
+
+    private static final int NATIONAL_LENGTH = 10;
+    private static final int MIN_LENGTH = 8;
+    // E.164 limit
+    private static final int MAX_LENGTH = 15;
+
+    private static final Cache<String, PhoneNumber> INTERNED = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    private final String digits;
+
+    private PhoneNumber(String digits) {
+        this.digits = digits;
+    }
+
+    /**
+     * Canonical phone number for a raw input (e.g. "+91 98765-43210", "098765 43210", "919876543210")
+     *
+     * @throws IllegalArgumentException if the input does not contain a plausible phone number
+     */
+    public static PhoneNumber of(String raw) {
+        if (raw == null) {
+            throw new IllegalArgumentException("Phone number is required");
+        }
+        PhoneNumber phone = lookup(raw);
+        if (phone == null) {
+            throw new IllegalArgumentException("Invalid phone number: " + raw);
+        }
+        return phone;
+    }
+
+    /**
+     * Like {@link #of}, but empty for a missing or invalid number
+     */
+    public static Optional<PhoneNumber> tryOf(String raw) {
+        return raw == null ? Optional.empty() : Optional.ofNullable(lookup(raw));
+    }
+
+    /**
+     * Canonical digits for a raw input without interning it, or null if it is not a plausible
+     * phone number. For bulk sources (CRM contact loads) that would only churn the cache.
+     */
+    public static String canonical(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        int length = raw.length();
+
+        // Fast path: already canonical, nothing to allocate
+        if (length >= MIN_LENGTH && length <= MAX_LENGTH && length != NATIONAL_LENGTH && raw.charAt(0) != '0') {
+            boolean digitsOnly = true;
+            for (int i = 0; i < length && digitsOnly; i++) {
+                char c = raw.charAt(i);
+                digitsOnly = c >= '0' && c <= '9';
+            }
+            if (digitsOnly) {
+                return raw;
+            }
+        }
+
+        // Single pass: keep digits, skip leading zeros, reserve room for the country code
+        char[] out = new char[Math.min(length, MAX_LENGTH + 1) + DEFAULT_COUNTRY_CODE.length()];
+        int start = DEFAULT_COUNTRY_CODE.length();
+        int end = start;
+        for (int i = 0; i < length; i++) {
+            char c = raw.charAt(i);
+            if (c < '0' || c > '9' || (c == '0' && end == start)) {
+                continue;
+            }
+            if (end - start > MAX_LENGTH) {
+                return null;
+            }
+            out[end++] = c;
+        }
+
+        int count = end - start;
+        if (count == NATIONAL_LENGTH) {
+            DEFAULT_COUNTRY_CODE.getChars(0, DEFAULT_COUNTRY_CODE.length(), out, 0);
+            start = 0;
+            count += DEFAULT_COUNTRY_CODE.length();
+        }
+        if (count < MIN_LENGTH || count > MAX_LENGTH) {
+            return null;
+        }
+        return new String(out, start, count);
+    }
+
+    private static PhoneNumber lookup(String raw) {
+        PhoneNumber phone = INTERNED.getIfPresent(raw);
+        if (phone != null) {
+            return phone;
+        }
+        String digits = canonical(raw);
+        if (digits == null) {
+            return null;
+        }
+        // Other spellings of the number share the canonical instance
+        phone = INTERNED.get(digits, PhoneNumber::new);
+        if (!digits.equals(raw)) {
+            INTERNED.put(raw, phone);
+        }
+        return phone;
+    }
+
+    /**
+     * Digits with country code and no '+', as sent in the Cloud API "to" field
+     */
+    public String digits() {
+        return digits;
+    }
+
+    /**
+     * "+" followed by the digits
+     */
+    public String toE164() {
+        return "+" + digits;
+    }
+
+    /**
+     * Number without the default country code, for matching against CRM fields that are
+     * often stored in national format; numbers from other countries are returned whole
+     */
+    public String nationalNumber() {
+        return digits.length() == DEFAULT_COUNTRY_CODE.length() + NATIONAL_LENGTH && digits.startsWith(DEFAULT_COUNTRY_CODE)
+                ? digits.substring(DEFAULT_COUNTRY_CODE.length())
+                : digits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof PhoneNumber other && digits.equals(other.digits));
+    }
+
+    @Override
+    public int hashCode() {
+        return digits.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return digits;
+    }
+}
@@ -0,0 +1,20 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+
+/**
+ * A previously serialized request body, e.g. a stored message being retried
+ */
+@Value
+public class RawPayload implements MessageBody {
+    String to;
+    String json;
+
+    @Override
+    public void writeTo(JsonGenerator gen) throws IOException {
+        gen.writeRawValue(json);
+    }
+}
@@ -11,4 +11,11 @@ import java.util.List;
 public class TemplateComponentDto {
     private String type;
     private List<TemplateParameterDto> parameters;
+    // Buttons only; filled in from the registered template when omitted
+    private String subType;
+    private Integer index;
+
+    public TemplateComponentDto(String type, List<TemplateParameterDto> parameters) {
+        this(type, parameters, null, null);
+    }
 }
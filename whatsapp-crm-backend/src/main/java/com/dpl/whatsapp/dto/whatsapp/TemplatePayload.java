@@ -0,0 +1,111 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Pre-approved template message; text, media, button payload and coupon code parameters are supported
+ */
+@Value
+public class TemplatePayload implements WhatsAppPayload {
+    String to;
+    String templateName;
+    String languageCode;
+    List<TemplateComponentDto> components;
+    // Registered template and the slot each component fills; null for unchecked sends
+    MessageTemplate template;
+    List<MessageTemplate.Slot> slots;
+
+    public TemplatePayload(String to, String templateName, String languageCode, List<TemplateComponentDto> components) {
+        this.to = to;
+        this.templateName = templateName;
+        this.languageCode = languageCode;
+        this.components = components != null ? List.copyOf(components) : List.of();
+        this.template = null;
+        this.slots = null;
+    }
+
+    /**
+     * A send checked against a registered template, see {@link MessageTemplate#payload}
+     */
+    TemplatePayload(String to, MessageTemplate template, List<TemplateComponentDto> components,
+                    List<MessageTemplate.Slot> slots) {
+        this.to = to;
+        this.templateName = template.getName();
+        this.languageCode = template.getLanguage();
+        this.components = List.copyOf(components);
+        this.template = template;
+        this.slots = List.copyOf(slots);
+    }
+
+    @Override
+    public void writeTo(JsonGenerator gen) throws IOException {
+        // Template messages are sent without recipient_type
+        gen.writeStartObject();
+        gen.writeStringField("messaging_product", "whatsapp");
+        gen.writeStringField("to", to);
+        writeContent(gen);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void writeContent(JsonGenerator gen) throws IOException {
+        if (template != null) {
+            template.writeContent(gen, components, slots);
+            return;
+        }
+
+        gen.writeStringField("type", "template");
+        gen.writeObjectFieldStart("template");
+        gen.writeStringField("name", templateName);
+        gen.writeObjectFieldStart("language");
+        gen.writeStringField("code", languageCode);
+        gen.writeEndObject();
+
+        if (!components.isEmpty()) {
+            gen.writeArrayFieldStart("components");
+            for (TemplateComponentDto component : components) {
+                gen.writeStartObject();
+                gen.writeStringField("type", component.getType());
+                if (component.getSubType() != null) {
+                    gen.writeStringField("sub_type", component.getSubType());
+                }
+                if (component.getIndex() != null) {
+                    gen.writeStringField("index", component.getIndex().toString());
+                }
+                if (component.getParameters() != null) {
+                    gen.writeArrayFieldStart("parameters");
+                    for (TemplateParameterDto param : component.getParameters()) {
+                        writeParameter(gen, param);
+                    }
+                    gen.writeEndArray();
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeEndObject();
+    }
+
+    static void writeParameter(JsonGenerator gen, TemplateParameterDto param) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", param.getType());
+        if ("text".equals(param.getType()) || "payload".equals(param.getType()) || "coupon_code".equals(param.getType())) {
+            gen.writeStringField(param.getType(), param.getValue());
+        } else if ("image".equals(param.getType()) || "video".equals(param.getType())) {
+            gen.writeObjectFieldStart(param.getType());
+            gen.writeStringField("link", param.getValue());
+            gen.writeEndObject();
+        } else if ("document".equals(param.getType())) {
+            gen.writeObjectFieldStart("document");
+            gen.writeStringField("link", param.getValue());
+            gen.writeStringField("filename", param.getFilename());
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,21 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+
+@Value
+public class TextPayload implements WhatsAppPayload {
+    String to;
+    String body;
+
+    @Override
+    public void writeContent(JsonGenerator gen) throws IOException {
+        gen.writeStringField("type", "text");
+        gen.writeObjectFieldStart("text");
+        gen.writeBooleanField("preview_url", false);
+        gen.writeStringField("body", body);
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,30 @@
+package com.dpl.whatsapp.dto.whatsapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Immutable Cloud API message payload that streams itself as JSON
+ */
+public interface WhatsAppPayload extends MessageBody {
+
+    /**
+     * Write the message-type specific fields ("type" and its object)
+     */
+    void writeContent(JsonGenerator gen) throws IOException;
+
+    @Override
+    default void writeTo(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("messaging_product", "whatsapp");
+        gen.writeStringField("recipient_type", "individual");
+        gen.writeStringField("to", getTo());
+        writeContent(gen);
+        gen.writeEndObject();
+    }
+
+    static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,58 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk notification campaign. Recipients are processed in chunks in sequence order;
+ * checkpoint is the last sequence number of the last fully processed chunk.
+ */
+@Entity
+@Table(name = "campaigns")
+@Data
+public class Campaign {
+
+    public enum Type { FESTIVAL_GREETING, BIRTHDAY_GREETING, SHIPMENT_REMINDER, CONTRACT_EXPIRY }
+
+    public enum Status { IMPORTING, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    private String name;
+
+    // Dynamics org the campaign sends for; null for campaigns created before orgs were recorded
+    private String orgId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    // Festival greetings
+    private String festivalName;
+    @Column(length = 2000)
+    private String customMessage;
+    
+    private double messagesPerSecond;
+    
+    private int total;
+    private int sent;
+    private int failed;
+    // Sends waiting in the message retry store; each moves to sent or failed when it resolves
+    private int retrying;
+    private long checkpoint;
+    
+    @Column(length = 1000)
+    private String error;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime updatedAt;
+}
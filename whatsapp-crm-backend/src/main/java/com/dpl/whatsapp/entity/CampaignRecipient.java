@@ -0,0 +1,45 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One recipient of a campaign, with the per-type message fields
+ * (order or contract number, last or expiry date, pending quantity)
+ */
+@Entity
+@Table(name = "campaign_recipients", indexes = {
+        @Index(name = "idx_campaign_recipients_seq", columnList = "campaignId, seq", unique = true)
+})
+@Data
+public class CampaignRecipient {
+
+    // RETRYING: failed with a retryable error and queued in the message retry store
+    public enum Status { PENDING, SENT, FAILED, RETRYING }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(nullable = false)
+    private String campaignId;
+    
+    @Column(nullable = false)
+    private long seq;
+    
+    @Column(nullable = false)
+    private String phoneNumber;
+    
+    private String customerName;
+    private String reference;
+    private String dueDate;
+    private Double quantity;
+    
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+    
+    private String messageId;
+    
+    @Column(length = 1000)
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.dpl.whatsapp.entity;
 
+import com.dpl.whatsapp.config.Dynamics365Config;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -7,21 +8,33 @@ import java.util.Map;
 import java.util.HashMap;
 
 @Entity
-@Table(name = "chat_sessions")
+@Table(name = "chat_sessions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_sessions_org_phone", columnNames = {"orgId", "phoneNumber"})
+})
 @Data
 public class ChatSession {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
+
+    // Dynamics org the customer wrote to; customer and contact ids belong to that org.
+    // The column default backfills sessions from before orgs when ddl-auto adds the column;
+    // their old unique constraint on phone_number alone still has to be dropped by hand.
+    @Column(nullable = false, columnDefinition = "varchar(255) default '" + Dynamics365Config.DEFAULT_ORG + "'")
+    private String orgId;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String phoneNumber;
     
     private String customerId;
     private String contactId;
     private String customerName;
     private String currentState;
-    
+
+    // Chosen by the customer; null means the default language
+    @Column(length = 16)
+    private String language;
+
     @ElementCollection
     @CollectionTable(name = "chat_session_data")
     @MapKeyColumn(name = "data_key")
@@ -0,0 +1,43 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import com.dpl.whatsapp.service.OutboundPriority;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A message that failed permanently or ran out of retries; kept for inspection and replay
+ */
+@Entity
+@Table(name = "dead_letter_messages", indexes = {
+        @Index(name = "idx_dead_letter_messages_failed_at", columnList = "failedAt")
+})
+@Data
+public class DeadLetterMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    // Business number the message is sent from; null for the default number
+    private String phoneNumberId;
+
+    // Outbound queue the message is sent through; null for transactional
+    @Enumerated(EnumType.STRING)
+    private OutboundPriority priority;
+    
+    @Column(nullable = false, length = 65536)
+    private String payload;
+    
+    private int attempts;
+    private Integer errorCode;
+    
+    @Column(length = 1000)
+    private String error;
+    
+    // When the message was first sent
+    private LocalDateTime createdAt;
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,55 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Local due-date index entry: one Dataverse record that a reminder is due for
+ */
+@Entity
+@Table(name = "reminder_due", indexes = {
+        @Index(name = "idx_reminder_due_notify", columnList = "kind,notifyOn"),
+        @Index(name = "idx_reminder_due_month_day", columnList = "kind,monthDay"),
+        @Index(name = "idx_reminder_due_record", columnList = "orgId,kind,recordId")
+})
+@Data
+public class ReminderDue {
+    // org id, reminder type and record id
+    @Id
+    private String id;
+    
+    @Column(nullable = false)
+    private String orgId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Campaign.Type kind;
+    
+    @Column(nullable = false)
+    private String recordId;
+    
+    // Canonical E.164 digits
+    @Column(nullable = false)
+    private String phoneNumber;
+    
+    private String customerName;
+    private String reference;
+    private Double quantity;
+    
+    // Birth date, contract end date or last shipment date
+    @Column(nullable = false)
+    private LocalDate dueDate;
+    
+    // Due date minus the lead days (contracts and shipments)
+    private LocalDate notifyOn;
+    
+    // month * 100 + day (birthdays)
+    private Integer monthDay;
+    
+    // Due date (for birthdays: the birthday) already notified, so each reminder goes out once
+    private LocalDate notifiedFor;
+    
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Where the due-date index sync of one org and reminder type left off
+ */
+@Entity
+@Table(name = "reminder_sync_state")
+@Data
+public class ReminderSyncState {
+    // org id and reminder type
+    @Id
+    private String id;
+    
+    // Change tracking delta link for the next incremental sync
+    @Column(length = 4000)
+    private String deltaLink;
+    
+    private LocalDateTime syncedAt;
+}
@@ -0,0 +1,49 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import com.dpl.whatsapp.service.OutboundPriority;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A message whose send failed with a retryable error, waiting for its next attempt
+ */
+@Entity
+@Table(name = "retry_messages", indexes = {
+        @Index(name = "idx_retry_messages_next_attempt", columnList = "nextAttemptAt")
+})
+@Data
+public class RetryMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    // Business number the message is sent from; null for the default number
+    private String phoneNumberId;
+
+    // Outbound queue the message is sent through; null for transactional
+    @Enumerated(EnumType.STRING)
+    private OutboundPriority priority;
+
+    // Campaign recipient whose status follows the retries, if sent by a campaign
+    private String campaignRecipientId;
+    
+    // Request body as sent to the messages endpoint
+    @Column(nullable = false, length = 65536)
+    private String payload;
+    
+    private int attempts;
+    private Integer errorCode;
+    
+    @Column(length = 1000)
+    private String error;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
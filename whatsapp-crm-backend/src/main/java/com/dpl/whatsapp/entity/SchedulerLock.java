@@ -0,0 +1,24 @@
+package com.dpl.whatsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Leader lease for a scheduled job shared by all nodes
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+public class SchedulerLock {
+    @Id
+    private String name;
+    
+    @Column(nullable = false)
+    private String owner;
+    
+    private LocalDateTime lockedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,24 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.CampaignRecipient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface CampaignRecipientRepository extends JpaRepository<CampaignRecipient, String> {
+    List<CampaignRecipient> findByCampaignIdAndSeqGreaterThanOrderBySeq(String campaignId, long seq, Pageable page);
+    List<CampaignRecipient> findByCampaignIdAndStatusOrderBySeq(String campaignId, CampaignRecipient.Status status,
+                                                                 Pageable page);
+
+    @Modifying
+    @Query("update CampaignRecipient r set r.status = :status, r.messageId = :messageId, r.error = :error " +
+            "where r.id = :id and r.status = :from")
+    int updateStatus(@Param("id") String id, @Param("from") CampaignRecipient.Status from,
+                     @Param("status") CampaignRecipient.Status status,
+                     @Param("messageId") String messageId, @Param("error") String error);
+}
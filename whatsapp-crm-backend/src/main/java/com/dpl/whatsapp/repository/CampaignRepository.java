@@ -0,0 +1,35 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.Campaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CampaignRepository extends JpaRepository<Campaign, String> {
+    List<Campaign> findByStatus(Campaign.Status status);
+    List<Campaign> findAllByOrderByCreatedAtDesc();
+
+    // Counters are only ever incremented in place: retries resolve while the campaign runs
+
+    @Modifying
+    @Query("update Campaign c set c.sent = c.sent + :sent, c.failed = c.failed + :failed, " +
+            "c.retrying = c.retrying + :retrying, c.checkpoint = :checkpoint, c.updatedAt = :now where c.id = :id")
+    int recordChunk(@Param("id") String id, @Param("sent") int sent, @Param("failed") int failed,
+                    @Param("retrying") int retrying, @Param("checkpoint") long checkpoint,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Campaign c set c.sent = c.sent + :sent, c.failed = c.failed + :failed, " +
+            "c.retrying = c.retrying - 1, c.updatedAt = :now where c.id = :id")
+    int retryResolved(@Param("id") String id, @Param("sent") int sent, @Param("failed") int failed,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Campaign c set c.status = :status, c.completedAt = :now, c.updatedAt = :now where c.id = :id")
+    int finish(@Param("id") String id, @Param("status") Campaign.Status status, @Param("now") LocalDateTime now);
+}
@@ -7,5 +7,5 @@ import java.util.Optional;
 
 @Repository
 public interface ChatSessionRepository extends JpaRepository<ChatSession, String> {
-    Optional<ChatSession> findByPhoneNumber(String phoneNumber);
+    Optional<ChatSession> findByOrgIdAndPhoneNumber(String orgId, String phoneNumber);
 }
@@ -0,0 +1,14 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.DeadLetterMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface DeadLetterMessageRepository extends JpaRepository<DeadLetterMessage, String> {
+    List<DeadLetterMessage> findAllByOrderByFailedAtDesc(Pageable page);
+    List<DeadLetterMessage> findByErrorCodeOrderByFailedAtDesc(Integer errorCode, Pageable page);
+    List<DeadLetterMessage> findByErrorCode(Integer errorCode);
+}
@@ -0,0 +1,43 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.Campaign;
+import com.dpl.whatsapp.entity.ReminderDue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReminderDueRepository extends JpaRepository<ReminderDue, String> {
+
+    /**
+     * Contract and shipment reminders whose notify date has come and whose due date has not passed
+     */
+    @Query("select r from ReminderDue r where r.kind = :kind and r.notifyOn <= :today and r.dueDate >= :today " +
+            "and (r.notifiedFor is null or r.notifiedFor <> r.dueDate) order by r.dueDate")
+    List<ReminderDue> findDue(@Param("kind") Campaign.Type kind, @Param("today") LocalDate today);
+
+    @Query("select r from ReminderDue r where r.kind = :kind and r.monthDay in :monthDays " +
+            "and (r.notifiedFor is null or r.notifiedFor <> :today)")
+    List<ReminderDue> findBirthdays(@Param("kind") Campaign.Type kind,
+                                    @Param("monthDays") Collection<Integer> monthDays,
+                                    @Param("today") LocalDate today);
+
+    List<ReminderDue> findByOrgIdAndKind(String orgId, Campaign.Type kind);
+
+    @Modifying
+    @Query("update ReminderDue r set r.notifiedFor = :notifiedFor where r.id in :ids")
+    int markNotified(@Param("ids") Collection<String> ids, @Param("notifiedFor") LocalDate notifiedFor);
+
+    @Modifying
+    @Query("update ReminderDue r set r.notifiedFor = r.dueDate where r.id in :ids")
+    int markDueNotified(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("delete from ReminderDue r where r.kind = :kind and r.dueDate < :before")
+    int deletePast(@Param("kind") Campaign.Type kind, @Param("before") LocalDate before);
+}
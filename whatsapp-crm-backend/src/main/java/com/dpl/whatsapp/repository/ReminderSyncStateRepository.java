@@ -0,0 +1,9 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.ReminderSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReminderSyncStateRepository extends JpaRepository<ReminderSyncState, String> {
+}
@@ -0,0 +1,13 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.RetryMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RetryMessageRepository extends JpaRepository<RetryMessage, String> {
+    List<RetryMessage> findByNextAttemptAtLessThanEqualOrderByNextAttemptAt(LocalDateTime now, Pageable page);
+}
@@ -0,0 +1,35 @@
+package com.dpl.whatsapp.repository;
+
+import com.dpl.whatsapp.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take over an expired lease or extend our own; 0 if another node holds it
+     */
+    @Modifying
+    @Query("update SchedulerLock l set l.owner = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+            "where l.name = :name and (l.lockedUntil <= :now or l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Fails with a constraint violation if another node created the lock first
+     */
+    @Modifying
+    @Query(value = "insert into scheduler_locks (name, owner, locked_at, locked_until) " +
+            "values (:name, :owner, :now, :until)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner,
+               @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
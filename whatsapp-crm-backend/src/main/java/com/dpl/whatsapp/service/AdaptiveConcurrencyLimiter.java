@@ -0,0 +1,131 @@
+package com.dpl.whatsapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter: the limit grows by 1/limit per successful call and is
+ * multiplied by the backoff ratio on each throttling response. A Retry-After pause
+ * (with jitter) holds back every caller. Callers queue up to their deadline instead
+ * of failing immediately.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long pausedUntilNanos = System.nanoTime();
+
+    private final Counter throttled;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+
+        meterRegistry.gauge(name + ".limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge(name + ".limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight);
+        meterRegistry.gauge(name + ".limiter.queued", this, AdaptiveConcurrencyLimiter::getQueued);
+        this.throttled = meterRegistry.counter(name + ".limiter.throttled");
+        this.rejected = meterRegistry.counter(name + ".limiter.rejected");
+    }
+
+    /**
+     * Wait for a permit until the deadline (System.nanoTime based)
+     */
+    public void acquire(long deadlineNanos) {
+        lock.lock();
+        try {
+            queued++;
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    long pause = pausedUntilNanos - now;
+                    if (pause <= 0 && inFlight < (int) limit) {
+                        inFlight++;
+                        return;
+                    }
+                    long remaining = deadlineNanos - now;
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new RuntimeException("Dataverse request queue deadline exceeded");
+                    }
+                    available.awaitNanos(pause > 0 ? Math.min(pause, remaining) : remaining);
+                }
+            } finally {
+                queued--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a Dataverse permit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release after a successful call: additive increase
+     */
+    public void onSuccess() {
+        release(() -> limit = Math.min(maxLimit, limit + 1.0 / limit));
+    }
+
+    /**
+     * Release after a throttling response: multiplicative decrease and a jittered pause
+     */
+    public void onThrottled(Duration retryAfter) {
+        throttled.increment();
+        release(() -> {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            long base = retryAfter.toNanos();
+            long jitter = ThreadLocalRandom.current().nextLong(Math.max(base / 5, TimeUnit.MILLISECONDS.toNanos(100)));
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + base + jitter);
+        });
+    }
+
+    /**
+     * Release after a failure that says nothing about capacity
+     */
+    public void onIgnore() {
+        release(() -> { });
+    }
+
+    private void release(Runnable adjust) {
+        lock.lock();
+        try {
+            inFlight--;
+            adjust.run();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+}
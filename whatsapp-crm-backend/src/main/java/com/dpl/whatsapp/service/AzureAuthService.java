@@ -5,9 +5,14 @@ import com.azure.identity.ClientSecretCredentialBuilder;
 import com.dpl.whatsapp.config.Dynamics365Config;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
@@ -16,7 +21,13 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -27,43 +38,129 @@ import java.util.concurrent.atomic.AtomicReference;
 @Slf4j
 public class AzureAuthService {
 
+    // Refresh on use this long before a token expires
+    private static final long EXPIRY_SKEW_SECONDS = 60;
+
     private final Dynamics365Config config;
+    @Qualifier("azureWebClient")
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
-    
-    private final AtomicReference<String> cachedToken = new AtomicReference<>();
-    private final AtomicReference<Instant> tokenExpiry = new AtomicReference<>(Instant.MIN);
+    private final MeterRegistry meterRegistry;
+
+    // Per org; tokens are replaced as a whole, so readers never see a token with another token's expiry
+    private final Map<String, AtomicReference<Token>> tokens = new ConcurrentHashMap<>();
+    private SingleFlight coldStart;
+    // Own thread: the shared @Scheduled pool runs long jobs (index loads, syncs) that must not delay a refresh
+    private ScheduledExecutorService refresher;
+
+    @Value
+    static class Token {
+        String value;
+        Instant refreshAt;
+        Instant expiresAt;
+    }
+
+    @PostConstruct
+    void init() {
+        coldStart = new SingleFlight("azure.token", Duration.ofSeconds(30), meterRegistry);
+
+        long interval = config.getAzure().getRefreshCheckInterval().toMillis();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "azure-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshAhead, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
 
     /**
-     * Get a valid access token for Dynamics 365 API calls.
-     * Uses caching to avoid unnecessary token requests.
+     * Get a valid access token for Dynamics 365 API calls of the current org.
+     * Lock-free while a token is valid; the background refresh replaces it before expiry.
+     * If a refresh fails, the current token is served until its real expiry.
      */
     public String getAccessToken() {
-        // Check if we have a valid cached token
-        if (cachedToken.get() != null && Instant.now().isBefore(tokenExpiry.get().minusSeconds(60))) {
-            return cachedToken.get();
+        String orgId = CrmOrgContext.current();
+        AtomicReference<Token> holder = holder(orgId);
+        Token current = holder.get();
+        if (isUsable(current)) {
+            return current.getValue();
         }
-        
-        // Request new token
-        return refreshAccessToken();
+
+        // Cold start or about to expire: concurrent callers share a single token request
+        try {
+            Token fresh = coldStart.execute(orgId, () -> {
+                Token latest = holder.get();
+                return isUsable(latest) ? latest : refreshAccessToken(orgId);
+            });
+            return fresh.getValue();
+        } catch (RuntimeException e) {
+            // The skew only decides when to refresh: a token that has not really expired is still good
+            Token held = holder.get();
+            if (held != null && Instant.now().isBefore(held.getExpiresAt())) {
+                log.warn("Token refresh for org {} failed, using current token until {}", orgId, held.getExpiresAt());
+                return held.getValue();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Refresh ahead of expiry (at refresh-ahead-ratio of the token lifetime). On failure the
+     * current token keeps being served until it really expires and the next tick retries.
+     */
+    void refreshAhead() {
+        tokens.forEach((orgId, holder) -> {
+            Token current = holder.get();
+            if (current == null || Instant.now().isBefore(current.getRefreshAt())) {
+                return;
+            }
+
+            try {
+                coldStart.execute(orgId, () -> refreshAccessToken(orgId));
+            } catch (Exception e) {
+                log.warn("Background token refresh for org {} failed, keeping current token until {}: {}",
+                        orgId, current.getExpiresAt(), e.getMessage());
+            }
+        });
+    }
+
+    private AtomicReference<Token> holder(String orgId) {
+        return tokens.computeIfAbsent(orgId, id -> {
+            AtomicReference<Token> holder = new AtomicReference<>();
+            meterRegistry.gauge("azure.token.ttl.seconds", Tags.of("org", id), holder, ref -> {
+                Token current = ref.get();
+                return current != null ? Duration.between(Instant.now(), current.getExpiresAt()).getSeconds() : 0;
+            });
+            return holder;
+        });
+    }
+
+    private static boolean isUsable(Token token) {
+        return token != null && Instant.now().isBefore(token.getExpiresAt().minusSeconds(EXPIRY_SKEW_SECONDS));
     }
 
     /**
      * Request a new access token from Azure AD using Client Credentials flow
      */
-    private synchronized String refreshAccessToken() {
-        log.info("Requesting new access token from Azure AD");
+    private Token refreshAccessToken(String orgId) {
+        log.info("Requesting new access token from Azure AD for org {}", orgId);
+        Dynamics365Config.Azure azure = config.getOrg(orgId).getAzure();
         
         String tokenUrl = String.format(
             "https://login.microsoftonline.com/%s/oauth2/v2.0/token",
-            config.getAzure().getTenantId()
+            azure.getTenantId()
         );
         
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
         formData.add("grant_type", "client_credentials");
-        formData.add("client_id", config.getAzure().getClientId());
-        formData.add("client_secret", config.getAzure().getClientSecret());
-        formData.add("scope", config.getAzure().getScope());
+        formData.add("client_id", azure.getClientId());
+        formData.add("client_secret", azure.getClientSecret());
+        formData.add("scope", azure.getScope());
         
         try {
             String response = webClient.post()
@@ -79,14 +176,18 @@ public class AzureAuthService {
             int expiresIn = jsonResponse.get("expires_in").asInt();
             
             // Cache the token
-            cachedToken.set(accessToken);
-            tokenExpiry.set(Instant.now().plusSeconds(expiresIn));
+            Instant now = Instant.now();
+            long refreshIn = (long) (expiresIn * azure.getRefreshAheadRatio());
+            Token fresh = new Token(accessToken, now.plusSeconds(refreshIn), now.plusSeconds(expiresIn));
+            holder(orgId).set(fresh);
+            meterRegistry.counter("azure.token.refresh", "org", orgId, "outcome", "success").increment();
             
-            log.info("Successfully obtained access token, expires in {} seconds", expiresIn);
-            return accessToken;
+            log.info("Successfully obtained access token for org {}, expires in {} seconds", orgId, expiresIn);
+            return fresh;
             
         } catch (Exception e) {
-            log.error("Failed to obtain access token from Azure AD", e);
+            meterRegistry.counter("azure.token.refresh", "org", orgId, "outcome", "failure").increment();
+            log.error("Failed to obtain access token from Azure AD for org {}", orgId, e);
             throw new RuntimeException("Failed to authenticate with Azure AD", e);
         }
     }
@@ -0,0 +1,149 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.BulkConfig;
+import com.dpl.whatsapp.dto.crm.*;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bulk creation of CRM records through the Dataverse CreateMultiple message.
+ * Input is split into chunks that run with bounded parallelism. CreateMultiple is
+ * all-or-nothing, so a chunk rejected by validation (4xx) is retried record by record
+ * to report which items failed and why. A chunk that timed out or got a 5xx may have
+ * been committed anyway; its items are reported as unknown rather than created again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkCrmService {
+
+    private final BulkConfig config;
+    private final DataverseService dataverseService;
+
+    public BulkResultDto createLeads(List<LeadDto> leads) {
+        return createAll("leads", "lead", leads, dataverseService::toLeadRecord);
+    }
+
+    public BulkResultDto createOpportunities(List<OpportunityDto> opportunities) {
+        return createAll("opportunities", "opportunity", opportunities, dataverseService::toOpportunityRecord);
+    }
+
+    public BulkResultDto createComplaints(List<ComplaintDto> complaints) {
+        return createAll("incidents", "incident", complaints, dataverseService::toComplaintRecord);
+    }
+
+    public BulkResultDto createDeliveryOrders(List<DeliveryOrderDto> deliveryOrders) {
+        return createAll("cr_deliveryorders", "cr_deliveryorder", deliveryOrders, dataverseService::toDeliveryOrderRecord);
+    }
+
+    private <T> BulkResultDto createAll(String entitySet, String logicalName, List<T> items,
+                                        Function<T, Map<String, Object>> mapper) {
+        int chunkSize = Math.max(1, config.getChunkSize());
+        List<List<Map<String, Object>>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            List<Map<String, Object>> chunk = new ArrayList<>(chunkSize);
+            for (T item : items.subList(start, Math.min(items.size(), start + chunkSize))) {
+                chunk.add(mapper.apply(item));
+            }
+            chunks.add(chunk);
+        }
+
+        // Chunks run on other threads; carry the caller's org over
+        String orgId = CrmOrgContext.current();
+        List<BulkItemResultDto> results = Flux.range(0, chunks.size())
+                .flatMap(i -> Mono.fromCallable(() -> CrmOrgContext.call(orgId,
+                                        () -> createChunk(entitySet, logicalName, chunks.get(i), i * chunkSize)))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                        Math.max(1, config.getParallelism()))
+                .flatMapIterable(chunkResults -> chunkResults)
+                .collectSortedList(Comparator.comparingInt(BulkItemResultDto::getIndex))
+                .block();
+
+        BulkResultDto result = new BulkResultDto();
+        result.setItems(results);
+        result.setTotal(items.size());
+        result.setSucceeded((int) results.stream().filter(BulkItemResultDto::isSuccess).count());
+        result.setUnknown((int) results.stream().filter(BulkItemResultDto::isOutcomeUnknown).count());
+        result.setFailed(result.getTotal() - result.getSucceeded() - result.getUnknown());
+
+        log.info("Bulk create of {} {}: {} succeeded, {} failed, {} unknown",
+                result.getTotal(), entitySet, result.getSucceeded(), result.getFailed(), result.getUnknown());
+        return result;
+    }
+
+    private List<BulkItemResultDto> createChunk(String entitySet, String logicalName,
+                                                List<Map<String, Object>> records, int offset) {
+        List<BulkItemResultDto> results = new ArrayList<>(records.size());
+        try {
+            List<String> ids = dataverseService.createMultiple(entitySet, logicalName, records);
+            for (int i = 0; i < records.size(); i++) {
+                results.add(new BulkItemResultDto(offset + i, true, i < ids.size() ? ids.get(i) : null, null, false));
+            }
+            return results;
+        } catch (Exception e) {
+            if (!isRejected(e)) {
+                // Retrying could create the chunk twice
+                log.warn("CreateMultiple chunk at {} of {} failed with unknown outcome: {}",
+                        offset, entitySet, e.getMessage());
+                for (int i = 0; i < records.size(); i++) {
+                    results.add(failure(offset + i, e));
+                }
+                return results;
+            }
+            log.warn("CreateMultiple chunk at {} of {} rejected, creating records individually: {}",
+                    offset, entitySet, e.getMessage());
+        }
+
+        // Fall back to single creates to isolate the failing records
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                String id = dataverseService.create(entitySet, records.get(i));
+                results.add(new BulkItemResultDto(offset + i, true, id, null, false));
+            } catch (Exception e) {
+                results.add(failure(offset + i, e));
+            }
+        }
+        return results;
+    }
+
+    private static BulkItemResultDto failure(int index, Exception e) {
+        String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        return new BulkItemResultDto(index, false, null, error, !isRejected(e) && !isNotSent(e));
+    }
+
+    /**
+     * Dataverse refused the request (validation, permissions, ...), so nothing was created
+     */
+    private static boolean isRejected(Exception e) {
+        if (e.getCause() instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return response.getStatusCode().is4xxClientError() && status != 408 && status != 429;
+        }
+        return false;
+    }
+
+    /**
+     * Failed fast before the request went out (circuit breaker open, bulkhead full)
+     */
+    private static boolean isNotSent(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,207 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.BulkNotificationConfig;
+import com.dpl.whatsapp.dto.notification.*;
+import com.dpl.whatsapp.dto.whatsapp.MessageResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Bulk variants of the push notifications: items are read one at a time from a JSON array or
+ * NDJSON body, queued on the outbound scheduler with a bounded number in flight, and each
+ * result is written back as an NDJSON line as soon as its send completes (not in request order).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkNotificationService {
+
+    private final PushNotificationService notifications;
+    private final WhatsAppService whatsAppService;
+    private final BulkNotificationConfig config;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Kind<?>> kinds = new LinkedHashMap<>();
+
+    private record Kind<T>(Class<T> type,
+                           Function<T, String> phoneNumber,
+                           Function<T, CompletableFuture<? extends MessageResponse>> send) {
+    }
+
+    private record Result(int index, String phoneNumber, MessageResponse response) {
+    }
+
+    @PostConstruct
+    void init() {
+        register("customer-onboarded", CustomerOnboardedDto.class, CustomerOnboardedDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.customerOnboarded(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getSalesPersonName())));
+        register("quotation", QuotationNotificationDto.class, QuotationNotificationDto::getPhoneNumber,
+                r -> notifications.sendQuotation(r.getPhoneNumber(), r.getCustomerName(), r.getQuoteNumber(),
+                        r.getTotalAmount(), r.getPdfUrl(), r.getQuoteId()));
+        register("sales-order-created", SalesOrderNotificationDto.class, SalesOrderNotificationDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.salesOrderCreated(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getOrderNumber(), r.getTotalAmount())));
+        register("delivery-order-created", DeliveryOrderNotificationDto.class,
+                DeliveryOrderNotificationDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.doCreated(r.getPhoneNumber(), r.getCustomerName(),
+                        r.getDoNumber(), r.getDeliveryDate(), r.getQuantity())));
+        register("invoice", InvoiceNotificationDto.class, InvoiceNotificationDto::getPhoneNumber,
+                r -> notifications.sendInvoice(r.getPhoneNumber(), r.getCustomerName(), r.getInvoiceNumber(),
+                        r.getAmount(), r.getPdfUrl(), r.getTrackingLink()));
+        register("complaint-registered", ComplaintNotificationDto.class, ComplaintNotificationDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.complaintRegistered(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getCaseNumber(), r.getIssueType())));
+        register("complaint-resolved", ComplaintResolvedDto.class, ComplaintResolvedDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.complaintResolved(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getCaseNumber(), r.getResolution())));
+        register("birthday", GreetingDto.class, GreetingDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.birthdayGreeting(r.getPhoneNumber(),
+                        r.getCustomerName()), OutboundPriority.MARKETING));
+        register("festival", FestivalGreetingDto.class, FestivalGreetingDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.festivalGreeting(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getFestivalName(), r.getCustomMessage()), OutboundPriority.MARKETING));
+        register("shipment-reminder", ShipmentReminderDto.class, ShipmentReminderDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.shipmentPendingReminder(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getOrderNumber(), r.getLastDate(), r.getPendingQuantity())));
+        register("contract-expiry", ContractExpiryDto.class, ContractExpiryDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.contractExpiryNotification(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getContractNumber(), r.getExpiryDate())));
+        register("credit-limit-exceeded", CreditLimitDto.class, CreditLimitDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.creditLimitExceeded(r.getPhoneNumber(),
+                        r.getCustomerName(), r.getCurrentOutstanding(), r.getCreditLimit())));
+        register("approval-request", ApprovalRequestDto.class, ApprovalRequestDto::getPhoneNumber,
+                r -> whatsAppService.sendAsync(notifications.approvalRequest(r.getPhoneNumber(),
+                        r.getApproverName(), r.getRequestType(), r.getRequestDetails(), r.getRequestId())));
+    }
+
+    private <T> void register(String name, Class<T> type, Function<T, String> phoneNumber,
+                              Function<T, CompletableFuture<? extends MessageResponse>> send) {
+        kinds.put(name, new Kind<>(type, phoneNumber, send));
+    }
+
+    public boolean supports(String kind) {
+        return kinds.containsKey(kind);
+    }
+
+    public Set<String> getKinds() {
+        return kinds.keySet();
+    }
+
+    /**
+     * Send every item of {@code body} as notification {@code kind}, writing one result line per item to {@code out}
+     */
+    public void send(String kind, InputStream body, OutputStream out) throws IOException {
+        Kind<?> registered = kinds.get(kind);
+        if (registered == null) {
+            throw new IllegalArgumentException("Unknown notification type: " + kind);
+        }
+        stream(registered, body, out);
+    }
+
+    private <T> void stream(Kind<T> kind, InputStream body, OutputStream out) throws IOException {
+        BlockingQueue<Result> completed = new LinkedBlockingQueue<>();
+        List<Result> ready = new ArrayList<>();
+        boolean reading = true;
+        int submitted = 0;
+        int written = 0;
+        int failed = 0;
+
+        try (MappingIterator<T> items = objectMapper.readerFor(kind.type()).readValues(body);
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            // One JSON document per line
+            gen.setRootValueSeparator(null);
+
+            while (reading || written < submitted) {
+                if (reading && submitted - written < config.getMaxInFlight()) {
+                    // Read the next item while earlier ones are being sent
+                    try {
+                        if (items.hasNextValue()) {
+                            submit(kind, items.nextValue(), submitted++, completed);
+                        } else {
+                            reading = false;
+                        }
+                    } catch (JsonMappingException e) {
+                        // An item that does not fit the notification; the rest can still be read
+                        completed.add(new Result(submitted++, null, unreadable(e)));
+                    } catch (IOException e) {
+                        // Malformed JSON: finish what was sent and report the error last
+                        reading = false;
+                        completed.add(new Result(submitted++, null, unreadable(e)));
+                    }
+                    completed.drainTo(ready);
+                } else {
+                    ready.add(take(completed));
+                    completed.drainTo(ready);
+                }
+
+                if (!ready.isEmpty()) {
+                    for (Result result : ready) {
+                        failed += write(gen, result);
+                    }
+                    written += ready.size();
+                    ready.clear();
+                    gen.flush();
+                }
+            }
+        }
+        log.info("Bulk notification finished: {} items, {} failed", written, failed);
+    }
+
+    private static MessageResponse unreadable(IOException e) {
+        String message = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+        return new MessageResponse(false, null, "Unreadable item: " + message);
+    }
+
+    private <T> void submit(Kind<T> kind, T item, int index, BlockingQueue<Result> completed) {
+        String phoneNumber = kind.phoneNumber().apply(item);
+        CompletableFuture<? extends MessageResponse> send;
+        try {
+            send = kind.send().apply(item);
+        } catch (RuntimeException e) {
+            // e.g. an invalid phone number, rejected before queueing
+            send = CompletableFuture.completedFuture(new MessageResponse(false, null, e.getMessage()));
+        }
+        send.whenComplete((response, error) -> completed.add(new Result(index, phoneNumber,
+                error == null ? response : new MessageResponse(false, null, error.getMessage()))));
+    }
+
+    private static Result take(BlockingQueue<Result> completed) throws IOException {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for sends", e);
+        }
+    }
+
+    private static int write(JsonGenerator gen, Result result) throws IOException {
+        MessageResponse response = result.response();
+        NotificationResultDto line = new NotificationResultDto();
+        line.setIndex(result.index());
+        line.setPhoneNumber(result.phoneNumber());
+        line.setSuccess(response.isSuccess());
+        line.setMessageId(response.getMessageId());
+        line.setError(response.getError());
+        line.setErrorCode(response.getErrorCode());
+        gen.writeObject(line);
+        gen.writeRaw('\n');
+        return response.isSuccess() ? 0 : 1;
+    }
+}
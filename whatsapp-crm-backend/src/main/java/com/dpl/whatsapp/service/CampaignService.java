@@ -0,0 +1,488 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.CampaignConfig;
+import com.dpl.whatsapp.config.Dynamics365Config;
+import com.dpl.whatsapp.config.WhatsAppConfig;
+import com.dpl.whatsapp.dto.notification.CampaignRecipientDto;
+import com.dpl.whatsapp.dto.notification.CampaignRequestDto;
+import com.dpl.whatsapp.dto.notification.CampaignStatsDto;
+import com.dpl.whatsapp.dto.whatsapp.MessageResponse;
+import com.dpl.whatsapp.dto.whatsapp.PhoneNumber;
+import com.dpl.whatsapp.dto.whatsapp.WhatsAppPayload;
+import com.dpl.whatsapp.entity.Campaign;
+import com.dpl.whatsapp.entity.CampaignRecipient;
+import com.dpl.whatsapp.repository.CampaignRecipientRepository;
+import com.dpl.whatsapp.repository.CampaignRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bulk greeting and reminder campaigns.
+ * Recipients are imported up front (inline, uploaded file or Dataverse query) and then
+ * dispatched in chunks: each chunk is rendered in parallel, sent through the outbound
+ * queue at the campaign's own rate, and checkpointed together with the recipient results.
+ * The node working on a campaign holds a lease on it, renewed every chunk; campaigns whose
+ * lease ran out are resumed from their checkpoint by whichever node claims them next, so
+ * after a crash at most the chunk that was in flight is sent again. A campaign is
+ * dispatched from the WhatsApp number of the org it was created for.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CampaignService {
+
+    private static final String LEASE_PREFIX = "campaign.";
+
+    private final CampaignConfig config;
+    private final CampaignRepository campaigns;
+    private final CampaignRecipientRepository recipients;
+    private final PushNotificationService notifications;
+    private final WhatsAppService whatsAppService;
+    private final WhatsAppConfig whatsAppConfig;
+    private final MessageRetryService retryService;
+    private final DataverseService dataverseService;
+    private final LeaderLock leaderLock;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getMaxConcurrentCampaigns(), runnable -> {
+            Thread thread = new Thread(runnable, "campaign-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("whatsapp.campaign.active", active, Set::size);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Pick up campaigns whose node stopped: on startup, and periodically for nodes that crashed
+     * while this one was running. Campaigns another node still holds the lease on are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${whatsapp.campaign.resume-interval:PT1M}",
+            initialDelayString = "${whatsapp.campaign.resume-interval:PT1M}")
+    public void resume() {
+        for (Campaign campaign : campaigns.findByStatus(Campaign.Status.RUNNING)) {
+            if (!active.contains(campaign.getId()) && claim(campaign.getId())) {
+                log.info("Resuming campaign {} ({}) after recipient #{}", campaign.getId(), campaign.getName(),
+                        campaign.getCheckpoint());
+                submit(campaign.getId());
+            }
+        }
+        // An interrupted import cannot be resumed: the upload is gone
+        for (Campaign campaign : campaigns.findByStatus(Campaign.Status.IMPORTING)) {
+            if (claim(campaign.getId())) {
+                campaign.setStatus(Campaign.Status.FAILED);
+                campaign.setError("Interrupted while importing recipients");
+                campaign.setUpdatedAt(LocalDateTime.now());
+                campaigns.save(campaign);
+                leaderLock.release(LEASE_PREFIX + campaign.getId());
+            }
+        }
+    }
+
+    /**
+     * Take or renew the lease on a campaign; false if another node is working on it
+     */
+    private boolean claim(String campaignId) {
+        return leaderLock.tryAcquire(LEASE_PREFIX + campaignId, config.getLeaseTtl());
+    }
+
+    // ==================== CREATION ====================
+
+    /**
+     * Create a campaign, import its recipients and start dispatching
+     *
+     * @param uploaded recipients from an uploaded file, or null to use the request's recipients or Dataverse source
+     */
+    public CampaignStatsDto create(CampaignRequestDto request, Iterator<CampaignRecipientDto> uploaded) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Campaign type is required");
+        }
+        if (request.getType() == Campaign.Type.FESTIVAL_GREETING && request.getFestivalName() == null) {
+            throw new IllegalArgumentException("festivalName is required for festival greetings");
+        }
+
+        Campaign campaign = new Campaign();
+        campaign.setName(request.getName() != null ? request.getName() : request.getType().name().toLowerCase());
+        campaign.setOrgId(CrmOrgContext.current());
+        campaign.setType(request.getType());
+        campaign.setStatus(Campaign.Status.IMPORTING);
+        campaign.setFestivalName(request.getFestivalName());
+        campaign.setCustomMessage(request.getCustomMessage());
+        campaign.setMessagesPerSecond(request.getMessagesPerSecond() != null
+                ? request.getMessagesPerSecond() : config.getMessagesPerSecond());
+        campaign.setCreatedAt(LocalDateTime.now());
+        campaign.setUpdatedAt(campaign.getCreatedAt());
+        campaign = campaigns.save(campaign);
+        // Held until the recipients are in, so other nodes do not fail the import as interrupted
+        claim(campaign.getId());
+
+        try {
+            Iterator<CampaignRecipientDto> source;
+            if (uploaded != null) {
+                source = uploaded;
+            } else if (request.getRecipients() != null) {
+                source = request.getRecipients().iterator();
+            } else if (request.getDataverse() != null) {
+                source = dataverseRecipients(request.getDataverse());
+            } else {
+                throw new IllegalArgumentException("No recipients: provide recipients, a file or a Dataverse source");
+            }
+            campaign.setTotal(importRecipients(campaign, source));
+        } catch (RuntimeException e) {
+            campaign.setStatus(Campaign.Status.FAILED);
+            campaign.setError(e.getMessage());
+            campaign.setUpdatedAt(LocalDateTime.now());
+            campaigns.save(campaign);
+            leaderLock.release(LEASE_PREFIX + campaign.getId());
+            throw e;
+        }
+
+        campaign.setStatus(Campaign.Status.RUNNING);
+        campaign.setUpdatedAt(LocalDateTime.now());
+        campaign = campaigns.save(campaign);
+        log.info("Campaign {} ({}) created with {} recipients", campaign.getId(), campaign.getName(), campaign.getTotal());
+
+        submit(campaign.getId());
+        return toStats(campaign);
+    }
+
+    /**
+     * Store recipients in canonical phone form, dropping invalid numbers and duplicates
+     * (the same number, or for reminders the same number and reference)
+     */
+    private int importRecipients(Campaign campaign, Iterator<CampaignRecipientDto> source) {
+        boolean greeting = campaign.getType() == Campaign.Type.FESTIVAL_GREETING
+                || campaign.getType() == Campaign.Type.BIRTHDAY_GREETING;
+        Set<String> seen = new HashSet<>();
+        List<CampaignRecipient> batch = new ArrayList<>(config.getImportBatchSize());
+        long seq = 0;
+        int skipped = 0;
+        while (source.hasNext()) {
+            CampaignRecipientDto dto = source.next();
+            // Not interned: a large import would only churn the intern cache
+            String phone = PhoneNumber.canonical(dto.getPhoneNumber());
+            if (phone == null || !seen.add(greeting ? phone : phone + '|' + dto.getReference())) {
+                skipped++;
+                continue;
+            }
+            CampaignRecipient recipient = new CampaignRecipient();
+            recipient.setCampaignId(campaign.getId());
+            recipient.setSeq(++seq);
+            recipient.setPhoneNumber(phone);
+            recipient.setCustomerName(dto.getCustomerName());
+            recipient.setReference(dto.getReference());
+            recipient.setDueDate(dto.getDueDate());
+            recipient.setQuantity(dto.getQuantity());
+            batch.add(recipient);
+
+            if (batch.size() >= config.getImportBatchSize()) {
+                recipients.saveAll(batch);
+                batch.clear();
+                if (!claim(campaign.getId())) {
+                    throw new IllegalStateException("Lost the lease on campaign " + campaign.getId() + " while importing");
+                }
+            }
+        }
+        recipients.saveAll(batch);
+        if (skipped > 0) {
+            log.info("Campaign {}: skipped {} invalid or duplicate recipients", campaign.getId(), skipped);
+        }
+        return (int) seq;
+    }
+
+    /**
+     * Page through a Dataverse query, mapping the configured columns to recipients
+     */
+    private Iterator<CampaignRecipientDto> dataverseRecipients(CampaignRequestDto.DataverseSource source) {
+        String prefer = "odata.maxpagesize=" + config.getImportBatchSize();
+        return new Iterator<>() {
+            private ODataPage<Map<String, String>> page = dataverseService.getPageByUrl(
+                    dataverseService.getApiUrl(source.getEntitySet(), source.getQuery()), prefer, ODataReader::readFields);
+            private Iterator<Map<String, String>> records = page.getValue().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!records.hasNext() && page.getNextLink() != null) {
+                    page = dataverseService.getPageByUrl(page.getNextLink(), prefer, ODataReader::readFields);
+                    records = page.getValue().iterator();
+                }
+                return records.hasNext();
+            }
+
+            @Override
+            public CampaignRecipientDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, String> record = records.next();
+                CampaignRecipientDto recipient = new CampaignRecipientDto();
+                recipient.setPhoneNumber(field(record, source.getPhoneField()));
+                recipient.setCustomerName(field(record, source.getNameField()));
+                recipient.setReference(field(record, source.getReferenceField()));
+                recipient.setDueDate(field(record, source.getDueDateField()));
+                String quantity = field(record, source.getQuantityField());
+                recipient.setQuantity(quantity != null ? Double.valueOf(quantity) : null);
+                return recipient;
+            }
+        };
+    }
+
+    private static String field(Map<String, String> record, String name) {
+        return name != null ? record.get(name) : null;
+    }
+
+    // ==================== DISPATCH ====================
+
+    private void submit(String campaignId) {
+        if (active.add(campaignId)) {
+            workers.execute(() -> {
+                try {
+                    run(campaignId);
+                } catch (Exception e) {
+                    log.error("Campaign {} failed", campaignId, e);
+                    campaigns.findById(campaignId).ifPresent(campaign -> {
+                        campaign.setStatus(Campaign.Status.FAILED);
+                        campaign.setError(e.getMessage());
+                        campaign.setUpdatedAt(LocalDateTime.now());
+                        campaigns.save(campaign);
+                    });
+                } finally {
+                    leaderLock.release(LEASE_PREFIX + campaignId);
+                    active.remove(campaignId);
+                    cancelled.remove(campaignId);
+                }
+            });
+        }
+    }
+
+    private void run(String campaignId) {
+        Campaign campaign = campaigns.findById(campaignId).orElseThrow();
+        String orgId = campaign.getOrgId() != null ? campaign.getOrgId() : Dynamics365Config.DEFAULT_ORG;
+        try (CrmOrgContext.Scope ignored = CrmOrgContext.open(orgId)) {
+            run(campaign);
+        }
+    }
+
+    private void run(Campaign campaign) {
+        String campaignId = campaign.getId();
+        if (campaign.getStartedAt() == null) {
+            campaign.setStartedAt(LocalDateTime.now());
+            campaign = campaigns.save(campaign);
+        }
+
+        double rate = campaign.getMessagesPerSecond() > 0 ? campaign.getMessagesPerSecond() : config.getMessagesPerSecond();
+        TokenBucket throttle = new TokenBucket(Math.max(1, rate), rate);
+
+        while (true) {
+            if (cancelled.contains(campaignId) || Thread.currentThread().isInterrupted()) {
+                if (cancelled.contains(campaignId)) {
+                    finish(campaign, Campaign.Status.CANCELLED);
+                }
+                return;
+            }
+            // Cancelled through another node, or taken over after our lease ran out while queued
+            if (campaign.getStatus() != Campaign.Status.RUNNING || !claim(campaignId)) {
+                log.info("Campaign {} is {} or claimed by another node, stopping", campaignId,
+                        campaign.getStatus().name().toLowerCase());
+                return;
+            }
+
+            List<CampaignRecipient> chunk = recipients.findByCampaignIdAndSeqGreaterThanOrderBySeq(
+                    campaignId, campaign.getCheckpoint(), PageRequest.of(0, config.getChunkSize()));
+            if (chunk.isEmpty()) {
+                finish(campaign, Campaign.Status.COMPLETED);
+                return;
+            }
+
+            campaign = dispatch(campaign, chunk, throttle);
+        }
+    }
+
+    /**
+     * Render a chunk in parallel, send it at the campaign rate, wait for the results and checkpoint
+     */
+    private Campaign dispatch(Campaign campaign, List<CampaignRecipient> chunk, TokenBucket throttle) {
+        // Rendering looks up the recipient's language in the campaign's org
+        String orgId = CrmOrgContext.current();
+        List<Object> rendered = chunk.parallelStream()
+                .map(recipient -> CrmOrgContext.call(orgId, () -> render(campaign, recipient)))
+                .toList();
+
+        List<CompletableFuture<MessageResponse>> results = new ArrayList<>(chunk.size());
+        for (Object message : rendered) {
+            if (message instanceof WhatsAppPayload payload) {
+                acquire(throttle);
+                // Failures are stored below, together with the recipients they belong to
+                results.add(whatsAppService.sendUnrecordedAsync(payload, OutboundPriority.MARKETING));
+            } else {
+                results.add(CompletableFuture.completedFuture(new MessageResponse(false, null, (String) message)));
+            }
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        WhatsAppConfig.BusinessNumber number = whatsAppConfig.getNumber(CrmOrgContext.current());
+        int[] counts = new int[CampaignRecipient.Status.values().length];
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                CampaignRecipient recipient = chunk.get(i);
+                MessageResponse result = results.get(i).join();
+                CampaignRecipient.Status outcome = CampaignRecipient.Status.SENT;
+                if (!result.isSuccess()) {
+                    // Queued for retry in this transaction, so the retry cannot resolve before the recipient is saved
+                    outcome = rendered.get(i) instanceof WhatsAppPayload payload
+                            && retryService.store(number, payload, OutboundPriority.MARKETING, result, recipient.getId())
+                            ? CampaignRecipient.Status.RETRYING : CampaignRecipient.Status.FAILED;
+                }
+                recipient.setStatus(outcome);
+                recipient.setMessageId(result.getMessageId());
+                recipient.setError(truncate(result.getError()));
+                counts[outcome.ordinal()]++;
+            }
+            recipients.saveAll(chunk);
+            campaigns.recordChunk(campaign.getId(), counts[CampaignRecipient.Status.SENT.ordinal()],
+                    counts[CampaignRecipient.Status.FAILED.ordinal()], counts[CampaignRecipient.Status.RETRYING.ordinal()],
+                    chunk.get(chunk.size() - 1).getSeq(), LocalDateTime.now());
+        });
+
+        for (CampaignRecipient.Status outcome : List.of(CampaignRecipient.Status.SENT, CampaignRecipient.Status.FAILED,
+                CampaignRecipient.Status.RETRYING)) {
+            meterRegistry.counter("whatsapp.campaign.messages", "type", campaign.getType().name(),
+                    "outcome", outcome.name().toLowerCase()).increment(counts[outcome.ordinal()]);
+        }
+        return campaigns.findById(campaign.getId()).orElseThrow();
+    }
+
+    /**
+     * The message for a recipient, or the reason it could not be rendered
+     */
+    private Object render(Campaign campaign, CampaignRecipient recipient) {
+        try {
+            String phone = recipient.getPhoneNumber();
+            String name = recipient.getCustomerName() != null ? recipient.getCustomerName() : "Customer";
+            double quantity = recipient.getQuantity() != null ? recipient.getQuantity() : 0;
+            return switch (campaign.getType()) {
+                case FESTIVAL_GREETING -> notifications.festivalGreeting(phone, name,
+                        campaign.getFestivalName(), campaign.getCustomMessage() != null ? campaign.getCustomMessage() : "");
+                case BIRTHDAY_GREETING -> notifications.birthdayGreeting(phone, name);
+                case SHIPMENT_REMINDER -> notifications.shipmentPendingReminder(phone, name,
+                        recipient.getReference(), recipient.getDueDate(), quantity);
+                case CONTRACT_EXPIRY -> notifications.contractExpiryNotification(phone, name,
+                        recipient.getReference(), recipient.getDueDate());
+            };
+        } catch (RuntimeException e) {
+            return "Could not render message: " + e.getMessage();
+        }
+    }
+
+    private static void acquire(TokenBucket throttle) {
+        long wait;
+        while ((wait = throttle.waitNanos(System.nanoTime())) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        throttle.take();
+    }
+
+    private Campaign finish(Campaign campaign, Campaign.Status status) {
+        transactionTemplate.executeWithoutResult(tx -> campaigns.finish(campaign.getId(), status, LocalDateTime.now()));
+        Campaign finished = campaigns.findById(campaign.getId()).orElseThrow();
+        log.info("Campaign {} ({}) {}: {} sent, {} failed, {} retrying of {}", finished.getId(), finished.getName(),
+                status.name().toLowerCase(), finished.getSent(), finished.getFailed(), finished.getRetrying(),
+                finished.getTotal());
+        return finished;
+    }
+
+    // ==================== STATUS ====================
+
+    /**
+     * Stop a running campaign after its current chunk
+     */
+    public Optional<CampaignStatsDto> cancel(String campaignId) {
+        Optional<Campaign> campaign = campaigns.findById(campaignId);
+        if (campaign.isPresent() && campaign.get().getStatus() == Campaign.Status.RUNNING) {
+            if (active.contains(campaignId)) {
+                cancelled.add(campaignId);
+            } else {
+                campaign = Optional.of(finish(campaign.get(), Campaign.Status.CANCELLED));
+            }
+        }
+        return campaign.map(this::toStats);
+    }
+
+    public Optional<CampaignStatsDto> getStats(String campaignId) {
+        return campaigns.findById(campaignId).map(this::toStats);
+    }
+
+    public List<CampaignStatsDto> getAllStats() {
+        return campaigns.findAllByOrderByCreatedAtDesc().stream().map(this::toStats).toList();
+    }
+
+    public List<CampaignRecipient> getFailures(String campaignId, int page, int size) {
+        return recipients.findByCampaignIdAndStatusOrderBySeq(campaignId, CampaignRecipient.Status.FAILED,
+                PageRequest.of(page, size));
+    }
+
+    private CampaignStatsDto toStats(Campaign campaign) {
+        CampaignStatsDto stats = new CampaignStatsDto();
+        stats.setId(campaign.getId());
+        stats.setName(campaign.getName());
+        stats.setOrgId(campaign.getOrgId());
+        stats.setType(campaign.getType());
+        stats.setStatus(campaign.getStatus());
+        stats.setTotal(campaign.getTotal());
+        stats.setSent(campaign.getSent());
+        stats.setFailed(campaign.getFailed());
+        stats.setRetrying(campaign.getRetrying());
+
+        // Dispatched at least once; retrying recipients are not pending
+        int processed = campaign.getSent() + campaign.getFailed() + campaign.getRetrying();
+        stats.setPending(Math.max(0, campaign.getTotal() - processed));
+        stats.setProgressPercent(campaign.getTotal() > 0 ? 100.0 * processed / campaign.getTotal() : 0);
+        if (campaign.getStartedAt() != null) {
+            LocalDateTime end = campaign.getCompletedAt() != null ? campaign.getCompletedAt() : LocalDateTime.now();
+            long millis = Duration.between(campaign.getStartedAt(), end).toMillis();
+            stats.setThroughput(millis > 0 ? processed * 1000.0 / millis : 0);
+        }
+
+        stats.setError(campaign.getError());
+        stats.setCreatedAt(campaign.getCreatedAt());
+        stats.setStartedAt(campaign.getStartedAt());
+        stats.setCompletedAt(campaign.getCompletedAt());
+        return stats;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -23,8 +23,13 @@ public class ChatbotService {
 
     private final WhatsAppService whatsAppService;
     private final DataverseService dataverseService;
+    private final CustomerPhoneIndex customerPhoneIndex;
     private final ChatSessionRepository sessionRepository;
     private final N8nWebhookService n8nService;
+    private final MessageCatalog messages;
+
+    private static final String LANGUAGE_COMMAND = "language";
+    private static final String LANGUAGE_PREFIX = "lang_";
 
     // Conversation states
     public enum State {
@@ -58,7 +63,9 @@ public class ChatbotService {
      * Process incoming WhatsApp message
      */
     public void processIncomingMessage(IncomingMessageDto message) {
-        String phoneNumber = message.getFrom();
+        // Canonical form is the session key, so the index and session lookups agree
+        PhoneNumber phone = PhoneNumber.of(message.getFrom());
+        String phoneNumber = phone.digits();
         String messageText = message.getText();
         String buttonId = message.getButtonReplyId();
         String listId = message.getListReplyId();
@@ -72,7 +79,7 @@ public class ChatbotService {
         ChatSession session = getOrCreateSession(phoneNumber);
 
         // Check if user is an existing customer
-        Optional<CustomerDto> customer = dataverseService.getCustomerByPhone(phoneNumber);
+        Optional<CustomerDto> customer = customerPhoneIndex.findByPhone(phone);
         if (customer.isPresent()) {
             session.setCustomerId(customer.get().getAccountId());
             session.setContactId(customer.get().getContactId());
@@ -90,6 +97,16 @@ public class ChatbotService {
         String input = buttonId != null ? buttonId : (listId != null ? listId : text);
         State currentState = State.valueOf(session.getCurrentState());
 
+        // The language can be changed from any state
+        if (listId != null && listId.startsWith(LANGUAGE_PREFIX)) {
+            changeLanguage(session, listId.substring(LANGUAGE_PREFIX.length()));
+            return;
+        }
+        if (text != null && LANGUAGE_COMMAND.equalsIgnoreCase(text.trim())) {
+            showLanguageMenu(session);
+            return;
+        }
+
         switch (currentState) {
             case INITIAL:
                 handleInitialState(session);
@@ -165,22 +182,22 @@ public class ChatbotService {
     private void handleInitialState(ChatSession session) {
         String greeting;
         if (session.getCustomerName() != null) {
-            greeting = String.format("Hello %s! 👋\nWelcome to DPL Customer Service.", session.getCustomerName());
+            greeting = text(session, MessageKey.GREETING_NAMED, session.getCustomerName());
         } else {
-            greeting = "Hello! 👋\nWelcome to DPL Customer Service.";
+            greeting = text(session, MessageKey.GREETING);
         }
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("menu_inquiry", "New Inquiry"),
-                new ButtonDto("menu_complaint", "Register Complaint"),
-                new ButtonDto("menu_do", "Book Delivery")
+                new ButtonDto("menu_inquiry", text(session, MessageKey.MENU_INQUIRY)),
+                new ButtonDto("menu_complaint", text(session, MessageKey.MENU_COMPLAINT)),
+                new ButtonDto("menu_do", text(session, MessageKey.MENU_DELIVERY))
         );
 
         whatsAppService.sendButtonMessage(
                 session.getPhoneNumber(),
-                "DPL WhatsApp Service",
-                greeting + "\n\nHow can I help you today?",
-                "Reply with your choice",
+                text(session, MessageKey.MENU_HEADER),
+                text(session, MessageKey.MENU_BODY, greeting),
+                text(session, MessageKey.MENU_FOOTER),
                 buttons
         );
 
@@ -188,7 +205,17 @@ public class ChatbotService {
     }
 
     private void handleMainMenu(ChatSession session, String choice) {
-        switch (choice.toLowerCase()) {
+        String input = choice.toLowerCase();
+        // Typed option names in the customer's language work like the buttons
+        if (input.equals(text(session, MessageKey.MENU_INQUIRY).toLowerCase())) {
+            input = "menu_inquiry";
+        } else if (input.equals(text(session, MessageKey.MENU_COMPLAINT).toLowerCase())) {
+            input = "menu_complaint";
+        } else if (input.equals(text(session, MessageKey.MENU_DELIVERY).toLowerCase())) {
+            input = "menu_do";
+        }
+
+        switch (input) {
             case "menu_inquiry":
             case "1":
             case "inquiry":
@@ -207,12 +234,37 @@ public class ChatbotService {
                 startDeliveryOrderFlow(session);
                 break;
             default:
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "I didn't understand that. Please select an option from the menu.");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.MENU_NOT_UNDERSTOOD));
                 handleInitialState(session);
         }
     }
 
+    // ==================== LANGUAGE ====================
+
+    private void showLanguageMenu(ChatSession session) {
+        List<ListRowDto> rows = new ArrayList<>();
+        for (String language : messages.getLanguages()) {
+            rows.add(new ListRowDto(LANGUAGE_PREFIX + language, messages.render(language, MessageKey.LANGUAGE_NAME), null));
+        }
+
+        whatsAppService.sendListMessage(session.getPhoneNumber(),
+                text(session, MessageKey.LANGUAGE_HEADER),
+                text(session, MessageKey.LANGUAGE_PROMPT),
+                null,
+                text(session, MessageKey.LANGUAGE_BUTTON),
+                List.of(new ListSectionDto(text(session, MessageKey.LANGUAGE_HEADER), rows)));
+    }
+
+    private void changeLanguage(ChatSession session, String language) {
+        if (messages.supports(language)) {
+            session.setLanguage(language);
+            messages.preferenceChanged(session);
+        }
+        // Back to the menu in the new language; any flow in progress is abandoned
+        session.setFlowData(new HashMap<>());
+        handleInitialState(session);
+    }
+
     // ==================== LEAD FLOW HANDLERS ====================
 
     private void startLeadFlow(ChatSession session) {
@@ -220,48 +272,41 @@ public class ChatbotService {
         
         if (session.getCustomerId() != null) {
             // Existing customer - create opportunity
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "Great! I'll help you submit a new inquiry.\n\nPlease describe the product you're interested in:");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_START_CUSTOMER));
             updateState(session, State.LEAD_PRODUCT_INTEREST);
         } else {
             // New customer - create lead
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "Great! I'll help you submit an inquiry.\n\nPlease provide your full name:");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_START));
             updateState(session, State.LEAD_NAME);
         }
     }
 
     private void handleLeadName(ChatSession session, String name) {
         session.getFlowData().put("name", name);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "Thank you, " + name + "!\n\nPlease provide your company name:");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_ASK_COMPANY, name));
         updateState(session, State.LEAD_COMPANY);
     }
 
     private void handleLeadCompany(ChatSession session, String company) {
         session.getFlowData().put("company", company);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "Got it!\n\nPlease provide your email address:");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_ASK_EMAIL));
         updateState(session, State.LEAD_EMAIL);
     }
 
     private void handleLeadEmail(ChatSession session, String email) {
         // Basic email validation
         if (!email.contains("@") || !email.contains(".")) {
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "That doesn't look like a valid email. Please provide a valid email address:");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_INVALID_EMAIL));
             return;
         }
         session.getFlowData().put("email", email);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "What product are you interested in?");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_ASK_PRODUCT));
         updateState(session, State.LEAD_PRODUCT_INTEREST);
     }
 
     private void handleLeadProductInterest(ChatSession session, String product) {
         session.getFlowData().put("product", product);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "What quantity are you looking for? (in MT)");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_ASK_QUANTITY));
         updateState(session, State.LEAD_QUANTITY);
     }
 
@@ -273,39 +318,24 @@ public class ChatbotService {
         String summary;
         
         if (session.getCustomerId() != null) {
-            summary = String.format(
-                    "Please confirm your inquiry:\n\n" +
-                    "📦 Product: %s\n" +
-                    "📊 Quantity: %s MT\n\n" +
-                    "Is this correct?",
-                    data.get("product"), quantity
-            );
+            summary = text(session, MessageKey.LEAD_CONFIRM_CUSTOMER, data.get("product"), quantity);
         } else {
-            summary = String.format(
-                    "Please confirm your details:\n\n" +
-                    "👤 Name: %s\n" +
-                    "🏢 Company: %s\n" +
-                    "📧 Email: %s\n" +
-                    "📦 Product: %s\n" +
-                    "📊 Quantity: %s MT\n\n" +
-                    "Is this correct?",
-                    data.get("name"), data.get("company"), data.get("email"),
-                    data.get("product"), quantity
-            );
+            summary = text(session, MessageKey.LEAD_CONFIRM, data.get("name"), data.get("company"),
+                    data.get("email"), data.get("product"), quantity);
         }
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("confirm_yes", "✅ Yes, Submit"),
-                new ButtonDto("confirm_no", "❌ No, Cancel")
+                new ButtonDto("confirm_yes", text(session, MessageKey.CONFIRM_SUBMIT)),
+                new ButtonDto("confirm_no", text(session, MessageKey.CONFIRM_CANCEL))
         );
 
         whatsAppService.sendButtonMessage(session.getPhoneNumber(),
-                "Confirm Inquiry", summary, null, buttons);
+                text(session, MessageKey.LEAD_CONFIRM_HEADER), summary, null, buttons);
         updateState(session, State.LEAD_CONFIRM);
     }
 
     private void handleLeadConfirm(ChatSession session, String response) {
-        if ("confirm_yes".equals(response) || response.toLowerCase().contains("yes")) {
+        if (confirmed(session, response)) {
             Map<String, String> data = session.getFlowData();
             
             try {
@@ -319,10 +349,8 @@ public class ChatbotService {
                     
                     String oppId = dataverseService.createOpportunity(opportunity);
                     
-                    whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                            "✅ Your inquiry has been submitted successfully!\n\n" +
-                            "Reference: OPP-" + oppId.substring(0, 8).toUpperCase() + "\n\n" +
-                            "Our sales team will contact you shortly. Thank you!");
+                    whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session,
+                            MessageKey.LEAD_OPPORTUNITY_CREATED, "OPP-" + oppId.substring(0, 8).toUpperCase()));
                     
                     // Notify n8n
                     n8nService.notifyOpportunityCreated(oppId, session);
@@ -341,22 +369,18 @@ public class ChatbotService {
                     
                     String leadId = dataverseService.createLead(lead);
                     
-                    whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                            "✅ Thank you for your inquiry!\n\n" +
-                            "Reference: LEAD-" + leadId.substring(0, 8).toUpperCase() + "\n\n" +
-                            "Our sales team will contact you shortly.");
+                    whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session,
+                            MessageKey.LEAD_CREATED, "LEAD-" + leadId.substring(0, 8).toUpperCase()));
                     
                     // Notify n8n
                     n8nService.notifyLeadCreated(leadId, session);
                 }
             } catch (Exception e) {
                 log.error("Failed to create lead/opportunity", e);
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "Sorry, there was an error processing your request. Please try again later or contact us directly.");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_FAILED));
             }
         } else {
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "No problem! Your inquiry has been cancelled.");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.LEAD_CANCELLED));
         }
 
         resetSession(session);
@@ -366,8 +390,7 @@ public class ChatbotService {
 
     private void startComplaintFlow(ChatSession session) {
         if (session.getCustomerId() == null) {
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "I couldn't find your account in our system. Please contact our support team directly or provide your customer ID.");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.COMPLAINT_NO_ACCOUNT));
             resetSession(session);
             return;
         }
@@ -376,18 +399,22 @@ public class ChatbotService {
 
         List<ListSectionDto> sections = new ArrayList<>();
         List<ListRowDto> rows = Arrays.asList(
-                new ListRowDto("complaint_quality", "Quality Issue", "Product quality related complaints"),
-                new ListRowDto("complaint_delivery", "Delivery Issue", "Late or wrong delivery"),
-                new ListRowDto("complaint_billing", "Billing Issue", "Invoice or payment related"),
-                new ListRowDto("complaint_other", "Other", "Other issues")
+                new ListRowDto("complaint_quality", text(session, MessageKey.COMPLAINT_QUALITY),
+                        text(session, MessageKey.COMPLAINT_QUALITY_DESCRIPTION)),
+                new ListRowDto("complaint_delivery", text(session, MessageKey.COMPLAINT_DELIVERY),
+                        text(session, MessageKey.COMPLAINT_DELIVERY_DESCRIPTION)),
+                new ListRowDto("complaint_billing", text(session, MessageKey.COMPLAINT_BILLING),
+                        text(session, MessageKey.COMPLAINT_BILLING_DESCRIPTION)),
+                new ListRowDto("complaint_other", text(session, MessageKey.COMPLAINT_OTHER),
+                        text(session, MessageKey.COMPLAINT_OTHER_DESCRIPTION))
         );
-        sections.add(new ListSectionDto("Complaint Types", rows));
+        sections.add(new ListSectionDto(text(session, MessageKey.COMPLAINT_TYPES), rows));
 
         whatsAppService.sendListMessage(session.getPhoneNumber(),
-                "Register Complaint",
-                "Please select the type of issue you're facing:",
+                text(session, MessageKey.COMPLAINT_HEADER),
+                text(session, MessageKey.COMPLAINT_TYPE_PROMPT),
                 null,
-                "Select Type",
+                text(session, MessageKey.COMPLAINT_TYPE_BUTTON),
                 sections);
 
         updateState(session, State.COMPLAINT_TYPE);
@@ -395,8 +422,7 @@ public class ChatbotService {
 
     private void handleComplaintType(ChatSession session, String type) {
         session.getFlowData().put("type", type);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "Please describe the issue in detail:");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.COMPLAINT_ASK_DESCRIPTION));
         updateState(session, State.COMPLAINT_DESCRIPTION);
     }
 
@@ -404,14 +430,14 @@ public class ChatbotService {
         session.getFlowData().put("description", description);
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("priority_high", "🔴 High"),
-                new ButtonDto("priority_normal", "🟡 Normal"),
-                new ButtonDto("priority_low", "🟢 Low")
+                new ButtonDto("priority_high", text(session, MessageKey.PRIORITY_HIGH)),
+                new ButtonDto("priority_normal", text(session, MessageKey.PRIORITY_NORMAL)),
+                new ButtonDto("priority_low", text(session, MessageKey.PRIORITY_LOW))
         );
 
         whatsAppService.sendButtonMessage(session.getPhoneNumber(),
-                "Priority",
-                "How urgent is this issue?",
+                text(session, MessageKey.PRIORITY_HEADER),
+                text(session, MessageKey.PRIORITY_PROMPT),
                 null,
                 buttons);
         updateState(session, State.COMPLAINT_PRIORITY);
@@ -424,29 +450,23 @@ public class ChatbotService {
         session.getFlowData().put("priorityLabel", priority.replace("priority_", "").toUpperCase());
 
         Map<String, String> data = session.getFlowData();
-        String summary = String.format(
-                "Please confirm your complaint:\n\n" +
-                "📋 Type: %s\n" +
-                "📝 Description: %s\n" +
-                "⚡ Priority: %s\n\n" +
-                "Submit this complaint?",
+        String summary = text(session, MessageKey.COMPLAINT_CONFIRM,
                 data.get("type").replace("complaint_", "").toUpperCase(),
                 data.get("description"),
-                data.get("priorityLabel")
-        );
+                data.get("priorityLabel"));
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("confirm_yes", "✅ Yes, Submit"),
-                new ButtonDto("confirm_no", "❌ No, Cancel")
+                new ButtonDto("confirm_yes", text(session, MessageKey.CONFIRM_SUBMIT)),
+                new ButtonDto("confirm_no", text(session, MessageKey.CONFIRM_CANCEL))
         );
 
         whatsAppService.sendButtonMessage(session.getPhoneNumber(),
-                "Confirm Complaint", summary, null, buttons);
+                text(session, MessageKey.COMPLAINT_CONFIRM_HEADER), summary, null, buttons);
         updateState(session, State.COMPLAINT_CONFIRM);
     }
 
     private void handleComplaintConfirm(ChatSession session, String response) {
-        if ("confirm_yes".equals(response) || response.toLowerCase().contains("yes")) {
+        if (confirmed(session, response)) {
             Map<String, String> data = session.getFlowData();
 
             try {
@@ -459,22 +479,18 @@ public class ChatbotService {
 
                 String complaintId = dataverseService.createComplaint(complaint);
 
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "✅ Your complaint has been registered!\n\n" +
-                        "Ticket ID: CASE-" + complaintId.substring(0, 8).toUpperCase() + "\n\n" +
-                        "Our team will investigate and get back to you shortly. Thank you for your patience.");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session,
+                        MessageKey.COMPLAINT_CREATED, "CASE-" + complaintId.substring(0, 8).toUpperCase()));
 
                 // Notify n8n
                 n8nService.notifyComplaintRegistered(complaintId, session);
 
             } catch (Exception e) {
                 log.error("Failed to create complaint", e);
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "Sorry, there was an error registering your complaint. Please try again later.");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.COMPLAINT_FAILED));
             }
         } else {
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "Complaint registration cancelled.");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.COMPLAINT_CANCELLED));
         }
 
         resetSession(session);
@@ -484,8 +500,7 @@ public class ChatbotService {
 
     private void startDeliveryOrderFlow(ChatSession session) {
         if (session.getCustomerId() == null) {
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "I couldn't find your account in our system. Please contact our sales team for assistance.");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_NO_ACCOUNT));
             resetSession(session);
             return;
         }
@@ -497,8 +512,7 @@ public class ChatbotService {
             List<SalesOrderDto> orders = dataverseService.getSalesOrdersByCustomer(session.getCustomerId());
 
             if (orders.isEmpty()) {
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "You don't have any active orders to book a delivery against. Please contact your sales representative.");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_NO_ORDERS));
                 resetSession(session);
                 return;
             }
@@ -510,24 +524,23 @@ public class ChatbotService {
                 rows.add(new ListRowDto(
                         "order_" + order.getOrderId(),
                         order.getOrderNumber(),
-                        order.getName() + " - ₹" + String.format("%.2f", order.getTotalAmount())
+                        text(session, MessageKey.DO_ORDER_ROW, order.getName(), order.getTotalAmount())
                 ));
             }
-            sections.add(new ListSectionDto("Your Orders", rows));
+            sections.add(new ListSectionDto(text(session, MessageKey.DO_ORDERS), rows));
 
             whatsAppService.sendListMessage(session.getPhoneNumber(),
-                    "Book Delivery Order",
-                    "Select the order you want to book delivery against:",
+                    text(session, MessageKey.DO_HEADER),
+                    text(session, MessageKey.DO_SELECT_PROMPT),
                     null,
-                    "Select Order",
+                    text(session, MessageKey.DO_SELECT_BUTTON),
                     sections);
 
             updateState(session, State.DO_SELECT_ORDER);
 
         } catch (Exception e) {
             log.error("Failed to fetch orders", e);
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "Sorry, couldn't fetch your orders. Please try again later.");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_FETCH_FAILED));
             resetSession(session);
         }
     }
@@ -536,22 +549,19 @@ public class ChatbotService {
         String actualOrderId = orderId.replace("order_", "");
         session.getFlowData().put("orderId", actualOrderId);
         
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "What quantity do you want to book for delivery? (in MT)");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_ASK_QUANTITY));
         updateState(session, State.DO_QUANTITY);
     }
 
     private void handleDoQuantity(ChatSession session, String quantity) {
         session.getFlowData().put("quantity", quantity);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "When do you need the delivery? (Please provide date in DD/MM/YYYY format)");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_ASK_DATE));
         updateState(session, State.DO_DELIVERY_DATE);
     }
 
     private void handleDoDeliveryDate(ChatSession session, String date) {
         session.getFlowData().put("deliveryDate", date);
-        whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                "Please provide the delivery address:");
+        whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_ASK_ADDRESS));
         updateState(session, State.DO_ADDRESS);
     }
 
@@ -559,27 +569,20 @@ public class ChatbotService {
         session.getFlowData().put("address", address);
 
         Map<String, String> data = session.getFlowData();
-        String summary = String.format(
-                "Please confirm your delivery order:\n\n" +
-                "📦 Quantity: %s MT\n" +
-                "📅 Delivery Date: %s\n" +
-                "📍 Address: %s\n\n" +
-                "Confirm this delivery order?",
-                data.get("quantity"), data.get("deliveryDate"), address
-        );
+        String summary = text(session, MessageKey.DO_CONFIRM, data.get("quantity"), data.get("deliveryDate"), address);
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("confirm_yes", "✅ Yes, Confirm"),
-                new ButtonDto("confirm_no", "❌ No, Cancel")
+                new ButtonDto("confirm_yes", text(session, MessageKey.CONFIRM_OK)),
+                new ButtonDto("confirm_no", text(session, MessageKey.CONFIRM_CANCEL))
         );
 
         whatsAppService.sendButtonMessage(session.getPhoneNumber(),
-                "Confirm Delivery", summary, null, buttons);
+                text(session, MessageKey.DO_CONFIRM_HEADER), summary, null, buttons);
         updateState(session, State.DO_CONFIRM);
     }
 
     private void handleDoConfirm(ChatSession session, String response) {
-        if ("confirm_yes".equals(response) || response.toLowerCase().contains("yes")) {
+        if (confirmed(session, response)) {
             Map<String, String> data = session.getFlowData();
 
             try {
@@ -593,22 +596,18 @@ public class ChatbotService {
 
                 String doId = dataverseService.createDeliveryOrder(deliveryOrder);
 
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "✅ Your delivery order has been created!\n\n" +
-                        "DO Number: DO-" + doId.substring(0, 8).toUpperCase() + "\n\n" +
-                        "You will receive confirmation once it's processed. Thank you!");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session,
+                        MessageKey.DO_CREATED, "DO-" + doId.substring(0, 8).toUpperCase()));
 
                 // Notify n8n
                 n8nService.notifyDeliveryOrderCreated(doId, session);
 
             } catch (Exception e) {
                 log.error("Failed to create delivery order", e);
-                whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                        "Sorry, there was an error creating your delivery order. Please contact your sales representative.");
+                whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_FAILED));
             }
         } else {
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "Delivery order cancelled.");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.DO_CANCELLED));
         }
 
         resetSession(session);
@@ -619,7 +618,8 @@ public class ChatbotService {
     /**
      * Handle quote acceptance/rejection from push message buttons
      */
-    public void handleQuoteResponse(String phoneNumber, String quoteId, boolean accepted) {
+    public void handleQuoteResponse(String from, String quoteId, boolean accepted) {
+        String phoneNumber = PhoneNumber.of(from).digits();
         ChatSession session = getOrCreateSession(phoneNumber);
         session.getFlowData().put("quoteId", quoteId);
         session.getFlowData().put("accepted", String.valueOf(accepted));
@@ -628,22 +628,17 @@ public class ChatbotService {
             // Accept quote
             try {
                 dataverseService.updateQuoteStatus(quoteId, true, null);
-                whatsAppService.sendTextMessage(phoneNumber,
-                        "✅ Thank you for accepting the quote!\n\n" +
-                        "Our team will process this and create your sales order shortly.");
+                whatsAppService.sendTextMessage(phoneNumber, text(session, MessageKey.QUOTE_ACCEPTED));
                 
                 n8nService.notifyQuoteResponse(quoteId, true, null, session);
             } catch (Exception e) {
                 log.error("Failed to accept quote", e);
-                whatsAppService.sendTextMessage(phoneNumber,
-                        "Sorry, there was an error processing your acceptance. Please contact your sales representative.");
+                whatsAppService.sendTextMessage(phoneNumber, text(session, MessageKey.QUOTE_ACCEPT_FAILED));
             }
             resetSession(session);
         } else {
             // Ask for rejection reason
-            whatsAppService.sendTextMessage(phoneNumber,
-                    "We're sorry to hear that. Could you please tell us why you're declining the quote?\n\n" +
-                    "(Your feedback helps us serve you better)");
+            whatsAppService.sendTextMessage(phoneNumber, text(session, MessageKey.QUOTE_ASK_REASON));
             updateState(session, State.QUOTE_REASON);
         }
     }
@@ -653,9 +648,7 @@ public class ChatbotService {
 
         try {
             dataverseService.updateQuoteStatus(quoteId, false, reason);
-            whatsAppService.sendTextMessage(session.getPhoneNumber(),
-                    "Thank you for your feedback. Your key account manager will contact you to discuss alternatives.\n\n" +
-                    "Is there anything else we can help you with?");
+            whatsAppService.sendTextMessage(session.getPhoneNumber(), text(session, MessageKey.QUOTE_REJECTED));
 
             n8nService.notifyQuoteResponse(quoteId, false, reason, session);
         } catch (Exception e) {
@@ -665,12 +658,29 @@ public class ChatbotService {
         resetSession(session);
     }
 
+    // ==================== TEXTS ====================
+
+    private String text(ChatSession session, MessageKey key, Object... values) {
+        return messages.render(session.getLanguage(), key, values);
+    }
+
+    /**
+     * The confirm button, or a typed answer containing "yes" (in English or the customer's language)
+     */
+    private boolean confirmed(ChatSession session, String response) {
+        String answer = response.toLowerCase();
+        return "confirm_yes".equals(response) || answer.contains("yes")
+                || answer.contains(text(session, MessageKey.YES).toLowerCase());
+    }
+
     // ==================== SESSION MANAGEMENT ====================
 
     private ChatSession getOrCreateSession(String phoneNumber) {
-        return sessionRepository.findByPhoneNumber(phoneNumber)
+        String orgId = CrmOrgContext.current();
+        return sessionRepository.findByOrgIdAndPhoneNumber(orgId, phoneNumber)
                 .orElseGet(() -> {
                     ChatSession newSession = new ChatSession();
+                    newSession.setOrgId(orgId);
                     newSession.setPhoneNumber(phoneNumber);
                     newSession.setCurrentState(State.INITIAL.name());
                     newSession.setFlowData(new HashMap<>());
@@ -0,0 +1,62 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.Dynamics365Config;
+
+import java.util.function.Supplier;
+
+/**
+ * The Dynamics 365 org the current thread works against. Set at the entry points
+ * (WhatsApp webhook, CRM requests) and read by the Dataverse and Azure AD services.
+ * Work handed to other threads must carry the org over explicitly.
+ */
+public final class CrmOrgContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private CrmOrgContext() {
+    }
+
+    public static String current() {
+        String orgId = CURRENT.get();
+        return orgId != null ? orgId : Dynamics365Config.DEFAULT_ORG;
+    }
+
+    public static void run(String orgId, Runnable task) {
+        call(orgId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(String orgId, Supplier<T> task) {
+        try (Scope ignored = open(orgId)) {
+            return task.get();
+        }
+    }
+
+    /**
+     * Switch the current thread to an org until the returned scope is closed
+     */
+    public static Scope open(String orgId) {
+        String previous = CURRENT.get();
+        CURRENT.set(orgId);
+        return new Scope(previous);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.Dynamics365Config;
+import com.dpl.whatsapp.config.WhatsAppConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the WhatsApp business number a conversation arrives on to its Dynamics 365 org.
+ * Replies and notifications for an org go out from its own number (whatsapp.api.orgs).
+ */
+@Service
+@RequiredArgsConstructor
+public class CrmOrgRouter {
+
+    private final Dynamics365Config config;
+    private final WhatsAppConfig whatsAppConfig;
+
+    private final Map<String, String> orgByPhoneNumberId = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        config.getOrgs().forEach((orgId, org) ->
+                org.getPhoneNumberIds().forEach(phoneNumberId -> orgByPhoneNumberId.put(phoneNumberId, orgId)));
+        // An org without its own sending number replies from the first number it receives on
+        config.getOrgs().forEach((orgId, org) -> {
+            if (!org.getPhoneNumberIds().isEmpty()) {
+                WhatsAppConfig.BusinessNumber number = whatsAppConfig.getOrgs()
+                        .computeIfAbsent(orgId, id -> new WhatsAppConfig.BusinessNumber());
+                if (number.getPhoneNumberId() == null) {
+                    number.setPhoneNumberId(org.getPhoneNumberIds().get(0));
+                }
+            }
+        });
+        // An org's own sending number always routes to it
+        whatsAppConfig.getOrgs().forEach((orgId, number) -> {
+            if (!config.getOrgs().containsKey(orgId)) {
+                throw new IllegalStateException("whatsapp.api.orgs." + orgId + " has no Dynamics 365 org");
+            }
+            if (number.getPhoneNumberId() != null) {
+                orgByPhoneNumberId.put(number.getPhoneNumberId(), orgId);
+            }
+        });
+    }
+
+    /**
+     * Org for a WhatsApp phone_number_id; numbers not assigned to an org use the default org
+     */
+    public String orgForPhoneNumberId(String phoneNumberId) {
+        if (phoneNumberId == null) {
+            return Dynamics365Config.DEFAULT_ORG;
+        }
+        return orgByPhoneNumberId.getOrDefault(phoneNumberId, Dynamics365Config.DEFAULT_ORG);
+    }
+
+    public boolean isKnownOrg(String orgId) {
+        return config.getOrgIds().contains(orgId);
+    }
+}
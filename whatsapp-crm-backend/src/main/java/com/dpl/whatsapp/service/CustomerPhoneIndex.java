@@ -0,0 +1,365 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.Dynamics365Config;
+import com.dpl.whatsapp.config.PhoneIndexConfig;
+import com.dpl.whatsapp.dto.crm.CustomerDto;
+import com.dpl.whatsapp.dto.whatsapp.PhoneNumber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of contacts by normalized phone number.
+ * Starts with a full paged load of contacts (or the on-disk snapshot) and is kept
+ * current with Dataverse change tracking delta links. Change tracking must be
+ * enabled on the contact table. While the last refresh is recent, a miss is trusted;
+ * otherwise it falls back to a Dataverse query, and numbers not found there are
+ * remembered for a short while. Contact and account webhooks patch the index
+ * immediately between delta refreshes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerPhoneIndex implements DataverseChangeListener {
+
+    private static final String[] CONTACT_FIELDS = {"firstname", "lastname", "telephone1", "mobilephone",
+            "emailaddress1", "parentcustomerid"};
+
+    // Bumped when the stored entries change meaning; older snapshots are reloaded from Dataverse
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private static final String CONTACT_QUERY = "?$select=contactid,firstname,lastname,telephone1," +
+            "mobilephone,emailaddress1,_parentcustomerid_value";
+
+    private final PhoneIndexConfig config;
+    private final Dynamics365Config dynamicsConfig;
+    private final DataverseService dataverseService;
+    private final ObjectMapper objectMapper;
+
+    // One index per Dynamics 365 org
+    private final Map<String, OrgIndex> indexes = new ConcurrentHashMap<>();
+
+    static class OrgIndex {
+        final String orgId;
+        // Replaced as a whole by a full load, so lookups keep hitting the old entries meanwhile
+        volatile Entries entries;
+        volatile String deltaLink;
+        // System.nanoTime of the last successful full load or delta refresh, 0 before the first
+        volatile long syncedAt;
+
+        OrgIndex(String orgId, Entries entries) {
+            this.orgId = orgId;
+            this.entries = entries;
+        }
+    }
+
+    static class Entries {
+        final Map<String, CustomerDto> byPhone = new ConcurrentHashMap<>();
+        final Map<String, List<String>> phonesByContact = new ConcurrentHashMap<>();
+        // Numbers Dataverse had no contact for; dropped when a contact with the number comes in
+        final Cache<String, Boolean> misses;
+
+        Entries(Duration missTtl) {
+            misses = Caffeine.newBuilder().expireAfterWrite(missTtl).maximumSize(100_000).build();
+        }
+    }
+
+    /**
+     * Find the customer for a phone number in the current org, falling back to Dataverse on an index miss
+     */
+    public Optional<CustomerDto> findByPhone(String phoneNumber) {
+        Optional<PhoneNumber> phone = PhoneNumber.tryOf(phoneNumber);
+        return phone.isPresent() ? findByPhone(phone.get()) : Optional.empty();
+    }
+
+    public Optional<CustomerDto> findByPhone(PhoneNumber phoneNumber) {
+        OrgIndex index = index(CrmOrgContext.current());
+        Entries entries = index.entries;
+        if (config.isEnabled()) {
+            CustomerDto customer = entries.byPhone.get(phoneNumber.digits());
+            if (customer != null) {
+                return Optional.of(customer);
+            }
+            if (isCurrent(index) || entries.misses.getIfPresent(phoneNumber.digits()) != null) {
+                return Optional.empty();
+            }
+        }
+
+        Optional<CustomerDto> customer = dataverseService.getCustomerByPhone(phoneNumber);
+        if (config.isEnabled()) {
+            customer.ifPresentOrElse(found -> put(entries, found),
+                    () -> entries.misses.put(phoneNumber.digits(), Boolean.TRUE));
+        }
+        return customer;
+    }
+
+    public int size() {
+        return indexes.values().stream().mapToInt(index -> index.entries.byPhone.size()).sum();
+    }
+
+    private OrgIndex index(String orgId) {
+        return indexes.computeIfAbsent(orgId, id -> new OrgIndex(id, newEntries()));
+    }
+
+    private Entries newEntries() {
+        return new Entries(config.getMissTtl());
+    }
+
+    /**
+     * Loaded and refreshed recently enough that a number missing from the index is not a contact
+     */
+    private boolean isCurrent(OrgIndex index) {
+        long syncedAt = index.syncedAt;
+        return index.deltaLink != null && syncedAt != 0
+                && System.nanoTime() - syncedAt < config.getRefreshInterval().multipliedBy(2).toNanos();
+    }
+
+    // ==================== SYNCHRONIZATION ====================
+
+    /**
+     * Initial load on the first run (snapshot, else full paged load), then delta refreshes
+     */
+    @Scheduled(fixedDelayString = "${crm.phone-index.refresh-interval:PT5M}")
+    public synchronized void refresh() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        for (String orgId : dynamicsConfig.getOrgIds()) {
+            CrmOrgContext.run(orgId, () -> refresh(index(orgId)));
+        }
+    }
+
+    private void refresh(OrgIndex index) {
+        try {
+            if (index.deltaLink == null && !loadSnapshot(index)) {
+                fullLoad(index);
+                return;
+            }
+            applyChanges(index);
+        } catch (Exception e) {
+            if (index.deltaLink != null && DataverseService.isDeltaTokenRejected(e)) {
+                // Expired or invalid delta token: start over from a full load; anything else is retried next time
+                log.warn("Phone index delta refresh for org {} failed ({}), reloading all contacts",
+                        index.orgId, e.getMessage());
+                index.deltaLink = null;
+                fullLoad(index);
+            } else {
+                log.error("Phone index refresh for org {} failed", index.orgId, e);
+            }
+        }
+    }
+
+    private void fullLoad(OrgIndex index) {
+        log.info("Loading phone index from Dataverse contacts of org {}", index.orgId);
+        String prefer = trackChangesPreference();
+        ODataPage<ODataChange<CustomerDto>> page = dataverseService.getPageByUrl(
+                dataverseService.getApiUrl("contacts", CONTACT_QUERY), prefer, ODataReader::readContactChange);
+
+        Entries loaded = newEntries();
+        while (true) {
+            page.getValue().forEach(change -> apply(loaded, change));
+            if (page.getNextLink() == null) {
+                break;
+            }
+            page = dataverseService.getPageByUrl(page.getNextLink(), prefer, ODataReader::readContactChange);
+        }
+        // Webhook changes applied to the old entries meanwhile come again with the next delta
+        index.entries = loaded;
+        index.deltaLink = page.getDeltaLink();
+        index.syncedAt = System.nanoTime();
+
+        log.info("Phone index loaded with {} numbers", loaded.byPhone.size());
+        saveSnapshot(index);
+    }
+
+    private void applyChanges(OrgIndex index) {
+        String prefer = trackChangesPreference();
+        int changes = 0;
+        ODataPage<ODataChange<CustomerDto>> page = dataverseService.getPageByUrl(index.deltaLink, prefer, ODataReader::readContactChange);
+        while (true) {
+            Entries entries = index.entries;
+            page.getValue().forEach(change -> apply(entries, change));
+            changes += page.getValue().size();
+            if (page.getNextLink() == null) {
+                break;
+            }
+            page = dataverseService.getPageByUrl(page.getNextLink(), prefer, ODataReader::readContactChange);
+        }
+        if (page.getDeltaLink() != null) {
+            index.deltaLink = page.getDeltaLink();
+        }
+        index.syncedAt = System.nanoTime();
+
+        if (changes > 0) {
+            log.info("Applied {} contact changes to phone index", changes);
+            saveSnapshot(index);
+        }
+    }
+
+    // ==================== WEBHOOK CHANGES ====================
+
+    @Override
+    public void onChange(DataverseChangeEvent event) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        Entries entries = index(CrmOrgContext.current()).entries;
+        if ("contact".equals(event.getEntityName())) {
+            if (event.isDelete()) {
+                remove(entries, event.getId());
+            } else if (event.getAttributes().isEmpty() || event.hasAnyAttribute(CONTACT_FIELDS)) {
+                // Re-read the contact so the entry carries its current phones and account
+                dataverseService.getCustomerByContactId(event.getId())
+                        .ifPresentOrElse(customer -> put(entries, customer), () -> remove(entries, event.getId()));
+            }
+        } else if ("account".equals(event.getEntityName()) && !event.isDelete() && event.hasAnyAttribute("name")) {
+            String name = event.getAttributes().get("name").asText(null);
+            // Entries already handed out are never changed: replace them with renamed copies
+            entries.byPhone.values().stream()
+                    .filter(customer -> event.getId().equals(customer.getAccountId()))
+                    .distinct()
+                    .toList()
+                    .forEach(customer -> put(entries, copyWithAccountName(customer, name)));
+        }
+    }
+
+    private static CustomerDto copyWithAccountName(CustomerDto customer, String accountName) {
+        CustomerDto copy = new CustomerDto();
+        copy.setAccountId(customer.getAccountId());
+        copy.setAccountName(accountName);
+        copy.setAccountNumber(customer.getAccountNumber());
+        copy.setContactId(customer.getContactId());
+        copy.setFirstName(customer.getFirstName());
+        copy.setLastName(customer.getLastName());
+        copy.setPhone(customer.getPhone());
+        copy.setMobile(customer.getMobile());
+        copy.setEmail(customer.getEmail());
+        return copy;
+    }
+
+    private void apply(Entries entries, ODataChange<CustomerDto> change) {
+        if (change.isRemoved()) {
+            remove(entries, change.getRemovedId());
+        } else {
+            put(entries, change.getRecord());
+        }
+    }
+
+    private void put(Entries entries, CustomerDto customer) {
+        if (customer.getContactId() != null) {
+            remove(entries, customer.getContactId());
+        }
+
+        List<String> phones = new ArrayList<>(2);
+        for (String phone : new String[]{customer.getPhone(), customer.getMobile()}) {
+            // Not interned: a full contact load would only churn the intern cache
+            String key = PhoneNumber.canonical(phone);
+            if (key != null) {
+                entries.byPhone.put(key, customer);
+                entries.misses.invalidate(key);
+                phones.add(key);
+            }
+        }
+        if (customer.getContactId() != null && !phones.isEmpty()) {
+            entries.phonesByContact.put(customer.getContactId(), phones);
+        }
+    }
+
+    private void remove(Entries entries, String contactId) {
+        List<String> phones = entries.phonesByContact.remove(contactId);
+        if (phones != null) {
+            phones.forEach(phone -> entries.byPhone.computeIfPresent(phone,
+                    (key, existing) -> contactId.equals(existing.getContactId()) ? null : existing));
+        }
+    }
+
+    /**
+     * The default org keeps the configured snapshot path; other orgs get "-{org}" appended to the name
+     */
+    private Path snapshotPath(OrgIndex index) {
+        Path path = Paths.get(config.getSnapshotPath());
+        if (Dynamics365Config.DEFAULT_ORG.equals(index.orgId)) {
+            return path;
+        }
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String orgName = dot > 0
+                ? name.substring(0, dot) + "-" + index.orgId + name.substring(dot)
+                : name + "-" + index.orgId;
+        return path.resolveSibling(orgName);
+    }
+
+    private String trackChangesPreference() {
+        return "odata.track-changes,odata.maxpagesize=" + config.getPageSize();
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    @Data
+    static class Snapshot {
+        private int version;
+        private String deltaLink;
+        private Instant savedAt;
+        private List<CustomerDto> customers;
+    }
+
+    private boolean loadSnapshot(OrgIndex index) {
+        Path path = snapshotPath(index);
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            if (snapshot.getDeltaLink() == null || snapshot.getVersion() < SNAPSHOT_VERSION) {
+                return false;
+            }
+            Entries restored = newEntries();
+            snapshot.getCustomers().forEach(customer -> put(restored, customer));
+            index.entries = restored;
+            index.deltaLink = snapshot.getDeltaLink();
+            log.info("Phone index restored {} numbers from snapshot saved at {}", restored.byPhone.size(), snapshot.getSavedAt());
+            return true;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable phone index snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private void saveSnapshot(OrgIndex index) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.setVersion(SNAPSHOT_VERSION);
+        snapshot.setDeltaLink(index.deltaLink);
+        snapshot.setSavedAt(Instant.now());
+        snapshot.setCustomers(new ArrayList<>(new LinkedHashSet<>(index.entries.byPhone.values())));
+
+        Path path = snapshotPath(index);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write phone index snapshot {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.DataverseWebhookConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns Dataverse webhook notifications (RemoteExecutionContext) into change events
+ * for every registered {@link DataverseChangeListener}, and records how long each
+ * change took to reach us.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataverseChangeDispatcher {
+
+    private final DataverseWebhookConfig config;
+    private final List<DataverseChangeListener> listeners;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Parse a RemoteExecutionContext and notify the listeners
+     */
+    public DataverseChangeEvent dispatch(JsonNode context) {
+        DataverseChangeEvent event = toEvent(context);
+        if (event.getEntityName() == null || event.getId() == null) {
+            log.warn("Ignoring Dataverse notification without primary entity: {}", event.getMessageName());
+            return event;
+        }
+
+        meterRegistry.counter("dataverse.webhook.events",
+                "entity", event.getEntityName(), "message", String.valueOf(event.getMessageName())).increment();
+        if (event.getOperationCreatedOn() != null) {
+            Duration lag = Duration.between(event.getOperationCreatedOn(), Instant.now());
+            meterRegistry.timer("dataverse.webhook.lag", "entity", event.getEntityName())
+                    .record(lag.isNegative() ? Duration.ZERO : lag);
+        }
+
+        log.debug("Dataverse {} of {}({})", event.getMessageName(), event.getEntityName(), event.getId());
+        for (DataverseChangeListener listener : listeners) {
+            try {
+                listener.onChange(event);
+            } catch (Exception e) {
+                log.error("Change listener {} failed for {}({})",
+                        listener.getClass().getSimpleName(), event.getEntityName(), event.getId(), e);
+            }
+        }
+        return event;
+    }
+
+    private DataverseChangeEvent toEvent(JsonNode context) {
+        String entityName = context.path("PrimaryEntityName").asText(null);
+        String id = context.path("PrimaryEntityId").asText(null);
+
+        Map<String, JsonNode> attributes = new HashMap<>();
+        for (JsonNode parameter : context.path("InputParameters")) {
+            if ("Target".equals(parameter.path("key").asText())) {
+                JsonNode target = parameter.path("value");
+                readAttributes(target, attributes);
+                // Delete carries an EntityReference instead of an Entity
+                if (id == null) {
+                    id = target.path("Id").asText(null);
+                }
+            }
+        }
+        for (JsonNode image : context.path("PostEntityImages")) {
+            readAttributes(image.path("value"), attributes);
+        }
+
+        String entitySet = entityName != null ? config.getEntitySets().get(entityName) : null;
+        return new DataverseChangeEvent(context.path("MessageName").asText(null), entityName, entitySet, id,
+                parseDate(context.path("OperationCreatedOn").asText(null)), attributes);
+    }
+
+    private void readAttributes(JsonNode entity, Map<String, JsonNode> attributes) {
+        for (JsonNode attribute : entity.path("Attributes")) {
+            attributes.put(attribute.path("key").asText(), attribute.path("value"));
+        }
+    }
+
+    /**
+     * WCF JSON dates look like "/Date(1574456678000)/" or "/Date(1574456678000+0000)/"
+     */
+    static Instant parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = value.indexOf('(');
+        if (start < 0) {
+            try {
+                return Instant.parse(value);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        int end = start + 1;
+        while (end < value.length() && Character.isDigit(value.charAt(end))) {
+            end++;
+        }
+        return end > start + 1 ? Instant.ofEpochMilli(Long.parseLong(value.substring(start + 1, end))) : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.dpl.whatsapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A record change reported by a Dataverse webhook. Attributes hold the changed
+ * columns of the Target merged with any registered post-image.
+ */
+@Value
+public class DataverseChangeEvent {
+    String messageName;
+    String entityName;
+    String entitySet;
+    String id;
+    Instant operationCreatedOn;
+    Map<String, JsonNode> attributes;
+
+    public boolean isDelete() {
+        return "Delete".equalsIgnoreCase(messageName);
+    }
+
+    public boolean hasAnyAttribute(String... names) {
+        for (String name : names) {
+            if (attributes.containsKey(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package com.dpl.whatsapp.service;
+
+/**
+ * Implemented by caches that must react to record changes pushed by Dataverse webhooks
+ */
+public interface DataverseChangeListener {
+
+    void onChange(DataverseChangeEvent event);
+}
@@ -0,0 +1,102 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.Dynamics365Config;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * HTTP-level cache of Dataverse GET responses keyed by URL, holding the raw body and its ETag
+ * so reads can be revalidated with If-None-Match. Bounded by total body size.
+ * Entries of an entity set are dropped when a webhook reports a change to one of its records.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataverseResponseCache implements DataverseChangeListener {
+
+    private final Dynamics365Config config;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, CachedResponse> cache;
+    private Counter notModified;
+    private Counter modified;
+
+    @Value
+    public static class CachedResponse {
+        String etag;
+        byte[] body;
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(config.getResponseCache().getMaxBytes())
+                .weigher((String url, CachedResponse response) -> url.length() + response.getBody().length)
+                .build();
+        notModified = meterRegistry.counter("dataverse.response.cache", "outcome", "not_modified");
+        modified = meterRegistry.counter("dataverse.response.cache", "outcome", "modified");
+        meterRegistry.gauge("dataverse.response.cache.entries", cache, c -> c.estimatedSize());
+    }
+
+    public boolean isEnabled() {
+        return config.getResponseCache().isEnabled();
+    }
+
+    public CachedResponse get(String url) {
+        return cache.getIfPresent(url);
+    }
+
+    /**
+     * Record a 304 Not Modified served from {@code cached}, the entry whose ETag was sent.
+     * The entry may have been evicted or invalidated since; it is not put back then.
+     */
+    public byte[] revalidated(String url, CachedResponse cached) {
+        notModified.increment();
+        // Touch the entry, if still there, so it stays recently used
+        cache.getIfPresent(url);
+        return cached.getBody();
+    }
+
+    /**
+     * Store a full response; responses without an ETag cannot be revalidated and are not kept
+     */
+    public void put(String url, String etag, byte[] body) {
+        modified.increment();
+        if (etag != null) {
+            cache.put(url, new CachedResponse(etag, body));
+        } else {
+            cache.invalidate(url);
+        }
+    }
+
+    /**
+     * Pre-populate an entry (e.g. from a persisted snapshot) so the next read can be revalidated
+     */
+    public void seed(String url, String etag, byte[] body) {
+        cache.put(url, new CachedResponse(etag, body));
+    }
+
+    public void invalidate(String url) {
+        cache.invalidate(url);
+    }
+
+    /**
+     * Drop the record URL and every collection query of the changed entity set;
+     * collection results cannot be mapped back to individual record ids
+     */
+    @Override
+    public void onChange(DataverseChangeEvent event) {
+        if (event.getEntitySet() == null) {
+            return;
+        }
+        String prefix = config.getOrg(CrmOrgContext.current()).getApiUrl() + "/" + event.getEntitySet();
+        cache.asMap().keySet().removeIf(url -> url.startsWith(prefix)
+                && (url.length() == prefix.length() || url.charAt(prefix.length()) == '('
+                    || url.charAt(prefix.length()) == '?'));
+    }
+}
@@ -1,21 +1,34 @@
 package com.dpl.whatsapp.service;
 
 import com.dpl.whatsapp.config.Dynamics365Config;
+import com.dpl.whatsapp.config.WebClientConfig;
+import com.dpl.whatsapp.config.WebClientFactory;
 import com.dpl.whatsapp.dto.crm.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.dpl.whatsapp.dto.whatsapp.PhoneNumber;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.core.publisher.Mono;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Service for interacting with Microsoft Dynamics 365 Dataverse Web API
@@ -26,10 +39,84 @@ import java.util.*;
 @Slf4j
 public class DataverseService {
 
+    private static final String ENTITY_METADATA_QUERY =
+            "?$select=LogicalName,DisplayName,PrimaryIdAttribute,PrimaryNameAttribute" +
+            "&$expand=Attributes($select=LogicalName,DisplayName,AttributeType,RequiredLevel)";
+    private static final String CUSTOM_ENTITIES_QUERY =
+            "?$filter=IsCustomEntity eq true&$select=LogicalName,DisplayName,Description";
+
+    // ==================== QUERY TEMPLATES ====================
+
+    private static final ODataQuery CONTACT_BY_PHONE = ODataQuery.compile("contacts.byPhone",
+            "contacts?$filter=contains(telephone1,{phone}) or contains(mobilephone,{phone})" +
+            "&$expand=parentcustomerid_account($select=accountid,name,accountnumber)" +
+            "&$select=contactid,firstname,lastname,telephone1,mobilephone,emailaddress1" +
+            "&$top=1");
+    private static final ODataQuery CONTACT_BY_ID = ODataQuery.compile("contacts.byId",
+            "contacts({contactId:guid})" +
+            "?$expand=parentcustomerid_account($select=accountid,name,accountnumber)" +
+            "&$select=contactid,firstname,lastname,telephone1,mobilephone,emailaddress1");
+    private static final ODataQuery QUOTE_BY_ID = ODataQuery.compile("quotes.byId",
+            "quotes({quoteId:guid})?$select=quoteid,quotenumber,name,totalamount,statecode,statuscode" +
+            "&$expand=customerid_account($select=name)");
+    private static final ODataQuery COMPLAINTS_BY_CUSTOMER = ODataQuery.compile("incidents.byCustomer",
+            "incidents?$filter=_customerid_value eq {accountId:guid}" +
+            "&$select=incidentid,title,description,statecode,statuscode,createdon" +
+            "&$orderby=createdon desc");
+    private static final ODataQuery SALES_ORDERS_BY_CUSTOMER = ODataQuery.compile("salesorders.byCustomer",
+            "salesorders?$filter=_customerid_value eq {accountId:guid} and statecode eq 0" +
+            "&$select=salesorderid,ordernumber,name,totalamount,requestdeliveryby" +
+            "&$orderby=createdon desc");
+
     private final Dynamics365Config config;
     private final AzureAuthService authService;
+    @Qualifier("dataverseWebClient")
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DataverseResponseCache responseCache;
+
+    private final WebClientFactory webClientFactory;
+
+    private SingleFlight singleFlight;
+    // Per org: each org has its own connection pool and service protection limits
+    private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        singleFlight = new SingleFlight("dataverse.get", config.getSingleFlight().getMaxWait(), meterRegistry);
+        webClients.put(Dynamics365Config.DEFAULT_ORG, webClient);
+    }
+
+    /**
+     * WebClient of the current org
+     */
+    private WebClient client() {
+        return webClients.computeIfAbsent(CrmOrgContext.current(),
+                orgId -> webClientFactory.create(WebClientConfig.DATAVERSE + "-" + orgId, WebClientConfig.DATAVERSE));
+    }
+
+    /**
+     * Concurrency limiter of the current org, or null when limiting is disabled
+     */
+    private AdaptiveConcurrencyLimiter limiter() {
+        Dynamics365Config.Limiter limits = config.getLimiter();
+        if (!limits.isEnabled()) {
+            return null;
+        }
+        return limiters.computeIfAbsent(CrmOrgContext.current(), orgId -> new AdaptiveConcurrencyLimiter(
+                Dynamics365Config.DEFAULT_ORG.equals(orgId) ? "dataverse" : "dataverse." + orgId,
+                limits.getInitialLimit(), limits.getMinLimit(), limits.getMaxLimit(), limits.getBackoffRatio(),
+                meterRegistry));
+    }
+
+    /**
+     * Web API root of the current org
+     */
+    public String apiUrl() {
+        return config.getOrg(CrmOrgContext.current()).getApiUrl();
+    }
 
     // ==================== GENERIC CRUD OPERATIONS ====================
 
@@ -41,12 +128,12 @@ public class DataverseService {
         log.debug("GET request to Dataverse: {}", url);
         
         try {
-            String response = webClient.get()
+            String response = limited(() -> client().get()
                     .uri(url)
                     .headers(this::setHeaders)
                     .retrieve()
                     .bodyToMono(String.class)
-                    .block();
+                    .block());
             
             return objectMapper.readTree(response);
         } catch (WebClientResponseException e) {
@@ -58,17 +145,191 @@ public class DataverseService {
         }
     }
 
+    /**
+     * Execute a GET request and decode an OData collection straight into typed records
+     */
+    public <T> ODataPage<T> getPage(String entitySet, String query, ODataReader.RecordReader<T> reader) {
+        return read(toUri(buildUrl(entitySet, query)), null, false, parser -> ODataReader.readPage(parser, reader));
+    }
+
+    /**
+     * Execute a precompiled query template and decode the collection into typed records
+     */
+    public <T> ODataPage<T> getPage(ODataQuery query, ODataReader.RecordReader<T> reader, Object... params) {
+        return timed(query, () -> read(query.bind(apiUrl(), params), null, false,
+                parser -> ODataReader.readPage(parser, reader)));
+    }
+
+    /**
+     * Precompiled query template with ETag revalidation
+     */
+    public <T> ODataPage<T> getPageRevalidated(ODataQuery query, ODataReader.RecordReader<T> reader, Object... params) {
+        return timed(query, () -> read(query.bind(apiUrl(), params), null, true,
+                parser -> ODataReader.readPage(parser, reader)));
+    }
+
+    /**
+     * Precompiled single-record query template with ETag revalidation
+     */
+    public <T> T getRecordRevalidated(ODataQuery query, ODataReader.RecordReader<T> reader, Object... params) {
+        return timed(query, () -> read(query.bind(apiUrl(), params), null, true, reader));
+    }
+
+    private <T> T timed(ODataQuery query, Supplier<T> call) {
+        return meterRegistry.timer("dataverse.query", "query", query.getFingerprint()).record(call);
+    }
+
+    /**
+     * Fetch an OData page by absolute URL (@odata.nextLink / @odata.deltaLink) with additional
+     * Prefer preferences, e.g. "odata.track-changes,odata.maxpagesize=5000"
+     */
+    public <T> ODataPage<T> getPageByUrl(String url, String prefer, ODataReader.RecordReader<T> reader) {
+        // Links returned by Dataverse are already encoded
+        return read(URI.create(url), prefer, false, parser -> ODataReader.readPage(parser, reader));
+    }
+
+    /**
+     * Whether a failed delta link read means the change tracking token is expired or invalid
+     * (400/410), as opposed to a transient failure that the next refresh can retry
+     */
+    public static boolean isDeltaTokenRejected(Throwable error) {
+        if (error.getCause() instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 400 || status == 410;
+        }
+        return false;
+    }
+
+    /**
+     * Execute a GET request for a single record and decode it straight into a typed record
+     */
+    public <T> T getRecord(String entitySet, String query, ODataReader.RecordReader<T> reader) {
+        return read(toUri(buildUrl(entitySet, query)), null, false, reader);
+    }
+
+    /**
+     * Like {@link #getRecord}, but revalidates a cached copy with If-None-Match and
+     * decodes the cached body when Dataverse answers 304 Not Modified
+     */
+    public <T> T getRecordRevalidated(String entitySet, String query, ODataReader.RecordReader<T> reader) {
+        return read(toUri(buildUrl(entitySet, query)), null, true, reader);
+    }
+
+    /**
+     * Like {@link #getPage}, with ETag revalidation (only effective when Dataverse sends an ETag)
+     */
+    public <T> ODataPage<T> getPageRevalidated(String entitySet, String query, ODataReader.RecordReader<T> reader) {
+        return read(toUri(buildUrl(entitySet, query)), null, true, parser -> ODataReader.readPage(parser, reader));
+    }
+
+    /**
+     * Coalesce identical concurrent GETs so that all waiters share one response
+     */
+    private <T> T read(URI url, String prefer, boolean revalidate, ODataReader.RecordReader<T> reader) {
+        boolean conditional = revalidate && prefer == null && responseCache.isEnabled();
+        if (!config.getSingleFlight().isEnabled()) {
+            return conditional ? fetchConditional(url, reader) : fetch(url, prefer, reader);
+        }
+        // A given URL is always decoded by the same reader, so the result can be shared
+        String key = prefer == null ? url.normalize().toString() : prefer + " " + url.normalize();
+        return singleFlight.execute(key, () -> conditional ? fetchConditional(url, reader) : fetch(url, prefer, reader));
+    }
+
+    /**
+     * Stream the response body from the pooled network buffers into the reader,
+     * without copying it into a String or JsonNode tree first
+     */
+    private <T> T fetch(URI url, String prefer, ODataReader.RecordReader<T> reader) {
+        log.debug("GET request to Dataverse: {}", url);
+
+        try {
+            return limited(() -> client().get()
+                    .uri(url)
+                    .headers(this::setHeaders)
+                    .headers(headers -> {
+                        if (prefer != null) {
+                            headers.set("Prefer", prefer + ",odata.include-annotations=*");
+                        }
+                    })
+                    .retrieve()
+                    .bodyToMono(DataBuffer.class)
+                    .map(buffer -> decode(buffer, reader))
+                    .block());
+        } catch (WebClientResponseException e) {
+            log.error("Dataverse GET error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("Dataverse API error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Conditional GET: send the cached ETag as If-None-Match and reuse the cached body on 304
+     */
+    private <T> T fetchConditional(URI url, ODataReader.RecordReader<T> reader) {
+        String key = url.toString();
+        DataverseResponseCache.CachedResponse cached = responseCache.get(key);
+        log.debug("Conditional GET request to Dataverse: {} (etag={})", url, cached != null ? cached.getEtag() : null);
+
+        try {
+            byte[] body = limited(() -> client().get()
+                    .uri(url)
+                    .headers(this::setHeaders)
+                    .headers(headers -> {
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.getEtag());
+                        }
+                    })
+                    .exchangeToMono(response -> {
+                        if (response.statusCode().value() == 304 && cached != null) {
+                            return response.releaseBody().thenReturn(responseCache.revalidated(key, cached));
+                        }
+                        if (response.statusCode().isError()) {
+                            return response.createError();
+                        }
+                        String etag = response.headers().asHttpHeaders().getETag();
+                        return response.bodyToMono(byte[].class)
+                                .doOnNext(bytes -> responseCache.put(key, etag, bytes));
+                    })
+                    .block());
+
+            return body == null ? null : decode(body, reader);
+        } catch (WebClientResponseException e) {
+            log.error("Dataverse GET error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("Dataverse API error: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T decode(byte[] body, ODataReader.RecordReader<T> reader) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            parser.nextToken();
+            return reader.read(parser);
+        } catch (IOException e) {
+            log.error("Failed to parse Dataverse response", e);
+            throw new RuntimeException("Failed to process Dataverse response", e);
+        }
+    }
+
+    private <T> T decode(DataBuffer buffer, ODataReader.RecordReader<T> reader) {
+        try (InputStream in = buffer.asInputStream(true);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.nextToken();
+            return reader.read(parser);
+        } catch (IOException e) {
+            log.error("Failed to parse Dataverse response", e);
+            throw new RuntimeException("Failed to process Dataverse response", e);
+        }
+    }
+
     /**
      * Execute a POST request to create a new record
      */
     public String create(String entitySet, Object entity) {
-        String url = config.getApiUrl() + "/" + entitySet;
+        String url = apiUrl() + "/" + entitySet;
         log.debug("POST request to Dataverse: {}", url);
         
         try {
             String jsonBody = objectMapper.writeValueAsString(entity);
             
-            return webClient.post()
+            return limited(() -> client().post()
                     .uri(url)
                     .headers(this::setHeaders)
                     .bodyValue(jsonBody)
@@ -85,7 +346,7 @@ public class DataverseService {
                         }
                         return null;
                     })
-                    .block();
+                    .block());
                     
         } catch (WebClientResponseException e) {
             log.error("Dataverse POST error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
@@ -100,19 +361,19 @@ public class DataverseService {
      * Execute a PATCH request to update an existing record
      */
     public void update(String entitySet, String entityId, Object entity) {
-        String url = config.getApiUrl() + "/" + entitySet + "(" + entityId + ")";
+        String url = apiUrl() + "/" + entitySet + "(" + entityId + ")";
         log.debug("PATCH request to Dataverse: {}", url);
         
         try {
             String jsonBody = objectMapper.writeValueAsString(entity);
             
-            webClient.patch()
+            limited(() -> client().patch()
                     .uri(url)
                     .headers(this::setHeaders)
                     .bodyValue(jsonBody)
                     .retrieve()
                     .toBodilessEntity()
-                    .block();
+                    .block());
                     
             log.info("Successfully updated record: {}/{}", entitySet, entityId);
             
@@ -129,16 +390,16 @@ public class DataverseService {
      * Execute a DELETE request
      */
     public void delete(String entitySet, String entityId) {
-        String url = config.getApiUrl() + "/" + entitySet + "(" + entityId + ")";
+        String url = apiUrl() + "/" + entitySet + "(" + entityId + ")";
         log.debug("DELETE request to Dataverse: {}", url);
         
         try {
-            webClient.delete()
+            limited(() -> client().delete()
                     .uri(url)
                     .headers(this::setHeaders)
                     .retrieve()
                     .toBodilessEntity()
-                    .block();
+                    .block());
                     
             log.info("Successfully deleted record: {}/{}", entitySet, entityId);
             
@@ -148,32 +409,89 @@ public class DataverseService {
         }
     }
 
+    // ==================== BULK OPERATIONS ====================
+
+    /**
+     * Create records in one request with the CreateMultiple message.
+     * The operation is all-or-nothing; returns the created ids in input order.
+     */
+    public List<String> createMultiple(String entitySet, String logicalName, List<Map<String, Object>> records) {
+        String url = apiUrl() + "/" + entitySet + "/Microsoft.Dynamics.CRM.CreateMultiple";
+        log.debug("POST CreateMultiple of {} records to Dataverse: {}", records.size(), url);
+
+        List<Map<String, Object>> targets = new ArrayList<>(records.size());
+        for (Map<String, Object> record : records) {
+            Map<String, Object> target = new LinkedHashMap<>(record);
+            target.put("@odata.type", "Microsoft.Dynamics.CRM." + logicalName);
+            targets.add(target);
+        }
+
+        try {
+            byte[] jsonBody = objectMapper.writeValueAsBytes(Map.of("Targets", targets));
+
+            List<String> ids = limited(() -> client().post()
+                    .uri(url)
+                    .headers(this::setHeaders)
+                    .bodyValue(jsonBody)
+                    .retrieve()
+                    .bodyToMono(DataBuffer.class)
+                    .map(buffer -> decode(buffer, this::readIds))
+                    .block());
+            return ids != null ? ids : Collections.emptyList();
+
+        } catch (WebClientResponseException e) {
+            log.error("Dataverse CreateMultiple error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("CreateMultiple failed: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("CreateMultiple failed", e);
+        }
+    }
+
+    /**
+     * Read the "Ids" array of a CreateMultiple response
+     */
+    private List<String> readIds(JsonParser parser) throws IOException {
+        List<String> ids = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && "Ids".equals(field)) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    ids.add(ODataReader.text(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return ids;
+    }
+
     // ==================== CUSTOMER/ACCOUNT OPERATIONS ====================
 
     /**
      * Get customer (account) by phone number
      */
-    public Optional<CustomerDto> getCustomerByPhone(String phoneNumber) {
-        // Normalize phone number (remove spaces, dashes)
-        String normalizedPhone = phoneNumber.replaceAll("[\\s\\-()]", "");
-        
+    public Optional<CustomerDto> getCustomerByPhone(PhoneNumber phoneNumber) {
+        // CRM numbers are stored with or without the country code; the national number matches both
+        String nationalNumber = phoneNumber.nationalNumber();
+
         // Search in contacts associated with accounts
-        String query = String.format(
-            "?$filter=contains(telephone1,'%s') or contains(mobilephone,'%s')" +
-            "&$expand=parentcustomerid_account($select=accountid,name,accountnumber)" +
-            "&$select=contactid,firstname,lastname,telephone1,mobilephone,emailaddress1",
-            normalizedPhone, normalizedPhone
-        );
-        
-        JsonNode result = get("contacts", query);
-        JsonNode contacts = result.get("value");
-        
-        if (contacts != null && contacts.size() > 0) {
-            JsonNode contact = contacts.get(0);
-            return Optional.of(mapToCustomerDto(contact));
+        ODataPage<CustomerDto> contacts = getPage(CONTACT_BY_PHONE, ODataReader::readContactCustomer,
+                nationalNumber, nationalNumber);
+        return contacts.getValue().stream().findFirst();
+    }
+
+    /**
+     * Get customer by contact id
+     */
+    public Optional<CustomerDto> getCustomerByContactId(String contactId) {
+        try {
+            return Optional.ofNullable(getRecordRevalidated(CONTACT_BY_ID, ODataReader::readContactCustomer, contactId));
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof WebClientResponseException.NotFound) {
+                return Optional.empty();
+            }
+            throw e;
         }
-        
-        return Optional.empty();
     }
 
     /**
@@ -184,23 +502,22 @@ public class DataverseService {
                       "&$expand=contact_customer_accounts($select=contactid,firstname,lastname,telephone1,mobilephone,emailaddress1)" +
                       "&$top=100";
         
-        JsonNode result = get("accounts", query);
-        List<CustomerDto> customers = new ArrayList<>();
-        
-        JsonNode accounts = result.get("value");
-        if (accounts != null) {
-            for (JsonNode account : accounts) {
-                customers.add(mapAccountToCustomerDto(account));
-            }
-        }
-        
-        return customers;
+        return getPage("accounts", query, ODataReader::readAccountCustomer).getValue();
     }
 
     /**
      * Create a new lead in CRM
      */
     public String createLead(LeadDto lead) {
+        String leadId = create("leads", toLeadRecord(lead));
+        log.info("Created new lead with ID: {}", leadId);
+        return leadId;
+    }
+
+    /**
+     * Map a lead to its Dataverse record
+     */
+    public Map<String, Object> toLeadRecord(LeadDto lead) {
         Map<String, Object> leadData = new HashMap<>();
         leadData.put("subject", lead.getSubject());
         leadData.put("firstname", lead.getFirstName());
@@ -215,9 +532,7 @@ public class DataverseService {
             leadData.putAll(lead.getCustomFields());
         }
         
-        String leadId = create("leads", leadData);
-        log.info("Created new lead with ID: {}", leadId);
-        return leadId;
+        return leadData;
     }
 
     // ==================== QUOTE OPERATIONS ====================
@@ -226,12 +541,8 @@ public class DataverseService {
      * Get quote by ID
      */
     public Optional<QuoteDto> getQuoteById(String quoteId) {
-        String query = String.format("(%s)?$select=quoteid,quotenumber,name,totalamount,statecode,statuscode" +
-                "&$expand=customerid_account($select=name)", quoteId);
-        
         try {
-            JsonNode result = get("quotes", query);
-            return Optional.of(mapToQuoteDto(result));
+            return Optional.ofNullable(getRecordRevalidated(QUOTE_BY_ID, ODataReader::readQuote, quoteId));
         } catch (Exception e) {
             log.error("Quote not found: {}", quoteId);
             return Optional.empty();
@@ -265,6 +576,15 @@ public class DataverseService {
      * Create an opportunity for existing customer
      */
     public String createOpportunity(OpportunityDto opportunity) {
+        String oppId = create("opportunities", toOpportunityRecord(opportunity));
+        log.info("Created new opportunity with ID: {}", oppId);
+        return oppId;
+    }
+
+    /**
+     * Map an opportunity to its Dataverse record
+     */
+    public Map<String, Object> toOpportunityRecord(OpportunityDto opportunity) {
         Map<String, Object> oppData = new HashMap<>();
         oppData.put("name", opportunity.getName());
         oppData.put("description", opportunity.getDescription());
@@ -285,9 +605,7 @@ public class DataverseService {
             oppData.putAll(opportunity.getCustomFields());
         }
         
-        String oppId = create("opportunities", oppData);
-        log.info("Created new opportunity with ID: {}", oppId);
-        return oppId;
+        return oppData;
     }
 
     // ==================== COMPLAINT OPERATIONS ====================
@@ -297,6 +615,15 @@ public class DataverseService {
      * Note: Complaints are stored in 'incidents' entity (standard) or custom entity
      */
     public String createComplaint(ComplaintDto complaint) {
+        String caseId = create("incidents", toComplaintRecord(complaint));
+        log.info("Created new complaint/case with ID: {}", caseId);
+        return caseId;
+    }
+
+    /**
+     * Map a complaint to its Dataverse case (incident) record
+     */
+    public Map<String, Object> toComplaintRecord(ComplaintDto complaint) {
         Map<String, Object> caseData = new HashMap<>();
         caseData.put("title", complaint.getTitle());
         caseData.put("description", complaint.getDescription());
@@ -316,31 +643,14 @@ public class DataverseService {
             caseData.putAll(complaint.getCustomFields());
         }
         
-        String caseId = create("incidents", caseData);
-        log.info("Created new complaint/case with ID: {}", caseId);
-        return caseId;
+        return caseData;
     }
 
     /**
      * Get complaints for a customer
      */
     public List<ComplaintDto> getComplaintsByCustomer(String accountId) {
-        String query = String.format(
-            "?$filter=_customerid_value eq '%s'&$select=incidentid,title,description,statecode,statuscode,createdon" +
-            "&$orderby=createdon desc", accountId
-        );
-        
-        JsonNode result = get("incidents", query);
-        List<ComplaintDto> complaints = new ArrayList<>();
-        
-        JsonNode cases = result.get("value");
-        if (cases != null) {
-            for (JsonNode caseNode : cases) {
-                complaints.add(mapToComplaintDto(caseNode));
-            }
-        }
-        
-        return complaints;
+        return getPage(COMPLAINTS_BY_CUSTOMER, ODataReader::readComplaint, accountId).getValue();
     }
 
     // ==================== SALES ORDER OPERATIONS ====================
@@ -349,23 +659,7 @@ public class DataverseService {
      * Get sales orders for a customer
      */
     public List<SalesOrderDto> getSalesOrdersByCustomer(String accountId) {
-        String query = String.format(
-            "?$filter=_customerid_value eq '%s' and statecode eq 0" +
-            "&$select=salesorderid,ordernumber,name,totalamount,requestdeliveryby" +
-            "&$orderby=createdon desc", accountId
-        );
-        
-        JsonNode result = get("salesorders", query);
-        List<SalesOrderDto> orders = new ArrayList<>();
-        
-        JsonNode ordersNode = result.get("value");
-        if (ordersNode != null) {
-            for (JsonNode order : ordersNode) {
-                orders.add(mapToSalesOrderDto(order));
-            }
-        }
-        
-        return orders;
+        return getPageRevalidated(SALES_ORDERS_BY_CUSTOMER, ODataReader::readSalesOrder, accountId).getValue();
     }
 
     // ==================== CUSTOM ENTITY OPERATIONS ====================
@@ -375,6 +669,17 @@ public class DataverseService {
      * Adjust the entity name based on your Dataverse schema
      */
     public String createDeliveryOrder(DeliveryOrderDto deliveryOrder) {
+        // Custom entity name - adjust based on your schema
+        String entityName = "cr_deliveryorders";
+        String doId = create(entityName, toDeliveryOrderRecord(deliveryOrder));
+        log.info("Created new Delivery Order with ID: {}", doId);
+        return doId;
+    }
+
+    /**
+     * Map a delivery order to its Dataverse record
+     */
+    public Map<String, Object> toDeliveryOrderRecord(DeliveryOrderDto deliveryOrder) {
         Map<String, Object> doData = new HashMap<>();
         
         // Standard fields
@@ -394,30 +699,16 @@ public class DataverseService {
             doData.put("cr_customerid@odata.bind", "/accounts(" + deliveryOrder.getAccountId() + ")");
         }
         
-        // Custom entity name - adjust based on your schema
-        String entityName = "cr_deliveryorders";
-        String doId = create(entityName, doData);
-        log.info("Created new Delivery Order with ID: {}", doId);
-        return doId;
+        return doData;
     }
 
     /**
      * Get entity metadata to discover custom entities and their fields
      */
     public JsonNode getEntityMetadata(String entityLogicalName) {
-        String url = config.getApiUrl() + "/EntityDefinitions(LogicalName='" + entityLogicalName + "')" +
-                    "?$select=LogicalName,DisplayName,PrimaryIdAttribute,PrimaryNameAttribute" +
-                    "&$expand=Attributes($select=LogicalName,DisplayName,AttributeType,RequiredLevel)";
-        
         try {
-            String response = webClient.get()
-                    .uri(url)
-                    .headers(this::setHeaders)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            
-            return objectMapper.readTree(response);
+            return getRecordRevalidated(entityDefinitionSet(entityLogicalName), ENTITY_METADATA_QUERY,
+                    parser -> objectMapper.readTree(parser));
         } catch (Exception e) {
             log.error("Failed to get entity metadata for: {}", entityLogicalName, e);
             throw new RuntimeException("Failed to get entity metadata", e);
@@ -428,120 +719,104 @@ public class DataverseService {
      * Get all custom entities in the system
      */
     public JsonNode getCustomEntities() {
-        String url = config.getApiUrl() + "/EntityDefinitions" +
-                    "?$filter=IsCustomEntity eq true" +
-                    "&$select=LogicalName,DisplayName,Description";
-        
         try {
-            String response = webClient.get()
-                    .uri(url)
-                    .headers(this::setHeaders)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            
-            return objectMapper.readTree(response);
+            return getRecordRevalidated("EntityDefinitions", CUSTOM_ENTITIES_QUERY, parser -> objectMapper.readTree(parser));
         } catch (Exception e) {
             log.error("Failed to get custom entities", e);
             throw new RuntimeException("Failed to get custom entities", e);
         }
     }
 
-    // ==================== HELPER METHODS ====================
+    /**
+     * Request URL of {@link #getEntityMetadata}, which is also its response cache key
+     */
+    public String getEntityMetadataUrl(String entityLogicalName) {
+        return getApiUrl(entityDefinitionSet(entityLogicalName), ENTITY_METADATA_QUERY);
+    }
 
-    private void setHeaders(HttpHeaders headers) {
-        headers.setBearerAuth(authService.getAccessToken());
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("OData-MaxVersion", "4.0");
-        headers.set("OData-Version", "4.0");
-        headers.set("Prefer", "odata.include-annotations=*");
+    /**
+     * Request URL of {@link #getCustomEntities}, which is also its response cache key
+     */
+    public String getCustomEntitiesUrl() {
+        return getApiUrl("EntityDefinitions", CUSTOM_ENTITIES_QUERY);
     }
 
-    private String buildUrl(String entitySet, String query) {
-        String url = config.getApiUrl() + "/" + entitySet;
-        if (query != null && !query.isEmpty()) {
-            url += query;
-        }
-        return url;
+    private String entityDefinitionSet(String entityLogicalName) {
+        return "EntityDefinitions(LogicalName='" + entityLogicalName + "')";
     }
 
-    private CustomerDto mapToCustomerDto(JsonNode contact) {
-        CustomerDto customer = new CustomerDto();
-        customer.setContactId(getTextValue(contact, "contactid"));
-        customer.setFirstName(getTextValue(contact, "firstname"));
-        customer.setLastName(getTextValue(contact, "lastname"));
-        customer.setPhone(getTextValue(contact, "telephone1"));
-        customer.setMobile(getTextValue(contact, "mobilephone"));
-        customer.setEmail(getTextValue(contact, "emailaddress1"));
-        
-        JsonNode account = contact.get("parentcustomerid_account");
-        if (account != null && !account.isNull()) {
-            customer.setAccountId(getTextValue(account, "accountid"));
-            customer.setAccountName(getTextValue(account, "name"));
-            customer.setAccountNumber(getTextValue(account, "accountnumber"));
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Run a Dataverse call behind the adaptive concurrency limiter. Service protection
+     * 429 responses shrink the limit, pause all callers for Retry-After (plus jitter)
+     * and are retried; callers queue until the configured deadline instead of failing.
+     */
+    private <T> T limited(Supplier<T> call) {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        if (limiter == null) {
+            return call.get();
         }
-        
-        return customer;
-    }
 
-    private CustomerDto mapAccountToCustomerDto(JsonNode account) {
-        CustomerDto customer = new CustomerDto();
-        customer.setAccountId(getTextValue(account, "accountid"));
-        customer.setAccountName(getTextValue(account, "name"));
-        customer.setAccountNumber(getTextValue(account, "accountnumber"));
-        
-        JsonNode contacts = account.get("contact_customer_accounts");
-        if (contacts != null && contacts.size() > 0) {
-            JsonNode primaryContact = contacts.get(0);
-            customer.setContactId(getTextValue(primaryContact, "contactid"));
-            customer.setFirstName(getTextValue(primaryContact, "firstname"));
-            customer.setLastName(getTextValue(primaryContact, "lastname"));
-            customer.setPhone(getTextValue(primaryContact, "telephone1"));
-            customer.setMobile(getTextValue(primaryContact, "mobilephone"));
-            customer.setEmail(getTextValue(primaryContact, "emailaddress1"));
+        Dynamics365Config.Limiter limits = config.getLimiter();
+        long deadline = System.nanoTime() + limits.getQueueTimeout().toNanos();
+        for (int attempt = 0; ; attempt++) {
+            limiter.acquire(deadline);
+            try {
+                T result = call.get();
+                limiter.onSuccess();
+                return result;
+            } catch (WebClientResponseException.TooManyRequests e) {
+                Duration retryAfter = retryAfter(e);
+                limiter.onThrottled(retryAfter);
+                if (attempt >= limits.getMaxRetries()) {
+                    throw e;
+                }
+                log.warn("Dataverse service protection limit hit, retrying in {}", retryAfter);
+            } catch (RuntimeException e) {
+                limiter.onIgnore();
+                throw e;
+            }
         }
-        
-        return customer;
     }
 
-    private QuoteDto mapToQuoteDto(JsonNode quote) {
-        QuoteDto dto = new QuoteDto();
-        dto.setQuoteId(getTextValue(quote, "quoteid"));
-        dto.setQuoteNumber(getTextValue(quote, "quotenumber"));
-        dto.setName(getTextValue(quote, "name"));
-        dto.setTotalAmount(quote.has("totalamount") ? quote.get("totalamount").asDouble() : 0);
-        dto.setStateCode(quote.has("statecode") ? quote.get("statecode").asInt() : 0);
-        dto.setStatusCode(quote.has("statuscode") ? quote.get("statuscode").asInt() : 0);
-        
-        JsonNode account = quote.get("customerid_account");
-        if (account != null) {
-            dto.setCustomerName(getTextValue(account, "name"));
+    private Duration retryAfter(WebClientResponseException e) {
+        String value = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value != null) {
+            try {
+                // Dataverse sends the delay in seconds
+                return Duration.ofMillis((long) (Double.parseDouble(value.trim()) * 1000));
+            } catch (NumberFormatException ignored) {
+                log.debug("Unparseable Retry-After header: {}", value);
+            }
         }
-        
-        return dto;
+        return config.getLimiter().getDefaultRetryAfter();
     }
 
-    private ComplaintDto mapToComplaintDto(JsonNode caseNode) {
-        ComplaintDto dto = new ComplaintDto();
-        dto.setComplaintId(getTextValue(caseNode, "incidentid"));
-        dto.setTitle(getTextValue(caseNode, "title"));
-        dto.setDescription(getTextValue(caseNode, "description"));
-        dto.setStateCode(caseNode.has("statecode") ? caseNode.get("statecode").asInt() : 0);
-        dto.setStatusCode(caseNode.has("statuscode") ? caseNode.get("statuscode").asInt() : 0);
-        return dto;
+    private void setHeaders(HttpHeaders headers) {
+        headers.setBearerAuth(authService.getAccessToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("OData-MaxVersion", "4.0");
+        headers.set("OData-Version", "4.0");
+        headers.set("Prefer", "odata.include-annotations=*");
     }
 
-    private SalesOrderDto mapToSalesOrderDto(JsonNode order) {
-        SalesOrderDto dto = new SalesOrderDto();
-        dto.setOrderId(getTextValue(order, "salesorderid"));
-        dto.setOrderNumber(getTextValue(order, "ordernumber"));
-        dto.setName(getTextValue(order, "name"));
-        dto.setTotalAmount(order.has("totalamount") ? order.get("totalamount").asDouble() : 0);
-        dto.setRequestDeliveryBy(getTextValue(order, "requestdeliveryby"));
-        return dto;
+    /**
+     * Absolute, encoded URL for an entity set query
+     */
+    public String getApiUrl(String entitySet, String query) {
+        return toUri(buildUrl(entitySet, query)).toString();
+    }
+
+    private String buildUrl(String entitySet, String query) {
+        String url = apiUrl() + "/" + entitySet;
+        if (query != null && !query.isEmpty()) {
+            url += query;
+        }
+        return url;
     }
 
-    private String getTextValue(JsonNode node, String field) {
-        return node.has(field) && !node.get(field).isNull() ? node.get(field).asText() : null;
+    private URI toUri(String url) {
+        return UriComponentsBuilder.fromUriString(url).build().encode().toUri();
     }
 }
@@ -0,0 +1,181 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.Dynamics365Config;
+import com.dpl.whatsapp.config.MetadataCacheConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of Dataverse entity definitions served to the metadata endpoints.
+ * Definitions are kept in memory and in an on-disk snapshot that is loaded at startup.
+ * The background refresh revalidates each definition with its ETag, so unchanged
+ * metadata costs a 304 instead of a full EntityDefinitions download.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityMetadataCache {
+
+    private final MetadataCacheConfig config;
+    private final DataverseService dataverseService;
+    private final DataverseResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
+    // Keyed by request URL
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Data
+    static class Entry {
+        private String orgId;
+        // Entity logical name, or null for the custom entity list
+        private String logicalName;
+        private String url;
+        private String etag;
+        private JsonNode definition;
+        private Instant refreshedAt;
+    }
+
+    @PostConstruct
+    void init() {
+        if (config.isEnabled()) {
+            loadSnapshot();
+        }
+    }
+
+    /**
+     * Get entity metadata, from memory when available
+     */
+    public JsonNode getEntityMetadata(String entityLogicalName) {
+        if (!config.isEnabled()) {
+            return dataverseService.getEntityMetadata(entityLogicalName);
+        }
+        return get(entityLogicalName, dataverseService.getEntityMetadataUrl(entityLogicalName));
+    }
+
+    /**
+     * Get all custom entities, from memory when available
+     */
+    public JsonNode getCustomEntities() {
+        if (!config.isEnabled()) {
+            return dataverseService.getCustomEntities();
+        }
+        return get(null, dataverseService.getCustomEntitiesUrl());
+    }
+
+    private JsonNode get(String logicalName, String url) {
+        Entry entry = entries.get(url);
+        if (entry != null) {
+            return entry.getDefinition();
+        }
+
+        entry = fetch(CrmOrgContext.current(), logicalName, url);
+        entries.put(url, entry);
+        saveSnapshot();
+        return entry.getDefinition();
+    }
+
+    // ==================== BACKGROUND REFRESH ====================
+
+    /**
+     * Revalidate every cached definition; only changed metadata is downloaded again
+     */
+    @Scheduled(fixedDelayString = "${crm.metadata-cache.refresh-interval:PT1H}",
+               initialDelayString = "${crm.metadata-cache.refresh-interval:PT1H}")
+    public void refresh() {
+        if (!config.isEnabled() || entries.isEmpty()) {
+            return;
+        }
+
+        int changed = 0;
+        for (Entry entry : entries.values()) {
+            try {
+                Entry fresh = fetch(entry.getOrgId(), entry.getLogicalName(), entry.getUrl());
+                if (!fresh.getDefinition().equals(entry.getDefinition())) {
+                    changed++;
+                }
+                entries.put(entry.getUrl(), fresh);
+            } catch (Exception e) {
+                // Keep serving the cached definition
+                log.warn("Failed to refresh metadata {}: {}", entry.getUrl(), e.getMessage());
+            }
+        }
+
+        if (changed > 0) {
+            log.info("Entity metadata refreshed, {} definitions changed", changed);
+            saveSnapshot();
+        }
+    }
+
+    private Entry fetch(String orgId, String logicalName, String url) {
+        String org = orgId != null ? orgId : Dynamics365Config.DEFAULT_ORG;
+        JsonNode definition = CrmOrgContext.call(org, () -> logicalName != null
+                ? dataverseService.getEntityMetadata(logicalName)
+                : dataverseService.getCustomEntities());
+
+        DataverseResponseCache.CachedResponse cached = responseCache.get(url);
+
+        Entry entry = new Entry();
+        entry.setOrgId(org);
+        entry.setLogicalName(logicalName);
+        entry.setUrl(url);
+        entry.setEtag(cached != null ? cached.getEtag() : null);
+        entry.setDefinition(definition);
+        entry.setRefreshedAt(Instant.now());
+        return entry;
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    private void loadSnapshot() {
+        Path path = Paths.get(config.getSnapshotPath());
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try {
+            List<Entry> snapshot = objectMapper.readValue(path.toFile(), new TypeReference<List<Entry>>() { });
+            for (Entry entry : snapshot) {
+                entries.put(entry.getUrl(), entry);
+                // Let the first refresh revalidate instead of downloading again
+                if (entry.getEtag() != null) {
+                    responseCache.seed(entry.getUrl(), entry.getEtag(), objectMapper.writeValueAsBytes(entry.getDefinition()));
+                }
+            }
+            log.info("Loaded {} entity metadata definitions from snapshot", entries.size());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable entity metadata snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private synchronized void saveSnapshot() {
+        Path path = Paths.get(config.getSnapshotPath());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new ArrayList<>(entries.values()));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write entity metadata snapshot {}: {}", path, e.getMessage());
+        }
+    }
+}
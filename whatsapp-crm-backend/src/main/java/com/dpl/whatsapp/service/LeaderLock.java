@@ -0,0 +1,84 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Leader election for scheduled jobs through a lease row in the shared database: the node that
+ * holds an unexpired lease runs the job, and a crashed leader's lease simply runs out.
+ * Jobs must finish (or re-acquire) within the lease.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderLock {
+
+    private final SchedulerLockRepository locks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner = hostname() + ":" + UUID.randomUUID();
+
+    /**
+     * Take or extend the lease on {@code name}; false if another node holds it
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        try {
+            Integer updated = transactionTemplate.execute(status -> locks.acquire(name, owner, now, until));
+            if (updated != null && updated > 0) {
+                return true;
+            }
+            if (locks.existsById(name)) {
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status -> locks.insert(name, owner, now, until));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lock first
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> locks.release(name, owner, LocalDateTime.now()));
+    }
+
+    /**
+     * Run {@code task} if this node gets the lease, releasing it afterwards
+     */
+    public boolean runIfLeader(String name, Duration ttl, Runnable task) {
+        if (!tryAcquire(name, ttl)) {
+            log.debug("Skipping {}: another node holds the lock", name);
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(name);
+        }
+        return true;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
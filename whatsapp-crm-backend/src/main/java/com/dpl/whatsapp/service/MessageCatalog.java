@@ -0,0 +1,242 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.MessageCatalogConfig;
+import com.dpl.whatsapp.dto.whatsapp.PhoneNumber;
+import com.dpl.whatsapp.entity.ChatSession;
+import com.dpl.whatsapp.repository.ChatSessionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Chatbot and notification texts per language, loaded from {@code <language>.yml} files and
+ * compiled once into {@link MessageText}s. The files are checked for changes every
+ * reload-interval and swapped in as a whole; a catalog that does not compile is rejected
+ * and the previous one stays in use. Customers choose their language in the chatbot; it is
+ * kept on their chat session and also used for notifications to their number.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageCatalog {
+
+    private static final MessageKey[] KEYS = MessageKey.values();
+
+    private final MessageCatalogConfig config;
+    private final ChatSessionRepository sessionRepository;
+
+    private final ResourcePatternResolver resources = new PathMatchingResourcePatternResolver();
+
+    // language -> texts indexed by MessageKey ordinal, replaced as a whole on reload
+    private volatile Map<String, MessageText[]> catalogs = Map.of();
+    private volatile String fingerprint;
+    private volatile String rejected;
+    private Cache<String, String> preferences;
+
+    @PostConstruct
+    void init() {
+        preferences = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(config.getPreferenceTtl())
+                .build();
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Message catalog at " + config.getLocation() + " is invalid", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.messages.reload-interval:PT30S}")
+    public void reload() {
+        String current = null;
+        try {
+            current = fingerprint();
+            // Unchanged, or the same files were already rejected
+            if (current.equals(fingerprint) || current.equals(rejected)) {
+                return;
+            }
+            load();
+        } catch (IOException | RuntimeException e) {
+            rejected = current;
+            log.error("Message catalog reload failed, keeping the current texts: {}", e.getMessage());
+        }
+    }
+
+    // ==================== RENDERING ====================
+
+    /**
+     * Text of {@code key} in {@code language} (or the default language), parameters in declaration order
+     */
+    public String render(String language, MessageKey key, Object... values) {
+        return texts(language)[key.ordinal()].render(values);
+    }
+
+    /**
+     * Whether {@code language} has a catalog
+     */
+    public boolean supports(String language) {
+        return language != null && catalogs.containsKey(language);
+    }
+
+    /**
+     * Available languages, the default first
+     */
+    public List<String> getLanguages() {
+        List<String> languages = new ArrayList<>(catalogs.keySet());
+        languages.sort(Comparator.comparing((String language) -> !language.equals(config.getDefaultLanguage()))
+                .thenComparing(Comparator.naturalOrder()));
+        return languages;
+    }
+
+    private MessageText[] texts(String language) {
+        Map<String, MessageText[]> current = catalogs;
+        MessageText[] texts = language != null ? current.get(language) : null;
+        return texts != null ? texts : current.get(config.getDefaultLanguage());
+    }
+
+    // ==================== PREFERENCES ====================
+
+    /**
+     * The language chosen by the customer with this number in the current org's chat, or null for the default
+     */
+    public String languageOf(String phoneNumber) {
+        String digits = PhoneNumber.canonical(phoneNumber);
+        if (digits == null) {
+            return null;
+        }
+        String orgId = CrmOrgContext.current();
+        String language = preferences.get(preferenceKey(orgId, digits),
+                key -> sessionRepository.findByOrgIdAndPhoneNumber(orgId, digits)
+                        .map(ChatSession::getLanguage)
+                        .orElse(""));
+        return language.isEmpty() ? null : language;
+    }
+
+    /**
+     * Record a language change made on a chat session
+     */
+    public void preferenceChanged(ChatSession session) {
+        preferences.put(preferenceKey(session.getOrgId(), session.getPhoneNumber()),
+                session.getLanguage() != null ? session.getLanguage() : "");
+    }
+
+    private static String preferenceKey(String orgId, String digits) {
+        return orgId + ':' + digits;
+    }
+
+    // ==================== LOADING ====================
+
+    private synchronized void load() throws IOException {
+        Resource[] files = files();
+        String loadedFingerprint = fingerprint(files);
+
+        Map<String, Map<String, String>> sources = new HashMap<>();
+        for (Resource file : files) {
+            String name = Objects.requireNonNull(file.getFilename());
+            sources.put(name.substring(0, name.length() - ".yml".length()), read(file));
+        }
+        Map<String, String> defaults = sources.get(config.getDefaultLanguage());
+        if (defaults == null) {
+            throw new IllegalStateException("No " + config.getDefaultLanguage() + ".yml in " + config.getLocation());
+        }
+
+        Map<String, MessageText[]> compiled = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> source : sources.entrySet()) {
+            compiled.put(source.getKey(), compile(source.getKey(), source.getValue(), defaults));
+        }
+
+        catalogs = Map.copyOf(compiled);
+        fingerprint = loadedFingerprint;
+        log.info("Message catalog loaded: languages {}", getLanguages());
+    }
+
+    /**
+     * One language's texts; missing texts come from the default language
+     */
+    private MessageText[] compile(String language, Map<String, String> texts, Map<String, String> defaults) {
+        MessageText[] compiled = new MessageText[KEYS.length];
+        Set<String> unused = new HashSet<>(texts.keySet());
+        List<String> missing = new ArrayList<>();
+        for (MessageKey key : KEYS) {
+            String text = texts.get(key.getKey());
+            unused.remove(key.getKey());
+            if (text == null) {
+                missing.add(key.getKey());
+                text = defaults.get(key.getKey());
+                if (text == null) {
+                    throw new IllegalStateException("Message " + key.getKey() + " is missing from the default language");
+                }
+            }
+            compiled[key.ordinal()] = MessageText.compile(key.getKey() + " (" + language + ")", text, key.getParameters());
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Messages in {} not translated, using {}: {}", language, config.getDefaultLanguage(), missing);
+        }
+        if (!unused.isEmpty()) {
+            log.warn("Unknown messages in {}.yml ignored: {}", language, unused);
+        }
+        return compiled;
+    }
+
+    private Map<String, String> read(Resource file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            Object document = new Yaml().load(reader);
+            Map<String, String> texts = new HashMap<>();
+            if (document instanceof Map<?, ?> root) {
+                flatten("", root, texts);
+            }
+            return texts;
+        }
+    }
+
+    /**
+     * Nested keys joined with dots: {@code chat: {menu: {header: ...}}} -> chat.menu.header
+     */
+    private static void flatten(String prefix, Map<?, ?> node, Map<String, String> texts) {
+        for (Map.Entry<?, ?> entry : node.entrySet()) {
+            String key = prefix + entry.getKey();
+            if (entry.getValue() instanceof Map<?, ?> child) {
+                flatten(key + ".", child, texts);
+            } else if (entry.getValue() != null) {
+                texts.put(key, entry.getValue().toString());
+            }
+        }
+    }
+
+    private Resource[] files() throws IOException {
+        String location = config.getLocation().endsWith("/") ? config.getLocation() : config.getLocation() + "/";
+        Resource[] files = resources.getResources(location + "*.yml");
+        Arrays.sort(files, Comparator.comparing(Resource::getFilename));
+        return files;
+    }
+
+    private String fingerprint() throws IOException {
+        return fingerprint(files());
+    }
+
+    /**
+     * Names, sizes and modification times of the catalog files
+     */
+    private static String fingerprint(Resource[] files) throws IOException {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Resource file : files) {
+            fingerprint.append(file.getFilename()).append(':').append(file.contentLength())
+                    .append(':').append(file.lastModified()).append(';');
+        }
+        return fingerprint.toString();
+    }
+}
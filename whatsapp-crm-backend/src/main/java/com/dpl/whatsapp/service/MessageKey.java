@@ -0,0 +1,143 @@
+package com.dpl.whatsapp.service;
+
+import java.util.List;
+
+/**
+ * Texts of the message catalog and the parameters each one takes, in call order.
+ * The catalog files use the key and may reference the parameters by name.
+ */
+public enum MessageKey {
+
+    // ==================== CHATBOT ====================
+
+    LANGUAGE_NAME("language.name"),
+    LANGUAGE_HEADER("chat.language.header"),
+    LANGUAGE_PROMPT("chat.language.prompt"),
+    LANGUAGE_BUTTON("chat.language.button"),
+
+    GREETING("chat.greeting"),
+    GREETING_NAMED("chat.greeting-named", "customerName"),
+    MENU_HEADER("chat.menu.header"),
+    MENU_BODY("chat.menu.body", "greeting"),
+    MENU_FOOTER("chat.menu.footer"),
+    MENU_INQUIRY("chat.menu.inquiry"),
+    MENU_COMPLAINT("chat.menu.complaint"),
+    MENU_DELIVERY("chat.menu.delivery"),
+    MENU_NOT_UNDERSTOOD("chat.menu.not-understood"),
+
+    YES("chat.confirm.yes-keyword"),
+    CONFIRM_SUBMIT("chat.confirm.submit"),
+    CONFIRM_OK("chat.confirm.ok"),
+    CONFIRM_CANCEL("chat.confirm.cancel"),
+
+    LEAD_START_CUSTOMER("chat.lead.start-customer"),
+    LEAD_START("chat.lead.start"),
+    LEAD_ASK_COMPANY("chat.lead.ask-company", "name"),
+    LEAD_ASK_EMAIL("chat.lead.ask-email"),
+    LEAD_INVALID_EMAIL("chat.lead.invalid-email"),
+    LEAD_ASK_PRODUCT("chat.lead.ask-product"),
+    LEAD_ASK_QUANTITY("chat.lead.ask-quantity"),
+    LEAD_CONFIRM_HEADER("chat.lead.confirm-header"),
+    LEAD_CONFIRM_CUSTOMER("chat.lead.confirm-customer", "product", "quantity"),
+    LEAD_CONFIRM("chat.lead.confirm", "name", "company", "email", "product", "quantity"),
+    LEAD_OPPORTUNITY_CREATED("chat.lead.opportunity-created", "reference"),
+    LEAD_CREATED("chat.lead.created", "reference"),
+    LEAD_FAILED("chat.lead.failed"),
+    LEAD_CANCELLED("chat.lead.cancelled"),
+
+    COMPLAINT_NO_ACCOUNT("chat.complaint.no-account"),
+    COMPLAINT_HEADER("chat.complaint.header"),
+    COMPLAINT_TYPE_PROMPT("chat.complaint.type-prompt"),
+    COMPLAINT_TYPE_BUTTON("chat.complaint.type-button"),
+    COMPLAINT_TYPES("chat.complaint.types"),
+    COMPLAINT_QUALITY("chat.complaint.quality.title"),
+    COMPLAINT_QUALITY_DESCRIPTION("chat.complaint.quality.description"),
+    COMPLAINT_DELIVERY("chat.complaint.delivery.title"),
+    COMPLAINT_DELIVERY_DESCRIPTION("chat.complaint.delivery.description"),
+    COMPLAINT_BILLING("chat.complaint.billing.title"),
+    COMPLAINT_BILLING_DESCRIPTION("chat.complaint.billing.description"),
+    COMPLAINT_OTHER("chat.complaint.other.title"),
+    COMPLAINT_OTHER_DESCRIPTION("chat.complaint.other.description"),
+    COMPLAINT_ASK_DESCRIPTION("chat.complaint.ask-description"),
+    PRIORITY_HEADER("chat.complaint.priority.header"),
+    PRIORITY_PROMPT("chat.complaint.priority.prompt"),
+    PRIORITY_HIGH("chat.complaint.priority.high"),
+    PRIORITY_NORMAL("chat.complaint.priority.normal"),
+    PRIORITY_LOW("chat.complaint.priority.low"),
+    COMPLAINT_CONFIRM_HEADER("chat.complaint.confirm-header"),
+    COMPLAINT_CONFIRM("chat.complaint.confirm", "type", "description", "priority"),
+    COMPLAINT_CREATED("chat.complaint.created", "reference"),
+    COMPLAINT_FAILED("chat.complaint.failed"),
+    COMPLAINT_CANCELLED("chat.complaint.cancelled"),
+
+    DO_NO_ACCOUNT("chat.delivery.no-account"),
+    DO_NO_ORDERS("chat.delivery.no-orders"),
+    DO_HEADER("chat.delivery.header"),
+    DO_SELECT_PROMPT("chat.delivery.select-prompt"),
+    DO_SELECT_BUTTON("chat.delivery.select-button"),
+    DO_ORDERS("chat.delivery.orders"),
+    DO_ORDER_ROW("chat.delivery.order-row", "name", "totalAmount"),
+    DO_FETCH_FAILED("chat.delivery.fetch-failed"),
+    DO_ASK_QUANTITY("chat.delivery.ask-quantity"),
+    DO_ASK_DATE("chat.delivery.ask-date"),
+    DO_ASK_ADDRESS("chat.delivery.ask-address"),
+    DO_CONFIRM_HEADER("chat.delivery.confirm-header"),
+    DO_CONFIRM("chat.delivery.confirm", "quantity", "deliveryDate", "address"),
+    DO_CREATED("chat.delivery.created", "reference"),
+    DO_FAILED("chat.delivery.failed"),
+    DO_CANCELLED("chat.delivery.cancelled"),
+
+    QUOTE_ACCEPTED("chat.quote.accepted"),
+    QUOTE_ACCEPT_FAILED("chat.quote.accept-failed"),
+    QUOTE_ASK_REASON("chat.quote.ask-reason"),
+    QUOTE_REJECTED("chat.quote.rejected"),
+
+    // ==================== NOTIFICATIONS ====================
+
+    TAP_TO_RESPOND("notification.tap-to-respond"),
+    CUSTOMER_ONBOARDED("notification.customer-onboarded", "customerName", "salesPersonName"),
+    QUOTATION_CAPTION("notification.quotation.caption", "quoteNumber", "totalAmount"),
+    QUOTATION_HEADER("notification.quotation.header", "quoteNumber"),
+    QUOTATION("notification.quotation.body", "customerName", "quoteNumber", "totalAmount"),
+    QUOTATION_ACCEPT("notification.quotation.accept"),
+    QUOTATION_DECLINE("notification.quotation.decline"),
+    SALES_ORDER_CREATED("notification.sales-order-created", "customerName", "orderNumber", "totalAmount"),
+    DELIVERY_ORDER_CREATED("notification.delivery-order-created",
+            "customerName", "doNumber", "quantity", "deliveryDate"),
+    INVOICE_CAPTION("notification.invoice.caption", "invoiceNumber"),
+    INVOICE("notification.invoice.body", "customerName", "invoiceNumber", "amount", "trackingLink"),
+    COMPLAINT_REGISTERED("notification.complaint-registered", "customerName", "caseNumber", "issueType"),
+    COMPLAINT_RESOLVED_HEADER("notification.complaint-resolved.header"),
+    COMPLAINT_RESOLVED("notification.complaint-resolved.body", "customerName", "caseNumber", "resolution"),
+    COMPLAINT_RESOLVED_FOOTER("notification.complaint-resolved.footer"),
+    FEEDBACK_SATISFIED("notification.complaint-resolved.satisfied"),
+    FEEDBACK_NOT_SATISFIED("notification.complaint-resolved.not-satisfied"),
+    BIRTHDAY("notification.birthday", "customerName"),
+    FESTIVAL("notification.festival", "festivalName", "customerName", "customMessage"),
+    SHIPMENT_REMINDER("notification.shipment-reminder", "customerName", "orderNumber", "pendingQuantity", "lastDate"),
+    CONTRACT_EXPIRY_HEADER("notification.contract-expiry.header"),
+    CONTRACT_EXPIRY("notification.contract-expiry.body", "customerName", "contractNumber", "expiryDate"),
+    CONTRACT_RENEW("notification.contract-expiry.renew"),
+    CONTRACT_DISCUSS("notification.contract-expiry.discuss"),
+    CREDIT_LIMIT_EXCEEDED("notification.credit-limit-exceeded", "customerName", "creditLimit", "outstanding"),
+    APPROVAL_HEADER("notification.approval.header"),
+    APPROVAL_REQUEST("notification.approval.body", "approverName", "requestType", "requestDetails"),
+    APPROVAL_APPROVE("notification.approval.approve"),
+    APPROVAL_REJECT("notification.approval.reject");
+
+    private final String key;
+    private final List<String> parameters;
+
+    MessageKey(String key, String... parameters) {
+        this.key = key;
+        this.parameters = List.of(parameters);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+}
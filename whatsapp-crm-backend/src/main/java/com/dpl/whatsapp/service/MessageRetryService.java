@@ -0,0 +1,272 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.WhatsAppConfig;
+import com.dpl.whatsapp.dto.whatsapp.MessageBody;
+import com.dpl.whatsapp.dto.whatsapp.MessageResponse;
+import com.dpl.whatsapp.dto.whatsapp.RawPayload;
+import com.dpl.whatsapp.entity.CampaignRecipient;
+import com.dpl.whatsapp.entity.DeadLetterMessage;
+import com.dpl.whatsapp.entity.RetryMessage;
+import com.dpl.whatsapp.repository.CampaignRecipientRepository;
+import com.dpl.whatsapp.repository.CampaignRepository;
+import com.dpl.whatsapp.repository.DeadLetterMessageRepository;
+import com.dpl.whatsapp.repository.RetryMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Persistent retry queue and dead-letter store for failed WhatsApp sends.
+ * Sends that failed with a retryable error (throttling, Meta outages, network trouble)
+ * are retried with exponential backoff; permanent failures and sends that run out of
+ * attempts are moved to the dead-letter table, from where they can be replayed.
+ * Retries go out at the priority of the original send; a campaign recipient waiting on
+ * a retry is marked sent or failed, and counted in its campaign, once the retry resolves.
+ * Every node polls, but only the one holding the retry lease sends a batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageRetryService {
+
+    private static final String RETRY_LOCK = "whatsapp.retry";
+
+    private final WhatsAppConfig config;
+    private final OutboundMessageScheduler outboundScheduler;
+    private final WhatsAppPayloadCodec codec;
+    private final RetryMessageRepository retryQueue;
+    private final DeadLetterMessageRepository deadLetters;
+    private final CampaignRepository campaigns;
+    private final CampaignRecipientRepository campaignRecipients;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderLock leaderLock;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Store a failed send (off the caller's thread): retryable failures are queued for
+     * another attempt, permanent ones are dead-lettered right away
+     */
+    @Async
+    public void failed(WhatsAppConfig.BusinessNumber number, MessageBody payload, OutboundPriority priority,
+                       MessageResponse response) {
+        store(number, payload, priority, response, null);
+    }
+
+    /**
+     * Store a failed send on the caller's thread (joining its transaction, if any)
+     *
+     * @param campaignRecipientId campaign recipient to settle when the retry resolves, or null
+     * @return whether the message was queued for retry; false if it was dead-lettered or retries are disabled
+     */
+    public boolean store(WhatsAppConfig.BusinessNumber number, MessageBody payload, OutboundPriority priority,
+                         MessageResponse response, String campaignRecipientId) {
+        if (!config.getRetry().isEnabled()) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        RetryMessage message = new RetryMessage();
+        message.setRecipient(payload.getTo());
+        message.setPhoneNumberId(number.getPhoneNumberId());
+        message.setPriority(priority);
+        message.setCampaignRecipientId(campaignRecipientId);
+        message.setPayload(codec.toJson(payload));
+        message.setAttempts(1);
+        message.setErrorCode(response.getErrorCode());
+        message.setError(truncate(response.getError()));
+        message.setCreatedAt(now);
+        message.setUpdatedAt(now);
+
+        if (Boolean.TRUE.equals(response.getRetryable()) && config.getRetry().getMaxAttempts() > 1) {
+            message.setNextAttemptAt(now.plus(backoff(1)));
+            retryQueue.save(message);
+            meterRegistry.counter("whatsapp.retry", "outcome", "queued").increment();
+            log.info("Queued failed WhatsApp message to {} for retry at {}", message.getRecipient(),
+                    message.getNextAttemptAt());
+            return true;
+        }
+        deadLetters.save(toDeadLetter(message));
+        meterRegistry.counter("whatsapp.retry", "outcome", "dead_letter").increment();
+        log.warn("Dead-lettered WhatsApp message to {} (error {})", message.getRecipient(), message.getErrorCode());
+        return false;
+    }
+
+    /**
+     * Send the retry queue entries that are due; the outbound queue paces them
+     */
+    @Scheduled(fixedDelayString = "${whatsapp.api.retry.poll-interval:PT10S}")
+    public void retryDue() {
+        if (config.getRetry().isEnabled()) {
+            leaderLock.runIfLeader(RETRY_LOCK, config.getRetry().getLockTtl(), this::sendDue);
+        }
+    }
+
+    private void sendDue() {
+        List<RetryMessage> due = retryQueue.findByNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                LocalDateTime.now(), PageRequest.of(0, config.getRetry().getBatchSize()));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<MessageResponse>> results = due.stream()
+                .map(message -> outboundScheduler.sendAsync(config.getNumberById(message.getPhoneNumberId()),
+                        new RawPayload(message.getRecipient(), message.getPayload()),
+                        message.getPriority() != null ? message.getPriority() : OutboundPriority.TRANSACTIONAL))
+                .toList();
+
+        for (int i = 0; i < due.size(); i++) {
+            RetryMessage message = due.get(i);
+            MessageResponse result = results.get(i).join();
+            if (result.isSuccess()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    retryQueue.delete(message);
+                    settleCampaignRecipient(message, result);
+                });
+                meterRegistry.counter("whatsapp.retry", "outcome", "recovered").increment();
+                log.info("Retried WhatsApp message to {} sent as {} after {} attempts", message.getRecipient(),
+                        result.getMessageId(), message.getAttempts() + 1);
+                continue;
+            }
+
+            int attempts = message.getAttempts() + 1;
+            LocalDateTime now = LocalDateTime.now();
+            message.setAttempts(attempts);
+            message.setErrorCode(result.getErrorCode());
+            message.setError(truncate(result.getError()));
+            message.setUpdatedAt(now);
+
+            if (Boolean.TRUE.equals(result.getRetryable()) && attempts < config.getRetry().getMaxAttempts()) {
+                message.setNextAttemptAt(now.plus(backoff(attempts)));
+                retryQueue.save(message);
+                meterRegistry.counter("whatsapp.retry", "outcome", "rescheduled").increment();
+            } else {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deadLetters.save(toDeadLetter(message));
+                    retryQueue.delete(message);
+                    settleCampaignRecipient(message, result);
+                });
+                meterRegistry.counter("whatsapp.retry", "outcome", "dead_letter").increment();
+                log.warn("Dead-lettered WhatsApp message to {} after {} attempts (error {})",
+                        message.getRecipient(), attempts, message.getErrorCode());
+            }
+        }
+    }
+
+    // ==================== DEAD LETTERS ====================
+
+    public List<DeadLetterMessage> getDeadLetters(Integer errorCode, int page, int size) {
+        PageRequest request = PageRequest.of(page, size);
+        return errorCode != null
+                ? deadLetters.findByErrorCodeOrderByFailedAtDesc(errorCode, request)
+                : deadLetters.findAllByOrderByFailedAtDesc(request);
+    }
+
+    public long getRetryQueueSize() {
+        return retryQueue.count();
+    }
+
+    public long getDeadLetterCount() {
+        return deadLetters.count();
+    }
+
+    /**
+     * Move dead letters back to the retry queue, due now and with a fresh set of attempts.
+     * Selects the given ids, else every dead letter with the given error code, else all.
+     */
+    public int replay(List<String> ids, Integer errorCode) {
+        List<DeadLetterMessage> selected;
+        if (ids != null && !ids.isEmpty()) {
+            selected = deadLetters.findAllById(ids);
+        } else if (errorCode != null) {
+            selected = deadLetters.findByErrorCode(errorCode);
+        } else {
+            selected = deadLetters.findAll();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RetryMessage> replayed = selected.stream().map(deadLetter -> {
+            RetryMessage message = new RetryMessage();
+            message.setRecipient(deadLetter.getRecipient());
+            message.setPhoneNumberId(deadLetter.getPhoneNumberId());
+            message.setPriority(deadLetter.getPriority());
+            message.setPayload(deadLetter.getPayload());
+            message.setAttempts(0);
+            message.setErrorCode(deadLetter.getErrorCode());
+            message.setError(deadLetter.getError());
+            message.setNextAttemptAt(now);
+            message.setCreatedAt(deadLetter.getCreatedAt());
+            message.setUpdatedAt(now);
+            return message;
+        }).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            retryQueue.saveAll(replayed);
+            deadLetters.deleteAll(selected);
+        });
+        meterRegistry.counter("whatsapp.retry", "outcome", "replayed").increment(replayed.size());
+        log.info("Replaying {} dead-lettered WhatsApp messages", replayed.size());
+        return replayed.size();
+    }
+
+    public boolean deleteDeadLetter(String id) {
+        if (!deadLetters.existsById(id)) {
+            return false;
+        }
+        deadLetters.deleteById(id);
+        return true;
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Mark the campaign recipient a retried message was sent for as sent or failed, once
+     */
+    private void settleCampaignRecipient(RetryMessage message, MessageResponse result) {
+        if (message.getCampaignRecipientId() == null) {
+            return;
+        }
+        campaignRecipients.findById(message.getCampaignRecipientId()).ifPresent(recipient -> {
+            CampaignRecipient.Status status = result.isSuccess()
+                    ? CampaignRecipient.Status.SENT : CampaignRecipient.Status.FAILED;
+            if (campaignRecipients.updateStatus(recipient.getId(), CampaignRecipient.Status.RETRYING, status,
+                    result.getMessageId(), truncate(result.getError())) == 1) {
+                campaigns.retryResolved(recipient.getCampaignId(), result.isSuccess() ? 1 : 0,
+                        result.isSuccess() ? 0 : 1, LocalDateTime.now());
+            }
+        });
+    }
+
+    private DeadLetterMessage toDeadLetter(RetryMessage message) {
+        DeadLetterMessage deadLetter = new DeadLetterMessage();
+        deadLetter.setRecipient(message.getRecipient());
+        deadLetter.setPhoneNumberId(message.getPhoneNumberId());
+        deadLetter.setPriority(message.getPriority());
+        deadLetter.setPayload(message.getPayload());
+        deadLetter.setAttempts(message.getAttempts());
+        deadLetter.setErrorCode(message.getErrorCode());
+        deadLetter.setError(message.getError());
+        deadLetter.setCreatedAt(message.getCreatedAt());
+        deadLetter.setFailedAt(LocalDateTime.now());
+        return deadLetter;
+    }
+
+    private Duration backoff(int attempt) {
+        WhatsAppConfig.Retry retry = config.getRetry();
+        Duration backoff = retry.getInitialBackoff().multipliedBy(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(retry.getMaxBackoff()) > 0 ? retry.getMaxBackoff() : backoff;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -0,0 +1,227 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.WhatsAppConfig;
+import com.dpl.whatsapp.dto.whatsapp.MessageTemplate;
+import com.dpl.whatsapp.dto.whatsapp.TemplateComponentDto;
+import com.dpl.whatsapp.dto.whatsapp.TemplatePayload;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Local copy of the business accounts' message templates, synced from the Graph API
+ * message_templates endpoint (one copy per business account of the configured numbers).
+ * Template sends are checked here (name, language, status, parameter counts) instead of
+ * failing at Meta, and go out from a pre-built skeleton.
+ * Until the first sync succeeds, sends pass through unchecked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageTemplateRegistry {
+
+    private static final String FIELDS = "name,language,status,category,components";
+
+    private final WhatsAppConfig config;
+    @Qualifier("whatsappWebClient")
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    // Business account id -> its templates
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * Templates of one business account by name|language, replaced as a whole on each sync
+     */
+    private record Account(Map<String, MessageTemplate> templates, Instant syncedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("whatsapp.templates", accounts,
+                loaded -> loaded.values().stream().mapToInt(account -> account.templates().size()).sum());
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.api.templates.refresh-interval:PT15M}")
+    public synchronized void refresh() {
+        if (!config.getTemplates().isEnabled()) {
+            return;
+        }
+
+        // Numbers of one business account share its templates
+        Map<String, WhatsAppConfig.BusinessNumber> byAccount = new LinkedHashMap<>();
+        List<String> orgIds = new ArrayList<>(config.getOrgs().keySet());
+        orgIds.add(0, null);
+        for (String orgId : orgIds) {
+            WhatsAppConfig.BusinessNumber number = config.getNumber(orgId);
+            if (number.getBusinessAccountId() != null && !number.getBusinessAccountId().isBlank()) {
+                byAccount.putIfAbsent(number.getBusinessAccountId(), number);
+            }
+        }
+        byAccount.values().forEach(this::refresh);
+    }
+
+    private void refresh(WhatsAppConfig.BusinessNumber number) {
+        WhatsAppConfig.Templates settings = config.getTemplates();
+        String accountId = number.getBusinessAccountId();
+        try {
+            Map<String, MessageTemplate> loaded = new HashMap<>();
+            URI next = URI.create(config.getMessageTemplatesUrl(accountId) + "?fields=" + FIELDS
+                    + "&limit=" + settings.getPageSize());
+            while (next != null) {
+                JsonNode page = webClient.get()
+                        .uri(next)
+                        .header("Authorization", "Bearer " + number.getAccessToken())
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .block();
+                if (page == null) {
+                    break;
+                }
+                for (JsonNode node : page.path("data")) {
+                    MessageTemplate template = compile(node);
+                    loaded.put(key(template.getName(), template.getLanguage()), template);
+                }
+                String nextLink = page.path("paging").path("next").asText(null);
+                next = nextLink != null ? URI.create(nextLink) : null;
+            }
+
+            accounts.put(accountId, new Account(Map.copyOf(loaded), Instant.now()));
+            log.info("Template registry synced for business account {}: {} templates, {} approved", accountId,
+                    loaded.size(), loaded.values().stream().filter(MessageTemplate::isApproved).count());
+        } catch (RuntimeException e) {
+            meterRegistry.counter("whatsapp.templates.sync.failures").increment();
+            Account known = accounts.get(accountId);
+            log.warn("Template sync for business account {} failed, keeping {} known templates: {}", accountId,
+                    known != null ? known.templates().size() : 0, e.getMessage());
+        }
+    }
+
+    /**
+     * Templates of the current org's business account, or null until they are synced
+     */
+    private Map<String, MessageTemplate> current() {
+        String accountId = config.getNumber(CrmOrgContext.current()).getBusinessAccountId();
+        Account account = accountId != null ? accounts.get(accountId) : null;
+        return account != null ? account.templates() : null;
+    }
+
+    public Optional<MessageTemplate> find(String name, String language) {
+        Map<String, MessageTemplate> templates = current();
+        return templates != null ? Optional.ofNullable(templates.get(key(name, language))) : Optional.empty();
+    }
+
+    /**
+     * Payload for a template send from the current org's number, checked against the registered
+     * template once that business account's templates are loaded
+     *
+     * @throws IllegalArgumentException if the template is unknown, not approved or given the wrong parameters
+     */
+    public TemplatePayload payload(String to, String name, String language, List<TemplateComponentDto> components) {
+        Map<String, MessageTemplate> templates = config.getTemplates().isEnabled() ? current() : null;
+        if (templates == null) {
+            return new TemplatePayload(to, name, language, components);
+        }
+
+        MessageTemplate template = templates.get(key(name, language));
+        if (template == null) {
+            String languages = templates.values().stream()
+                    .filter(candidate -> candidate.getName().equals(name))
+                    .map(MessageTemplate::getLanguage)
+                    .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("Unknown template " + name + " (" + language + ")"
+                    + (languages.isEmpty() ? "" : "; registered languages: " + languages));
+        }
+        return template.payload(to, components);
+    }
+
+    // ==================== COMPILATION ====================
+
+    /**
+     * Slots from the template's components: {{n}} placeholders in a text header or body,
+     * one media parameter for a media header, and parameters per dynamic button
+     */
+    static MessageTemplate compile(JsonNode node) {
+        List<MessageTemplate.Slot> slots = new ArrayList<>();
+        for (JsonNode component : node.path("components")) {
+            String type = component.path("type").asText("").toLowerCase();
+            switch (type) {
+                case "header" -> {
+                    String format = component.path("format").asText("TEXT").toLowerCase();
+                    int count = "text".equals(format) ? placeholders(component.path("text").asText("")) : 1;
+                    if (count > 0) {
+                        slots.add(new MessageTemplate.Slot("header", null, null, format, count, count));
+                    }
+                }
+                case "body" -> {
+                    int count = placeholders(component.path("text").asText(""));
+                    if (count > 0) {
+                        slots.add(new MessageTemplate.Slot("body", null, null, null, count, count));
+                    }
+                }
+                case "buttons" -> {
+                    int index = 0;
+                    for (JsonNode button : component.path("buttons")) {
+                        MessageTemplate.Slot slot = buttonSlot(button, index++);
+                        if (slot != null) {
+                            slots.add(slot);
+                        }
+                    }
+                }
+                default -> {
+                    // footer and others take no parameters
+                }
+            }
+        }
+        return new MessageTemplate(node.path("name").asText(), node.path("language").asText(),
+                node.path("status").asText(), node.path("category").asText(null), slots);
+    }
+
+    private static MessageTemplate.Slot buttonSlot(JsonNode button, int index) {
+        return switch (button.path("type").asText("")) {
+            case "URL" -> placeholders(button.path("url").asText("")) > 0
+                    ? new MessageTemplate.Slot("button", "url", index, null, 1, 1)
+                    : null;
+            case "COPY_CODE" -> new MessageTemplate.Slot("button", "copy_code", index, null, 1, 1);
+            // The reply payload is optional
+            case "QUICK_REPLY" -> new MessageTemplate.Slot("button", "quick_reply", index, null, 0, 1);
+            default -> null;
+        };
+    }
+
+    /**
+     * Number of distinct {{...}} placeholders (positional or named)
+     */
+    static int placeholders(String text) {
+        Set<String> names = new HashSet<>();
+        int from = 0;
+        while (true) {
+            int open = text.indexOf("{{", from);
+            if (open < 0) {
+                return names.size();
+            }
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) {
+                return names.size();
+            }
+            names.add(text.substring(open + 2, close).trim());
+            from = close + 2;
+        }
+    }
+
+    private static String key(String name, String language) {
+        return name + "|" + language;
+    }
+}
@@ -0,0 +1,138 @@
+package com.dpl.whatsapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precompiled message text with named placeholders, e.g.
+ * {@code Dear {customerName}, your order {orderNumber} of ₹{totalAmount:amount} is confirmed}.
+ * The text is parsed once into literals and parameter slots; rendering only appends the
+ * values to a pre-sized builder. Placeholders name the message's parameters, so translations
+ * may reorder them; {@code :amount} formats a number with two decimals (like {@code %.2f}).
+ */
+public final class MessageText {
+
+    private final String key;
+    // Alternating literals and parameter slots: literal, param, literal, ...
+    private final String[] literals;
+    private final int[] params;
+    private final boolean[] amounts;
+    private final int parameterCount;
+    private final int estimatedLength;
+
+    private MessageText(String key, String template, List<String> parameters) {
+        List<String> literalParts = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Boolean> amountFlags = new ArrayList<>();
+
+        int pos = 0;
+        int literalLength = 0;
+        while (true) {
+            int open = template.indexOf('{', pos);
+            if (open < 0) {
+                literalParts.add(template.substring(pos));
+                literalLength += template.length() - pos;
+                break;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in message " + key + ": " + template);
+            }
+            literalParts.add(template.substring(pos, open));
+            literalLength += open - pos;
+
+            String param = template.substring(open + 1, close).trim();
+            int colon = param.indexOf(':');
+            String name = colon < 0 ? param : param.substring(0, colon);
+            String format = colon < 0 ? null : param.substring(colon + 1);
+            int index = parameters.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Message " + key + " has no parameter {" + name
+                        + "}; parameters are " + parameters);
+            }
+            if (format != null && !"amount".equals(format)) {
+                throw new IllegalArgumentException("Message " + key + " uses unknown format :" + format);
+            }
+            indexes.add(index);
+            amountFlags.add(format != null);
+            pos = close + 1;
+        }
+
+        this.key = key;
+        this.literals = literalParts.toArray(new String[0]);
+        this.params = indexes.stream().mapToInt(Integer::intValue).toArray();
+        this.amounts = new boolean[amountFlags.size()];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = amountFlags.get(i);
+        }
+        this.parameterCount = parameters.size();
+        this.estimatedLength = literalLength + 24 * params.length;
+    }
+
+    /**
+     * Compile {@code template} for a message taking {@code parameters} (in call order)
+     *
+     * @throws IllegalArgumentException if a placeholder is not one of the parameters
+     */
+    public static MessageText compile(String key, String template, List<String> parameters) {
+        return new MessageText(key, template, parameters);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Render with parameter values in declaration order
+     */
+    public String render(Object... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Message " + key + " expects " + parameterCount
+                    + " parameters, got " + Arrays.toString(values));
+        }
+        if (params.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder text = new StringBuilder(estimatedLength);
+        for (int i = 0; i < params.length; i++) {
+            text.append(literals[i]);
+            Object value = values[params[i]];
+            if (amounts[i] && value instanceof Number number) {
+                appendAmount(number.doubleValue(), text);
+            } else {
+                text.append(value);
+            }
+        }
+        return text.append(literals[literals.length - 1]).toString();
+    }
+
+    /**
+     * Two decimals, half-up, no grouping: the same digits as {@code String.format("%.2f", value)}
+     */
+    private static void appendAmount(double value, StringBuilder text) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            text.append(value);
+            return;
+        }
+        long cents = Math.round(value * 100);
+        // Exact for amounts well below 2^53 cents; beyond that (or on a rounding tie) defer to BigDecimal
+        if (Math.abs(value) < 1e13 && (double) cents / 100 == value) {
+            if (cents < 0) {
+                text.append('-');
+                cents = -cents;
+            }
+            text.append(cents / 100).append('.');
+            long fraction = cents % 100;
+            if (fraction < 10) {
+                text.append('0');
+            }
+            text.append(fraction);
+        } else {
+            text.append(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.dpl.whatsapp.config.N8nConfig;
 import com.dpl.whatsapp.entity.ChatSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ import java.util.Map;
 public class N8nWebhookService {
 
     private final N8nConfig config;
+    @Qualifier("n8nWebClient")
     private final WebClient webClient;
 
     /**
@@ -0,0 +1,18 @@
+package com.dpl.whatsapp.service;
+
+import lombok.Value;
+
+/**
+ * One entry of a change tracking (delta) response: either a new/changed record,
+ * or the id of a record reported as a $deletedEntity
+ */
+@Value
+public class ODataChange<T> {
+
+    T record;
+    String removedId;
+
+    public boolean isRemoved() {
+        return removedId != null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.dpl.whatsapp.service;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of an OData collection response decoded into typed records
+ */
+@Value
+public class ODataPage<T> {
+
+    List<T> value;
+    String nextLink;
+    String deltaLink;
+}
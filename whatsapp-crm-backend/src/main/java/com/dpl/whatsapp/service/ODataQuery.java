@@ -0,0 +1,173 @@
+package com.dpl.whatsapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Precompiled OData query shape, e.g.
+ * {@code contacts?$filter=contains(telephone1,{phone})&$top=1} or {@code quotes({quoteId:guid})?$select=name}.
+ * The template is parsed and percent-encoded once; each bind only escapes and encodes the
+ * parameter values. Plain parameters are bound as OData string literals (quotes doubled),
+ * {@code :guid} parameters are validated and bound unquoted. Built URIs are cached per
+ * parameter set, and the fingerprint identifies the shape for metrics and cache keys.
+ */
+public final class ODataQuery {
+
+    private static final Pattern GUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String name;
+    private final String fingerprint;
+    // Alternating encoded literals and parameter slots: literal, param, literal, ...
+    private final String[] literals;
+    private final String[] paramNames;
+    private final boolean[] guidParams;
+    private final int estimatedLength;
+    private final Cache<List<Object>, URI> uris = Caffeine.newBuilder().maximumSize(1_000).build();
+
+    private ODataQuery(String name, String template) {
+        List<String> literalParts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Boolean> guids = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int open = template.indexOf('{', pos);
+            if (open < 0) {
+                literalParts.add(encodeLiteral(template.substring(pos)));
+                break;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed parameter in OData template: " + template);
+            }
+            literalParts.add(encodeLiteral(template.substring(pos, open)));
+
+            String param = template.substring(open + 1, close);
+            int colon = param.indexOf(':');
+            names.add(colon < 0 ? param : param.substring(0, colon));
+            guids.add(colon >= 0 && "guid".equals(param.substring(colon + 1)));
+            pos = close + 1;
+        }
+
+        this.name = name;
+        this.literals = literalParts.toArray(new String[0]);
+        this.paramNames = names.toArray(new String[0]);
+        this.guidParams = new boolean[guids.size()];
+        for (int i = 0; i < guidParams.length; i++) {
+            guidParams[i] = guids.get(i);
+        }
+        this.estimatedLength = template.length() + 64 * paramNames.length;
+
+        CRC32 crc = new CRC32();
+        crc.update(template.getBytes(StandardCharsets.UTF_8));
+        this.fingerprint = name + "-" + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Compile a query template relative to the Web API root (entity set + query options)
+     */
+    public static ODataQuery compile(String name, String template) {
+        return new ODataQuery(name, template);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Bind parameter values in template order and build the absolute request URI
+     */
+    public URI bind(String apiUrl, Object... values) {
+        if (values.length != paramNames.length) {
+            throw new IllegalArgumentException("Query " + name + " expects parameters " + Arrays.toString(paramNames));
+        }
+
+        List<Object> key = new ArrayList<>(values.length + 1);
+        key.add(apiUrl);
+        key.addAll(Arrays.asList(values));
+        return uris.get(key, k -> build(apiUrl, values));
+    }
+
+    private URI build(String apiUrl, Object[] values) {
+        StringBuilder url = new StringBuilder(apiUrl.length() + 1 + estimatedLength);
+        url.append(apiUrl).append('/');
+        for (int i = 0; i < paramNames.length; i++) {
+            url.append(literals[i]);
+            String value = String.valueOf(values[i]);
+            if (guidParams[i]) {
+                if (!GUID.matcher(value).matches()) {
+                    throw new IllegalArgumentException("Parameter " + paramNames[i] + " of " + name + " is not a GUID: " + value);
+                }
+                url.append(value);
+            } else {
+                url.append("%27");
+                encodeValue(value.replace("'", "''"), url);
+                url.append("%27");
+            }
+        }
+        url.append(literals[literals.length - 1]);
+        return URI.create(url.toString());
+    }
+
+    // ==================== ENCODING ====================
+
+    /**
+     * Template literals keep URI structure ($ & = ? / ( ) , ') and encode everything else
+     */
+    private static String encodeLiteral(String literal) {
+        StringBuilder out = new StringBuilder(literal.length() + 16);
+        byte[] bytes = literal.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            char c = (char) (b & 0xFF);
+            if (isUnreserved(c) || "$&=?/(),':@".indexOf(c) >= 0) {
+                out.append(c);
+            } else {
+                appendEscaped(b, out);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Parameter values encode everything except unreserved characters
+     */
+    private static void encodeValue(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80 && isUnreserved(c)) {
+                out.append(c);
+            } else if (c < 0x80) {
+                appendEscaped((byte) c, out);
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendEscaped(b, out);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static void appendEscaped(byte b, StringBuilder out) {
+        out.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+    }
+}
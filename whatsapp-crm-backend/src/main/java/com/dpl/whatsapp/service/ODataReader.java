@@ -0,0 +1,336 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.dto.crm.ComplaintDto;
+import com.dpl.whatsapp.dto.crm.CustomerDto;
+import com.dpl.whatsapp.dto.crm.QuoteDto;
+import com.dpl.whatsapp.dto.crm.SalesOrderDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming decoders for Dataverse Web API responses.
+ * Records are read field by field from the parser straight into DTOs, without
+ * building an intermediate String or JsonNode tree. OData annotations
+ * (name@odata.*, name@OData.Community.*) and unknown fields are skipped, except
+ * the lookup formatted values that are used as fallbacks.
+ */
+public final class ODataReader {
+
+    private static final String FORMATTED_VALUE = "@OData.Community.Display.V1.FormattedValue";
+    private static final String LOOKUP_LOGICAL_NAME = "@Microsoft.Dynamics.CRM.lookuplogicalname";
+
+    private ODataReader() {
+    }
+
+    /**
+     * Reads a single record from the current token of the parser
+     */
+    @FunctionalInterface
+    public interface RecordReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    // ==================== COLLECTIONS ====================
+
+    /**
+     * Read an OData collection response ({"@odata.context":..., "value":[...], "@odata.nextLink":...})
+     */
+    public static <T> ODataPage<T> readPage(JsonParser parser, RecordReader<T> reader) throws IOException {
+        List<T> records = Collections.emptyList();
+        String nextLink = null;
+        String deltaLink = null;
+
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "value":
+                    records = readArray(parser, reader);
+                    break;
+                case "@odata.nextLink":
+                    nextLink = text(parser);
+                    break;
+                case "@odata.deltaLink":
+                    deltaLink = text(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new ODataPage<>(records, nextLink, deltaLink);
+    }
+
+    public static <T> List<T> readArray(JsonParser parser, RecordReader<T> reader) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        List<T> records = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            records.add(reader.read(parser));
+        }
+        return records;
+    }
+
+    // ==================== RECORD READERS ====================
+
+    /**
+     * Read a contact with its expanded parentcustomerid_account into a CustomerDto
+     */
+    public static CustomerDto readContactCustomer(JsonParser parser) throws IOException {
+        return readContact(parser, new String[1]);
+    }
+
+    /**
+     * Read a contact change tracking entry: a changed contact, or a
+     * {"@odata.context":"...$deletedEntity","id":...,"reason":"deleted"} tombstone
+     */
+    public static ODataChange<CustomerDto> readContactChange(JsonParser parser) throws IOException {
+        String[] removedId = new String[1];
+        CustomerDto customer = readContact(parser, removedId);
+        if (customer.getContactId() == null && removedId[0] != null) {
+            return new ODataChange<>(null, removedId[0]);
+        }
+        return new ODataChange<>(customer, null);
+    }
+
+    private static CustomerDto readContact(JsonParser parser, String[] removedId) throws IOException {
+        CustomerDto customer = new CustomerDto();
+        String lookupId = null;
+        String lookupName = null;
+        String lookupTable = null;
+
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "contactid": customer.setContactId(text(parser)); break;
+                case "firstname": customer.setFirstName(text(parser)); break;
+                case "lastname": customer.setLastName(text(parser)); break;
+                case "telephone1": customer.setPhone(text(parser)); break;
+                case "mobilephone": customer.setMobile(text(parser)); break;
+                case "emailaddress1": customer.setEmail(text(parser)); break;
+                case "parentcustomerid_account": readAccountInto(parser, customer); break;
+                case "_parentcustomerid_value": lookupId = text(parser); break;
+                case "_parentcustomerid_value" + FORMATTED_VALUE: lookupName = text(parser); break;
+                case "_parentcustomerid_value" + LOOKUP_LOGICAL_NAME: lookupTable = text(parser); break;
+                case "id": removedId[0] = text(parser); break;
+                default: parser.skipChildren();
+            }
+        }
+
+        // Lookup value without $expand (e.g. change tracking responses); parentcustomerid can also be a contact
+        if (customer.getAccountId() == null && lookupId != null && "account".equals(lookupTable)) {
+            customer.setAccountId(lookupId);
+            customer.setAccountName(lookupName);
+        }
+        return customer;
+    }
+
+    /**
+     * Read an account with its expanded contact_customer_accounts into a CustomerDto,
+     * using the first contact as the primary contact
+     */
+    public static CustomerDto readAccountCustomer(JsonParser parser) throws IOException {
+        CustomerDto customer = new CustomerDto();
+
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "accountid": customer.setAccountId(text(parser)); break;
+                case "name": customer.setAccountName(text(parser)); break;
+                case "accountnumber": customer.setAccountNumber(text(parser)); break;
+                case "contact_customer_accounts": readPrimaryContactInto(parser, customer); break;
+                default: parser.skipChildren();
+            }
+        }
+        return customer;
+    }
+
+    public static QuoteDto readQuote(JsonParser parser) throws IOException {
+        QuoteDto dto = new QuoteDto();
+
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "quoteid": dto.setQuoteId(text(parser)); break;
+                case "quotenumber": dto.setQuoteNumber(text(parser)); break;
+                case "name": dto.setName(text(parser)); break;
+                case "totalamount": dto.setTotalAmount(parser.getValueAsDouble()); break;
+                case "statecode": dto.setStateCode(parser.getValueAsInt()); break;
+                case "statuscode": dto.setStatusCode(parser.getValueAsInt()); break;
+                case "customerid_account": dto.setCustomerName(readNestedText(parser, "name")); break;
+                default: parser.skipChildren();
+            }
+        }
+        return dto;
+    }
+
+    public static ComplaintDto readComplaint(JsonParser parser) throws IOException {
+        ComplaintDto dto = new ComplaintDto();
+
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "incidentid": dto.setComplaintId(text(parser)); break;
+                case "title": dto.setTitle(text(parser)); break;
+                case "description": dto.setDescription(text(parser)); break;
+                case "statecode": dto.setStateCode(parser.getValueAsInt()); break;
+                case "statuscode": dto.setStatusCode(parser.getValueAsInt()); break;
+                default: parser.skipChildren();
+            }
+        }
+        return dto;
+    }
+
+    public static SalesOrderDto readSalesOrder(JsonParser parser) throws IOException {
+        SalesOrderDto dto = new SalesOrderDto();
+
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "salesorderid": dto.setOrderId(text(parser)); break;
+                case "ordernumber": dto.setOrderNumber(text(parser)); break;
+                case "name": dto.setName(text(parser)); break;
+                case "totalamount": dto.setTotalAmount(parser.getValueAsDouble()); break;
+                case "requestdeliveryby": dto.setRequestDeliveryBy(text(parser)); break;
+                default: parser.skipChildren();
+            }
+        }
+        return dto;
+    }
+
+    // ==================== NESTED $expand OBJECTS ====================
+
+    private static void readAccountInto(JsonParser parser, CustomerDto customer) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "accountid": customer.setAccountId(text(parser)); break;
+                case "name": customer.setAccountName(text(parser)); break;
+                case "accountnumber": customer.setAccountNumber(text(parser)); break;
+                default: parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readPrimaryContactInto(JsonParser parser, CustomerDto customer) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        boolean first = true;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            if (!first) {
+                parser.skipChildren();
+                continue;
+            }
+            first = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "contactid": customer.setContactId(text(parser)); break;
+                    case "firstname": customer.setFirstName(text(parser)); break;
+                    case "lastname": customer.setLastName(text(parser)); break;
+                    case "telephone1": customer.setPhone(text(parser)); break;
+                    case "mobilephone": customer.setMobile(text(parser)); break;
+                    case "emailaddress1": customer.setEmail(text(parser)); break;
+                    default: parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the scalar columns of any record by name (annotations included). The columns of an
+     * expanded single-valued navigation property are read as "navigation/column"; other nested
+     * values are skipped.
+     */
+    public static Map<String, String> readFields(JsonParser parser) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String column = parser.currentName();
+                    parser.nextToken();
+                    String value = text(parser);
+                    if (value != null) {
+                        fields.put(field + '/' + column, value);
+                    }
+                }
+                continue;
+            }
+            String value = text(parser);
+            if (value != null) {
+                fields.put(field, value);
+            }
+        }
+        return fields;
+    }
+
+    private static String readNestedText(JsonParser parser, String wanted) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (wanted.equals(field)) {
+                result = text(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Scalar value as text; null for JSON null, objects and arrays
+     */
+    public static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        if (parser.currentToken() != expected) {
+            throw new IOException("Unexpected token " + parser.currentToken() + ", expected " + expected);
+        }
+    }
+}
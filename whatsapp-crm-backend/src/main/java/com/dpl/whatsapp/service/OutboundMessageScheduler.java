@@ -0,0 +1,608 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.WhatsAppConfig;
+import com.dpl.whatsapp.dto.whatsapp.MessageResponse;
+import com.dpl.whatsapp.dto.whatsapp.MessageBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Send queue in front of the Cloud API messages endpoint.
+ * Each business number has a token bucket at the throughput of its messaging tier and
+ * each recipient a smaller bucket for the pair rate limit. Messages to one recipient
+ * are sent in order, one at a time. Sends rejected with 130429 (throughput) or
+ * 131056 (pair rate) are re-queued with exponential backoff.
+ * Each {@link OutboundPriority} has its own ready queues, one per business number, and
+ * only numbers with throughput left are served, so a throttled number does not hold up
+ * the others. While several priorities have messages waiting, the throughput is shared
+ * by weight (smooth weighted round-robin), so interactive replies overtake a campaign
+ * without starving it.
+ * A recipient's lane waits in the queue of its most urgent message, so a reply is not
+ * held up behind a campaign message queued to the same customer before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboundMessageScheduler {
+
+    private final WhatsAppConfig config;
+    @Qualifier("whatsappWebClient")
+    private final WebClient webClient;
+    private final WhatsAppPayloadCodec codec;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Indexed by OutboundPriority ordinal
+    private final Band[] bands = new Band[OutboundPriority.values().length];
+    // Lanes with queued or in-flight messages, by phone number id + recipient
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> senders = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Cache<String, TokenBucket> recipients;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    /**
+     * Ready lanes of one priority, by phone number id, and their share of the throughput
+     */
+    static class Band {
+        final OutboundPriority priority;
+        final Map<String, DelayQueue<Lane>> ready = new ConcurrentHashMap<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final int weight;
+        final Timer queueWait;
+        // Smooth weighted round-robin state, dispatcher thread only
+        long credit;
+        boolean eligible;
+        // The ready queue to take the next lane from, set by select
+        DelayQueue<Lane> next;
+
+        Band(OutboundPriority priority, int weight, Timer queueWait) {
+            this.priority = priority;
+            this.weight = weight;
+            this.queueWait = queueWait;
+        }
+
+        DelayQueue<Lane> ready(String phoneNumberId) {
+            return ready.computeIfAbsent(phoneNumberId, id -> new DelayQueue<>());
+        }
+    }
+
+    // OutboundMessage states
+    private static final int QUEUED = 0;
+    private static final int POSTED = 1;
+    private static final int EXPIRED = 2;
+
+    static class OutboundMessage {
+        final MessageBody payload;
+        final Band band;
+        final CompletableFuture<MessageResponse> result = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+        final long deadline;
+        // QUEUED until the dispatcher posts it or the send timeout drops it, whichever comes first;
+        // back to QUEUED when a rate-limited send is re-queued
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        int attempts;
+
+        OutboundMessage(MessageBody payload, Band band, long deadline) {
+            this.payload = payload;
+            this.band = band;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * FIFO of messages to one recipient from one business number, whatever their priority
+     */
+    static class Lane implements Delayed {
+        final String key;
+        final WhatsAppConfig.BusinessNumber number;
+        final String phoneNumberId;
+        final String recipient;
+        final ArrayDeque<OutboundMessage> messages = new ArrayDeque<>();
+        // Queued messages by OutboundPriority ordinal
+        final int[] queued = new int[OutboundPriority.values().length];
+        // The band the lane is (or was last) ready in
+        Band band;
+        long readyAt;
+        long order;
+        boolean scheduled;
+        boolean inFlight;
+        // Removed from the lane map; enqueue must create a new lane
+        boolean closed;
+
+        Lane(String key, WhatsAppConfig.BusinessNumber number, String recipient) {
+            this.key = key;
+            this.number = number;
+            this.phoneNumberId = number.getPhoneNumberId();
+            this.recipient = recipient;
+        }
+
+        void add(OutboundMessage message) {
+            messages.add(message);
+            queued[message.band.priority.ordinal()]++;
+        }
+
+        OutboundMessage poll() {
+            OutboundMessage message = messages.poll();
+            queued[message.band.priority.ordinal()]--;
+            message.band.queued.decrementAndGet();
+            return message;
+        }
+
+        /**
+         * Priority of the most urgent queued message; the lane's head goes out at that priority
+         */
+        OutboundPriority urgency() {
+            for (OutboundPriority priority : OutboundPriority.values()) {
+                if (queued[priority.ordinal()] > 0) {
+                    return priority;
+                }
+            }
+            return OutboundPriority.MARKETING;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Lane lane = (Lane) other;
+            int byTime = Long.compare(readyAt - lane.readyAt, 0);
+            return byTime != 0 ? byTime : Long.compare(order, lane.order);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        WhatsAppConfig.Outbound outbound = config.getOutbound();
+        // A bucket left alone for this long is full again and can be dropped
+        Duration idle = outbound.getRecipientInterval().multipliedBy(Math.max(1, outbound.getRecipientBurst()));
+        recipients = Caffeine.newBuilder().expireAfterAccess(idle).build();
+
+        for (OutboundPriority priority : OutboundPriority.values()) {
+            Tags tags = Tags.of("priority", priority.name().toLowerCase());
+            int weight = Math.max(1, outbound.getWeights().getOrDefault(priority, 1));
+            Band band = new Band(priority, weight, meterRegistry.timer("whatsapp.outbound.queue.wait", tags));
+            meterRegistry.gauge("whatsapp.outbound.queue.depth", tags, band.queued);
+            bands[priority.ordinal()] = band;
+        }
+        meterRegistry.gauge("whatsapp.outbound.lanes", lanes, Map::size);
+
+        running = true;
+        dispatcher = new Thread(this::dispatch, "whatsapp-outbound");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+    }
+
+    /**
+     * Queue a message payload for the current org's business number and wait until it is sent
+     */
+    public MessageResponse send(MessageBody payload) {
+        return sendAsync(payload).join();
+    }
+
+    /**
+     * Queue a message payload for the current org's business number, at the current thread's priority
+     */
+    public CompletableFuture<MessageResponse> sendAsync(MessageBody payload) {
+        return sendAsync(config.getNumber(CrmOrgContext.current()), payload, OutboundPriority.current());
+    }
+
+    /**
+     * Queue a message payload to be sent from {@code number}.
+     * Messages to one recipient are sent in the order they were queued, whatever their priority,
+     * each as soon as the previous one is accepted, so callers can queue several parts without waiting in
+     * between. The future completes with the send result (never exceptionally). A message still
+     * queued after the send timeout is dropped and reported as a retryable failure; one already
+     * posted is waited for, since it may have been delivered.
+     */
+    public CompletableFuture<MessageResponse> sendAsync(WhatsAppConfig.BusinessNumber number, MessageBody payload,
+                                                        OutboundPriority priority) {
+        WhatsAppConfig.Outbound outbound = config.getOutbound();
+        if (!outbound.isEnabled()) {
+            return sendNow(number, payload);
+        }
+        Band band = bands[priority.ordinal()];
+        if (band.queued.get() >= outbound.getMaxQueueSize()) {
+            sent(band, "rejected").increment();
+            return CompletableFuture.completedFuture(MessageResponse.failure("Outbound queue is full", null, true));
+        }
+
+        long timeout = outbound.getSendTimeout().toNanos();
+        OutboundMessage message = enqueue(number, payload.getTo(), band, payload, System.nanoTime() + timeout);
+        CompletableFuture.delayedExecutor(timeout, TimeUnit.NANOSECONDS).execute(() -> expire(message));
+        return message.result;
+    }
+
+    /**
+     * Drop a message that has not been posted yet; the dispatcher skips it when it reaches the lane head
+     */
+    private boolean expire(OutboundMessage message) {
+        if (!message.state.compareAndSet(QUEUED, EXPIRED)) {
+            return false;
+        }
+        sent(message.band, "timeout").increment();
+        message.result.complete(MessageResponse.failure("Timed out waiting in the outbound queue", null, true));
+        return true;
+    }
+
+    private OutboundMessage enqueue(WhatsAppConfig.BusinessNumber number, String recipient, Band band,
+                                    MessageBody payload, long deadline) {
+        OutboundMessage message = new OutboundMessage(payload, band, deadline);
+        band.queued.incrementAndGet();
+        String key = number.getPhoneNumberId() + ":" + recipient;
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(key, k -> new Lane(k, number, recipient));
+            synchronized (lane) {
+                if (!lane.closed) {
+                    lane.add(message);
+                    if (lane.scheduled && band.priority.compareTo(lane.band.priority) < 0) {
+                        promote(lane, band);
+                    } else {
+                        schedule(lane, System.nanoTime());
+                    }
+                    return message;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move a ready lane to a more urgent band, keeping its ready time. If the dispatcher has
+     * already taken the lane off its band, it re-queues it by urgency after this send.
+     * Callers hold the lane's lock.
+     */
+    private void promote(Lane lane, Band band) {
+        if (lane.band.ready(lane.phoneNumberId).remove(lane)) {
+            lane.band = band;
+            band.ready(lane.phoneNumberId).add(lane);
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    // ==================== DISPATCH ====================
+
+    private void dispatch() {
+        while (running) {
+            long now = System.nanoTime();
+            Band band = select(now);
+            if (band == null) {
+                // Until the next lane is due, or a message is queued
+                LockSupport.parkNanos(this, Math.min(nextDue(now), TimeUnit.SECONDS.toNanos(1)));
+                continue;
+            }
+            Lane lane = band.next.poll();
+            if (lane == null) {
+                continue;
+            }
+
+            try {
+                if (dispatch(lane)) {
+                    charge(band);
+                }
+            } catch (Exception e) {
+                log.error("Outbound dispatch failed for {}", lane.key, e);
+            }
+        }
+    }
+
+    /**
+     * The band to serve next among those with a ready lane on a number with throughput left:
+     * the one with the most credit after adding each band's weight (smooth weighted round-robin)
+     */
+    private Band select(long now) {
+        Band chosen = null;
+        for (Band band : bands) {
+            band.next = null;
+            Lane first = null;
+            for (Map.Entry<String, DelayQueue<Lane>> numberQueue : band.ready.entrySet()) {
+                Lane head = numberQueue.getValue().peek();
+                if (head != null && head.readyAt - now <= 0 && (first == null || head.compareTo(first) < 0)
+                        && sender(numberQueue.getKey()).waitNanos(now) == 0) {
+                    first = head;
+                    band.next = numberQueue.getValue();
+                }
+            }
+            band.eligible = band.next != null;
+            if (!band.eligible) {
+                // An idle band does not save up credit
+                band.credit = 0;
+            } else if (chosen == null || band.credit + band.weight > chosen.credit + chosen.weight) {
+                chosen = band;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Every band that competed earns its weight; the one that sent pays the total
+     */
+    private void charge(Band chosen) {
+        int total = 0;
+        for (Band band : bands) {
+            if (band.eligible) {
+                band.credit += band.weight;
+                total += band.weight;
+            }
+        }
+        chosen.credit -= total;
+    }
+
+    /**
+     * Until the first lane is due and its number has throughput again
+     */
+    private long nextDue(long now) {
+        long next = Long.MAX_VALUE;
+        for (Band band : bands) {
+            for (Map.Entry<String, DelayQueue<Lane>> numberQueue : band.ready.entrySet()) {
+                Lane head = numberQueue.getValue().peek();
+                if (head != null) {
+                    long due = Math.max(head.readyAt - now, sender(numberQueue.getKey()).waitNanos(now));
+                    next = Math.min(next, Math.max(0, due));
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Post the lane's next message if the rate limits allow; false if the lane was empty or
+     * rescheduled. A lane whose number is throttled stays first in its number's queue.
+     */
+    private boolean dispatch(Lane lane) {
+        OutboundMessage message;
+        synchronized (lane) {
+            lane.scheduled = false;
+            long now = System.nanoTime();
+            message = lane.messages.peek();
+            // Timed out, or past its deadline after a rate-limit backoff
+            while (message != null && (message.state.get() == EXPIRED
+                    || (now - message.deadline >= 0 && expire(message)))) {
+                lane.poll();
+                message = lane.messages.peek();
+            }
+            if (message == null) {
+                release(lane);
+                return false;
+            }
+
+            TokenBucket recipient = recipient(lane.key);
+            long recipientWait = recipient.waitNanos(now);
+            if (recipientWait > 0) {
+                lane.readyAt = now + recipientWait;
+                lane.order = sequence.incrementAndGet();
+                lane.scheduled = true;
+                lane.band = bands[lane.urgency().ordinal()];
+                lane.band.ready(lane.phoneNumberId).add(lane);
+                return false;
+            }
+            TokenBucket sender = sender(lane.phoneNumberId);
+            long senderWait = sender.waitNanos(now);
+            if (senderWait > 0) {
+                // Paused by a rate limit since select; same readyAt and order, so back at the head
+                lane.scheduled = true;
+                lane.band = bands[lane.urgency().ordinal()];
+                lane.band.ready(lane.phoneNumberId).add(lane);
+                return false;
+            }
+            if (!message.state.compareAndSet(QUEUED, POSTED)) {
+                // Timed out just now
+                lane.poll();
+                schedule(lane, now);
+                return false;
+            }
+            recipient.take();
+            sender.take();
+            lane.inFlight = true;
+            message.attempts++;
+        }
+
+        post(lane, message);
+        return true;
+    }
+
+    /**
+     * Unqueued, blocking send (queue disabled)
+     */
+    private CompletableFuture<MessageResponse> sendNow(WhatsAppConfig.BusinessNumber number, MessageBody payload) {
+        return exchange(number, payload)
+                .onErrorResume(error -> Mono.just(failure(error)))
+                .toFuture();
+    }
+
+    private void post(Lane lane, OutboundMessage message) {
+        exchange(lane.number, message.payload).subscribe(
+                response -> complete(lane, message, response),
+                error -> failed(lane, message, error));
+    }
+
+    /**
+     * POST a payload streamed into a pooled buffer; the response is decoded for its message id only
+     */
+    private Mono<MessageResponse> exchange(WhatsAppConfig.BusinessNumber number, MessageBody payload) {
+        return webClient.post()
+                .uri(config.getMessagesUrl(number))
+                .header("Authorization", "Bearer " + number.getAccessToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(codec.body(payload))
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(this::toResponse)
+                .defaultIfEmpty(new MessageResponse(true, null, null));
+    }
+
+    private void complete(Lane lane, OutboundMessage message, MessageResponse response) {
+        message.band.queueWait.record(System.nanoTime() - message.enqueuedAt, TimeUnit.NANOSECONDS);
+        sent(message.band, response.isSuccess() ? "success" : "failure").increment();
+        synchronized (lane) {
+            lane.poll();
+            lane.inFlight = false;
+            schedule(lane, System.nanoTime());
+        }
+        message.result.complete(response);
+    }
+
+    private void failed(Lane lane, OutboundMessage message, Throwable error) {
+        int code = errorCode(error);
+        WhatsAppConfig.Outbound outbound = config.getOutbound();
+        boolean rateLimited = code == WhatsAppErrors.THROUGHPUT_LIMIT || code == WhatsAppErrors.PAIR_RATE_LIMIT
+                || (error instanceof WebClientResponseException.TooManyRequests);
+
+        if (!rateLimited || message.attempts >= outbound.getMaxAttempts()) {
+            complete(lane, message, failure(error));
+            return;
+        }
+
+        long backoff = backoff(message.attempts);
+        long now = System.nanoTime();
+        if (code == WhatsAppErrors.PAIR_RATE_LIMIT) {
+            // Only this recipient is over its limit
+            recipient(lane.key).pauseUntil(now + backoff);
+        } else {
+            sender(lane.phoneNumberId).pauseUntil(now + backoff);
+        }
+        meterRegistry.counter("whatsapp.outbound.sent", "outcome", "requeued", "code", String.valueOf(code),
+                "priority", message.band.priority.name().toLowerCase()).increment();
+        log.warn("WhatsApp rate limit {} for {}, retrying in {} ms (attempt {})",
+                code, lane.recipient, TimeUnit.NANOSECONDS.toMillis(backoff), message.attempts);
+
+        synchronized (lane) {
+            // Rejected, so not delivered: the send timeout applies again
+            message.state.set(QUEUED);
+            lane.inFlight = false;
+            schedule(lane, now + backoff);
+        }
+    }
+
+    /**
+     * Put a lane on the ready queue unless it already is, has a message in flight, or is empty.
+     * Callers hold the lane's lock.
+     */
+    private void schedule(Lane lane, long at) {
+        if (lane.scheduled || lane.inFlight) {
+            return;
+        }
+        if (lane.messages.isEmpty()) {
+            release(lane);
+            return;
+        }
+        lane.readyAt = at;
+        lane.order = sequence.incrementAndGet();
+        lane.scheduled = true;
+        lane.band = bands[lane.urgency().ordinal()];
+        lane.band.ready(lane.phoneNumberId).add(lane);
+        LockSupport.unpark(dispatcher);
+    }
+
+    private void release(Lane lane) {
+        if (lane.messages.isEmpty() && !lane.inFlight && !lane.scheduled) {
+            lane.closed = true;
+            lanes.remove(lane.key, lane);
+        }
+    }
+
+    private TokenBucket recipient(String recipientKey) {
+        WhatsAppConfig.Outbound outbound = config.getOutbound();
+        return recipients.get(recipientKey, key -> new TokenBucket(outbound.getRecipientBurst(),
+                1_000_000_000d / outbound.getRecipientInterval().toNanos()));
+    }
+
+    private TokenBucket sender(String phoneNumberId) {
+        return senders.computeIfAbsent(phoneNumberId, id -> {
+            double rate = config.getOutbound().getMessagesPerSecondByNumber()
+                    .getOrDefault(id, config.getOutbound().getMessagesPerSecond());
+            return new TokenBucket(rate, rate);
+        });
+    }
+
+    private Counter sent(Band band, String outcome) {
+        return meterRegistry.counter("whatsapp.outbound.sent", "outcome", outcome,
+                "priority", band.priority.name().toLowerCase());
+    }
+
+    private long backoff(int attempt) {
+        WhatsAppConfig.Outbound outbound = config.getOutbound();
+        long base = outbound.getInitialBackoff().toNanos() << Math.min(attempt - 1, 16);
+        long capped = Math.min(base, outbound.getMaxBackoff().toNanos());
+        return capped + ThreadLocalRandom.current().nextLong(Math.max(1, capped / 5));
+    }
+
+    // ==================== RESPONSES ====================
+
+    private MessageResponse toResponse(DataBuffer response) {
+        MessageResponse result = new MessageResponse();
+        result.setSuccess(true);
+        try {
+            result.setMessageId(codec.readMessageId(response));
+        } catch (Exception e) {
+            log.warn("Unreadable WhatsApp send response: {}", e.getMessage());
+        }
+        log.info("Successfully sent WhatsApp message: {}", result.getMessageId());
+        return result;
+    }
+
+    private MessageResponse failure(Throwable error) {
+        int code = errorCode(error);
+        if (error instanceof WebClientResponseException e) {
+            log.error("WhatsApp API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return MessageResponse.failure(e.getResponseBodyAsString(), code >= 0 ? code : null,
+                    WhatsAppErrors.isRetryable(code, e.getStatusCode().value()));
+        }
+        if (error instanceof ReadTimeoutException || error.getCause() instanceof ReadTimeoutException) {
+            // The request went out but no answer came back: sending it again could deliver it twice
+            log.error("No response to WhatsApp send, outcome unknown");
+            return MessageResponse.failure("No response from WhatsApp; the message may have been delivered", null, false);
+        }
+        log.error("Failed to send WhatsApp message", error);
+        return MessageResponse.failure(error.getMessage(), null, WhatsAppErrors.isRetryable(-1, -1));
+    }
+
+    /**
+     * Graph API error code from {"error":{"code":130429,...}}, or -1
+     */
+    private int errorCode(Throwable error) {
+        if (!(error instanceof WebClientResponseException e)) {
+            return -1;
+        }
+        try {
+            return objectMapper.readTree(e.getResponseBodyAsByteArray()).path("error").path("code").asInt(-1);
+        } catch (Exception ignored) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.dpl.whatsapp.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of outbound WhatsApp messages. Each priority has its own queue in the
+ * {@link OutboundMessageScheduler}, so chatbot replies are not held up behind a campaign.
+ * The priority is taken from the sending thread: set at the entry points (chatbot,
+ * campaigns, bulk notifications); anything else is transactional.
+ */
+public enum OutboundPriority {
+
+    // Replies to a customer who is in a conversation right now
+    INTERACTIVE,
+    // Single notifications triggered by CRM events
+    TRANSACTIONAL,
+    // Greetings, campaigns and other bulk traffic
+    MARKETING;
+
+    private static final ThreadLocal<OutboundPriority> CURRENT = new ThreadLocal<>();
+
+    public static OutboundPriority current() {
+        OutboundPriority priority = CURRENT.get();
+        return priority != null ? priority : TRANSACTIONAL;
+    }
+
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> T call(Supplier<T> task) {
+        try (Scope ignored = open()) {
+            return task.get();
+        }
+    }
+
+    /**
+     * Send at this priority from the current thread until the returned scope is closed
+     */
+    public Scope open() {
+        OutboundPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final OutboundPriority previous;
+
+        private Scope(OutboundPriority previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
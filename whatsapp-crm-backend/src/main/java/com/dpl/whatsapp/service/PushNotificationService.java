@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for sending push notifications (outbound messages) to customers
@@ -18,58 +19,54 @@ import java.util.List;
 public class PushNotificationService {
 
     private final WhatsAppService whatsAppService;
+    private final MessageCatalog messages;
 
     /**
      * Send customer onboarding welcome message
      */
     public MessageResponse sendCustomerOnboardedMessage(String phoneNumber, String customerName, String salesPersonName) {
-        String message = String.format(
-                "🎉 Welcome to DPL, %s!\n\n" +
-                "We're thrilled to have you as our valued customer.\n\n" +
-                "Your Key Account Manager: %s\n\n" +
-                "For any queries, feel free to reach out to us on this WhatsApp number.\n\n" +
-                "Thank you for choosing DPL!",
-                customerName, salesPersonName
-        );
-        
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+        return whatsAppService.sendAsync(customerOnboarded(phoneNumber, customerName, salesPersonName)).join();
+    }
+
+    public WhatsAppPayload customerOnboarded(String phoneNumber, String customerName, String salesPersonName) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.CUSTOMER_ONBOARDED,
+                customerName, salesPersonName);
+
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
-     * Send quotation with accept/reject buttons
+     * Send quotation with accept/reject buttons.
+     * Both messages are queued at once and delivered in order; both results are returned.
      */
-    public MessageResponse sendQuotation(String phoneNumber, String customerName, 
-                                         String quoteNumber, double totalAmount, 
-                                         String pdfUrl, String quoteId) {
-        // First send the document
-        whatsAppService.sendDocument(
-                phoneNumber,
-                pdfUrl,
-                "Quote_" + quoteNumber + ".pdf",
-                String.format("📄 Quotation %s\nTotal Amount: ₹%.2f", quoteNumber, totalAmount)
-        );
+    public CompletableFuture<MultipartMessageResponse> sendQuotation(String phoneNumber, String customerName,
+                                                                     String quoteNumber, double totalAmount,
+                                                                     String pdfUrl, String quoteId) {
+        String language = messages.languageOf(phoneNumber);
 
-        // Then send interactive buttons for response
-        String message = String.format(
-                "Dear %s,\n\n" +
-                "Please find attached quotation %s.\n\n" +
-                "💰 Total Amount: ₹%.2f\n\n" +
-                "Please review and let us know your decision.",
-                customerName, quoteNumber, totalAmount
-        );
+        // Interactive buttons for the response, sent right after the document
+        String message = messages.render(language, MessageKey.QUOTATION, customerName, quoteNumber, totalAmount);
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("quote_accept_" + quoteId, "✅ Accept"),
-                new ButtonDto("quote_reject_" + quoteId, "❌ Decline")
+                new ButtonDto("quote_accept_" + quoteId, messages.render(language, MessageKey.QUOTATION_ACCEPT)),
+                new ButtonDto("quote_reject_" + quoteId, messages.render(language, MessageKey.QUOTATION_DECLINE))
         );
 
-        return whatsAppService.sendButtonMessage(
+        ButtonPayload response = whatsAppService.buttonMessage(
                 phoneNumber,
-                "Quotation " + quoteNumber,
+                messages.render(language, MessageKey.QUOTATION_HEADER, quoteNumber),
                 message,
-                "Tap to respond",
+                messages.render(language, MessageKey.TAP_TO_RESPOND),
                 buttons
         );
+
+        return whatsAppService.sendDocumentAsync(
+                phoneNumber,
+                pdfUrl,
+                "Quote_" + quoteNumber + ".pdf",
+                messages.render(language, MessageKey.QUOTATION_CAPTION, quoteNumber, totalAmount),
+                List.of(response)
+        );
     }
 
     /**
@@ -77,18 +74,15 @@ public class PushNotificationService {
      */
     public MessageResponse sendSalesOrderCreated(String phoneNumber, String customerName, 
                                                  String orderNumber, double totalAmount) {
-        String message = String.format(
-                "✅ Sales Order Created!\n\n" +
-                "Dear %s,\n\n" +
-                "Your order has been confirmed:\n\n" +
-                "📋 Order Number: %s\n" +
-                "💰 Total Amount: ₹%.2f\n\n" +
-                "You will receive updates as your order progresses.\n\n" +
-                "Thank you for your business!",
-                customerName, orderNumber, totalAmount
-        );
+        return whatsAppService.sendAsync(salesOrderCreated(phoneNumber, customerName, orderNumber, totalAmount)).join();
+    }
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+    public WhatsAppPayload salesOrderCreated(String phoneNumber, String customerName, 
+                                             String orderNumber, double totalAmount) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.SALES_ORDER_CREATED,
+                customerName, orderNumber, totalAmount);
+
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
@@ -96,45 +90,37 @@ public class PushNotificationService {
      */
     public MessageResponse sendDoCreated(String phoneNumber, String customerName,
                                          String doNumber, String deliveryDate, double quantity) {
-        String message = String.format(
-                "📦 Delivery Order Created!\n\n" +
-                "Dear %s,\n\n" +
-                "Your delivery has been scheduled:\n\n" +
-                "🔖 DO Number: %s\n" +
-                "📊 Quantity: %.2f MT\n" +
-                "📅 Expected Delivery: %s\n\n" +
-                "You will receive tracking updates closer to the delivery date.",
-                customerName, doNumber, quantity, deliveryDate
-        );
+        return whatsAppService.sendAsync(doCreated(phoneNumber, customerName, doNumber, deliveryDate, quantity)).join();
+    }
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+    public WhatsAppPayload doCreated(String phoneNumber, String customerName,
+                                     String doNumber, String deliveryDate, double quantity) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.DELIVERY_ORDER_CREATED,
+                customerName, doNumber, quantity, deliveryDate);
+
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
-     * Send invoice with tracking link
+     * Send invoice with tracking link.
+     * Both messages are queued at once and delivered in order; both results are returned.
      */
-    public MessageResponse sendInvoice(String phoneNumber, String customerName,
-                                       String invoiceNumber, double amount,
-                                       String pdfUrl, String trackingLink) {
-        // Send invoice PDF
-        whatsAppService.sendDocument(
+    public CompletableFuture<MultipartMessageResponse> sendInvoice(String phoneNumber, String customerName,
+                                                                   String invoiceNumber, double amount,
+                                                                   String pdfUrl, String trackingLink) {
+        String language = messages.languageOf(phoneNumber);
+
+        String message = messages.render(language, MessageKey.INVOICE, customerName, invoiceNumber, amount,
+                trackingLink);
+
+        // Invoice PDF, then the tracking link
+        return whatsAppService.sendDocumentAsync(
                 phoneNumber,
                 pdfUrl,
                 "Invoice_" + invoiceNumber + ".pdf",
-                "📄 Invoice " + invoiceNumber
+                messages.render(language, MessageKey.INVOICE_CAPTION, invoiceNumber),
+                List.of(whatsAppService.textMessage(phoneNumber, message))
         );
-
-        String message = String.format(
-                "📧 Invoice Generated!\n\n" +
-                "Dear %s,\n\n" +
-                "Invoice Number: %s\n" +
-                "Amount: ₹%.2f\n\n" +
-                "🚚 Track your shipment: %s\n\n" +
-                "Thank you!",
-                customerName, invoiceNumber, amount, trackingLink
-        );
-
-        return whatsAppService.sendTextMessage(phoneNumber, message);
     }
 
     /**
@@ -142,18 +128,15 @@ public class PushNotificationService {
      */
     public MessageResponse sendComplaintRegistered(String phoneNumber, String customerName,
                                                    String caseNumber, String issueType) {
-        String message = String.format(
-                "📝 Complaint Registered\n\n" +
-                "Dear %s,\n\n" +
-                "Your complaint has been registered:\n\n" +
-                "🎫 Ticket Number: %s\n" +
-                "📋 Issue Type: %s\n\n" +
-                "Our team is looking into this and will get back to you within 24-48 hours.\n\n" +
-                "Thank you for your patience.",
-                customerName, caseNumber, issueType
-        );
+        return whatsAppService.sendAsync(complaintRegistered(phoneNumber, customerName, caseNumber, issueType)).join();
+    }
+
+    public WhatsAppPayload complaintRegistered(String phoneNumber, String customerName,
+                                               String caseNumber, String issueType) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.COMPLAINT_REGISTERED,
+                customerName, caseNumber, issueType);
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
@@ -161,55 +144,57 @@ public class PushNotificationService {
      */
     public MessageResponse sendComplaintResolved(String phoneNumber, String customerName,
                                                  String caseNumber, String resolution) {
-        String message = String.format(
-                "✅ Complaint Resolved\n\n" +
-                "Dear %s,\n\n" +
-                "Your complaint (Ticket: %s) has been resolved.\n\n" +
-                "Resolution: %s\n\n" +
-                "If you have any further concerns, please don't hesitate to reach out.\n\n" +
-                "Thank you for your understanding.",
-                customerName, caseNumber, resolution
-        );
+        return whatsAppService.sendAsync(complaintResolved(phoneNumber, customerName, caseNumber, resolution)).join();
+    }
+
+    public WhatsAppPayload complaintResolved(String phoneNumber, String customerName,
+                                             String caseNumber, String resolution) {
+        String language = messages.languageOf(phoneNumber);
+        String message = messages.render(language, MessageKey.COMPLAINT_RESOLVED, customerName, caseNumber, resolution);
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("feedback_satisfied", "👍 Satisfied"),
-                new ButtonDto("feedback_not_satisfied", "👎 Not Satisfied")
+                new ButtonDto("feedback_satisfied", messages.render(language, MessageKey.FEEDBACK_SATISFIED)),
+                new ButtonDto("feedback_not_satisfied", messages.render(language, MessageKey.FEEDBACK_NOT_SATISFIED))
         );
 
-        return whatsAppService.sendButtonMessage(
+        return whatsAppService.buttonMessage(
                 phoneNumber,
-                "Complaint Resolved",
+                messages.render(language, MessageKey.COMPLAINT_RESOLVED_HEADER),
                 message,
-                "Rate our service",
+                messages.render(language, MessageKey.COMPLAINT_RESOLVED_FOOTER),
                 buttons
         );
     }
 
     /**
-     * Send birthday greeting
+     * Send birthday greeting (marketing priority, like the bulk greetings)
      */
     public MessageResponse sendBirthdayGreeting(String phoneNumber, String customerName) {
-        String message = String.format(
-                "🎂 Happy Birthday, %s! 🎉\n\n" +
-                "Wishing you a wonderful day filled with joy and happiness.\n\n" +
-                "Best wishes from the DPL Team! 🌟",
-                customerName
-        );
+        return whatsAppService.sendAsync(birthdayGreeting(phoneNumber, customerName), OutboundPriority.MARKETING)
+                .join();
+    }
+
+    public WhatsAppPayload birthdayGreeting(String phoneNumber, String customerName) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.BIRTHDAY, customerName);
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
-     * Send festival greeting
+     * Send festival greeting (marketing priority, like the bulk greetings)
      */
     public MessageResponse sendFestivalGreeting(String phoneNumber, String customerName, 
                                                 String festivalName, String customMessage) {
-        String message = String.format(
-                "🌟 Happy %s, %s! 🌟\n\n%s\n\nWarm wishes from DPL!",
-                festivalName, customerName, customMessage
-        );
+        return whatsAppService.sendAsync(festivalGreeting(phoneNumber, customerName, festivalName, customMessage),
+                OutboundPriority.MARKETING).join();
+    }
+
+    public WhatsAppPayload festivalGreeting(String phoneNumber, String customerName,
+                                            String festivalName, String customMessage) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.FESTIVAL,
+                festivalName, customerName, customMessage);
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
@@ -218,19 +203,17 @@ public class PushNotificationService {
     public MessageResponse sendShipmentPendingReminder(String phoneNumber, String customerName,
                                                        String orderNumber, String lastDate,
                                                        double pendingQty) {
-        String message = String.format(
-                "⚠️ Shipment Reminder\n\n" +
-                "Dear %s,\n\n" +
-                "This is a reminder that your order has pending quantity:\n\n" +
-                "📋 Order: %s\n" +
-                "📊 Pending: %.2f MT\n" +
-                "📅 Last Date: %s\n\n" +
-                "Please arrange for shipment to avoid any delays.\n\n" +
-                "Contact your sales representative for assistance.",
-                customerName, orderNumber, pendingQty, lastDate
-        );
+        return whatsAppService.sendAsync(shipmentPendingReminder(phoneNumber, customerName, orderNumber, lastDate,
+                pendingQty)).join();
+    }
+
+    public WhatsAppPayload shipmentPendingReminder(String phoneNumber, String customerName,
+                                                   String orderNumber, String lastDate,
+                                                   double pendingQty) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.SHIPMENT_REMINDER,
+                customerName, orderNumber, pendingQty, lastDate);
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
@@ -238,25 +221,24 @@ public class PushNotificationService {
      */
     public MessageResponse sendContractExpiryNotification(String phoneNumber, String customerName,
                                                           String contractNumber, String expiryDate) {
-        String message = String.format(
-                "📋 Contract Expiry Notice\n\n" +
-                "Dear %s,\n\n" +
-                "Your contract is expiring soon:\n\n" +
-                "📄 Contract: %s\n" +
-                "📅 Expiry Date: %s\n\n" +
-                "Please contact your Key Account Manager to discuss renewal.\n\n" +
-                "We look forward to continuing our partnership!",
-                customerName, contractNumber, expiryDate
-        );
+        return whatsAppService.sendAsync(contractExpiryNotification(phoneNumber, customerName, contractNumber,
+                expiryDate)).join();
+    }
+
+    public WhatsAppPayload contractExpiryNotification(String phoneNumber, String customerName,
+                                                      String contractNumber, String expiryDate) {
+        String language = messages.languageOf(phoneNumber);
+        String message = messages.render(language, MessageKey.CONTRACT_EXPIRY, customerName, contractNumber,
+                expiryDate);
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("contract_renew", "📝 Request Renewal"),
-                new ButtonDto("contract_discuss", "💬 Discuss Options")
+                new ButtonDto("contract_renew", messages.render(language, MessageKey.CONTRACT_RENEW)),
+                new ButtonDto("contract_discuss", messages.render(language, MessageKey.CONTRACT_DISCUSS))
         );
 
-        return whatsAppService.sendButtonMessage(
+        return whatsAppService.buttonMessage(
                 phoneNumber,
-                "Contract Expiring",
+                messages.render(language, MessageKey.CONTRACT_EXPIRY_HEADER),
                 message,
                 null,
                 buttons
@@ -268,18 +250,16 @@ public class PushNotificationService {
      */
     public MessageResponse sendCreditLimitExceeded(String phoneNumber, String customerName,
                                                    double currentOutstanding, double creditLimit) {
-        String message = String.format(
-                "⚠️ Credit Limit Alert\n\n" +
-                "Dear %s,\n\n" +
-                "Your account has exceeded the credit limit:\n\n" +
-                "💳 Credit Limit: ₹%.2f\n" +
-                "📊 Outstanding: ₹%.2f\n\n" +
-                "Please clear outstanding payments to continue placing orders.\n\n" +
-                "Contact your Account Manager for assistance.",
-                customerName, creditLimit, currentOutstanding
-        );
+        return whatsAppService.sendAsync(creditLimitExceeded(phoneNumber, customerName, currentOutstanding,
+                creditLimit)).join();
+    }
+
+    public WhatsAppPayload creditLimitExceeded(String phoneNumber, String customerName,
+                                               double currentOutstanding, double creditLimit) {
+        String message = messages.render(messages.languageOf(phoneNumber), MessageKey.CREDIT_LIMIT_EXCEEDED,
+                customerName, creditLimit, currentOutstanding);
 
-        return whatsAppService.sendTextMessage(phoneNumber, message);
+        return whatsAppService.textMessage(phoneNumber, message);
     }
 
     /**
@@ -288,25 +268,27 @@ public class PushNotificationService {
     public MessageResponse sendApprovalRequest(String phoneNumber, String approverName,
                                                String requestType, String requestDetails,
                                                String requestId) {
-        String message = String.format(
-                "📋 Approval Required\n\n" +
-                "Dear %s,\n\n" +
-                "A new %s requires your approval:\n\n" +
-                "%s\n\n" +
-                "Please review and take action.",
-                approverName, requestType, requestDetails
-        );
+        return whatsAppService.sendAsync(approvalRequest(phoneNumber, approverName, requestType, requestDetails,
+                requestId)).join();
+    }
+
+    public WhatsAppPayload approvalRequest(String phoneNumber, String approverName,
+                                           String requestType, String requestDetails,
+                                           String requestId) {
+        String language = messages.languageOf(phoneNumber);
+        String message = messages.render(language, MessageKey.APPROVAL_REQUEST, approverName, requestType,
+                requestDetails);
 
         List<ButtonDto> buttons = Arrays.asList(
-                new ButtonDto("approve_" + requestId, "✅ Approve"),
-                new ButtonDto("reject_" + requestId, "❌ Reject")
+                new ButtonDto("approve_" + requestId, messages.render(language, MessageKey.APPROVAL_APPROVE)),
+                new ButtonDto("reject_" + requestId, messages.render(language, MessageKey.APPROVAL_REJECT))
         );
 
-        return whatsAppService.sendButtonMessage(
+        return whatsAppService.buttonMessage(
                 phoneNumber,
-                "Approval Request",
+                messages.render(language, MessageKey.APPROVAL_HEADER),
                 message,
-                "Tap to respond",
+                messages.render(language, MessageKey.TAP_TO_RESPOND),
                 buttons
         );
     }
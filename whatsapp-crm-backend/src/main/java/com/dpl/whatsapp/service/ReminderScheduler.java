@@ -0,0 +1,434 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.Dynamics365Config;
+import com.dpl.whatsapp.config.ReminderConfig;
+import com.dpl.whatsapp.dto.notification.CampaignRecipientDto;
+import com.dpl.whatsapp.dto.notification.CampaignRequestDto;
+import com.dpl.whatsapp.dto.notification.CampaignStatsDto;
+import com.dpl.whatsapp.dto.whatsapp.PhoneNumber;
+import com.dpl.whatsapp.entity.Campaign;
+import com.dpl.whatsapp.entity.ReminderDue;
+import com.dpl.whatsapp.entity.ReminderSyncState;
+import com.dpl.whatsapp.repository.ReminderDueRepository;
+import com.dpl.whatsapp.repository.ReminderSyncStateRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sends birthday greetings, contract-expiry notices and shipment reminders without n8n.
+ * A local due-date index is kept in sync with Dataverse: tables with change tracking are
+ * followed with delta links, the others by querying the upcoming date range. Once a day the
+ * due entries of each type are handed to the campaign engine (rate limited, checkpointed),
+ * each type starting at a random offset. Only the node holding the leader lock syncs or dispatches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderScheduler {
+
+    private static final String SYNC_LOCK = "reminders.sync";
+    private static final String DISPATCH_LOCK = "reminders.dispatch";
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    // Keeps IN lists within database limits
+    private static final int UPDATE_BATCH = 1000;
+
+    private final ReminderConfig config;
+    private final Dynamics365Config dynamicsConfig;
+    private final DataverseService dataverseService;
+    private final CampaignService campaignService;
+    private final ReminderDueRepository dues;
+    private final ReminderSyncStateRepository syncStates;
+    private final LeaderLock leaderLock;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void checkSources() {
+        sources().forEach((kind, source) -> {
+            if (source.getCustomerLookup() != null && source.isChangeTracking()) {
+                // Dataverse does not support $expand on change tracking queries
+                throw new IllegalStateException(kind + " reminders: customer-lookup cannot be used with change-tracking");
+            }
+        });
+    }
+
+    // ==================== SYNC ====================
+
+    @Scheduled(fixedDelayString = "${whatsapp.reminders.sync-interval:PT15M}")
+    public void sync() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        leaderLock.runIfLeader(SYNC_LOCK, config.getLockTtl(), () -> {
+            for (String orgId : dynamicsConfig.getOrgIds()) {
+                CrmOrgContext.run(orgId, () -> sources().forEach((kind, source) -> sync(orgId, kind, source)));
+            }
+        });
+    }
+
+    private void sync(String orgId, Campaign.Type kind, ReminderConfig.Source source) {
+        try {
+            if (source.isChangeTracking()) {
+                syncChanges(orgId, kind, source);
+            } else {
+                syncWindow(orgId, kind, source);
+            }
+        } catch (RuntimeException e) {
+            log.error("Reminder sync of {} for org {} failed", kind, orgId, e);
+        }
+    }
+
+    /**
+     * Full load on the first run, then only the changes since the last delta link
+     */
+    private void syncChanges(String orgId, Campaign.Type kind, ReminderConfig.Source source) {
+        ReminderSyncState state = syncStates.findById(key(orgId, kind, null)).orElseGet(() -> {
+            ReminderSyncState created = new ReminderSyncState();
+            created.setId(key(orgId, kind, null));
+            return created;
+        });
+        String prefer = "odata.track-changes,odata.maxpagesize=" + config.getPageSize();
+        boolean full = state.getDeltaLink() == null;
+        String url = full
+                ? dataverseService.getApiUrl(source.getEntitySet(), "?" + columns(source))
+                : state.getDeltaLink();
+
+        ODataPage<Map<String, String>> page;
+        try {
+            page = dataverseService.getPageByUrl(url, prefer, ODataReader::readFields);
+        } catch (RuntimeException e) {
+            if (!full && DataverseService.isDeltaTokenRejected(e)) {
+                // Expired or invalid delta token: start over from a full load; anything else
+                // (throttling, outages) keeps the token for the next sync
+                log.warn("Reminder delta sync of {} for org {} failed ({}), reloading", kind, orgId, e.getMessage());
+                state.setDeltaLink(null);
+                syncStates.save(state);
+                syncChanges(orgId, kind, source);
+                return;
+            }
+            throw e;
+        }
+
+        Set<String> seen = full ? new HashSet<>() : null;
+        int changes = 0;
+        while (true) {
+            changes += apply(orgId, kind, source, page.getValue(), seen);
+            if (page.getNextLink() == null) {
+                break;
+            }
+            page = dataverseService.getPageByUrl(page.getNextLink(), prefer, ODataReader::readFields);
+        }
+        if (full) {
+            changes += removeUnseen(orgId, kind, seen, null);
+        }
+
+        if (page.getDeltaLink() != null) {
+            state.setDeltaLink(page.getDeltaLink());
+        }
+        state.setSyncedAt(LocalDateTime.now());
+        syncStates.save(state);
+        if (changes > 0) {
+            log.info("Reminder index: {} {} changes for org {}", changes, kind, orgId);
+        }
+    }
+
+    /**
+     * Records whose date falls between today and the day after their reminder goes out
+     */
+    private void syncWindow(String orgId, Campaign.Type kind, ReminderConfig.Source source) {
+        LocalDate today = today();
+        LocalDate until = today.plusDays(source.getLeadDays() + 1L);
+        String filter = "Microsoft.Dynamics.CRM.Between(PropertyName='" + source.getDateField()
+                + "',PropertyValues=[\"" + today + "\",\"" + until + "\"])";
+        if (source.getFilter() != null && !source.getFilter().isBlank()) {
+            filter += " and (" + source.getFilter() + ")";
+        }
+
+        String prefer = "odata.maxpagesize=" + config.getPageSize();
+        ODataPage<Map<String, String>> page = dataverseService.getPageByUrl(
+                dataverseService.getApiUrl(source.getEntitySet(), "?" + columns(source) + "&$filter=" + filter),
+                prefer, ODataReader::readFields);
+
+        Set<String> seen = new HashSet<>();
+        int changes = 0;
+        while (true) {
+            changes += apply(orgId, kind, source, page.getValue(), seen);
+            if (page.getNextLink() == null) {
+                break;
+            }
+            page = dataverseService.getPageByUrl(page.getNextLink(), prefer, ODataReader::readFields);
+        }
+        // Moved out of the window (date changed, record closed) or already past
+        changes += removeUnseen(orgId, kind, seen, today);
+        changes += Objects.requireNonNullElse(transactionTemplate.execute(status -> dues.deletePast(kind, today)), 0);
+        if (changes > 0) {
+            log.info("Reminder index: {} {} changes for org {}", changes, kind, orgId);
+        }
+    }
+
+    private int apply(String orgId, Campaign.Type kind, ReminderConfig.Source source,
+                      List<Map<String, String>> records, Set<String> seen) {
+        Map<String, ReminderDue> existing = new HashMap<>();
+        List<String> ids = records.stream()
+                .map(record -> key(orgId, kind, recordId(source, record)))
+                .toList();
+        dues.findAllById(ids).forEach(due -> existing.put(due.getId(), due));
+
+        List<ReminderDue> save = new ArrayList<>();
+        List<ReminderDue> delete = new ArrayList<>();
+        for (Map<String, String> record : records) {
+            String recordId = recordId(source, record);
+            String id = key(orgId, kind, recordId);
+            ReminderDue due = existing.get(id);
+            String phone = PhoneNumber.canonical(record.get(customerField(source, source.getPhoneField())));
+            LocalDate date = date(record.get(source.getDateField()));
+
+            // $deletedEntity entries only carry the id; records without a usable phone or date drop out
+            if (record.get(source.getIdField()) == null || phone == null || date == null) {
+                if (due != null) {
+                    delete.add(due);
+                }
+                continue;
+            }
+            if (seen != null) {
+                seen.add(id);
+            }
+
+            if (due == null) {
+                due = new ReminderDue();
+                due.setId(id);
+                due.setOrgId(orgId);
+                due.setKind(kind);
+                due.setRecordId(recordId);
+            }
+            due.setPhoneNumber(phone);
+            due.setCustomerName(field(record, customerField(source, source.getNameField())));
+            due.setReference(field(record, source.getReferenceField()));
+            due.setQuantity(quantity(field(record, source.getQuantityField())));
+            due.setDueDate(date);
+            if (kind == Campaign.Type.BIRTHDAY_GREETING) {
+                due.setMonthDay(date.getMonthValue() * 100 + date.getDayOfMonth());
+            } else {
+                due.setNotifyOn(date.minusDays(source.getLeadDays()));
+            }
+            due.setUpdatedAt(LocalDateTime.now());
+            save.add(due);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dues.saveAll(save);
+            dues.deleteAll(delete);
+        });
+        return save.size() + delete.size();
+    }
+
+    /**
+     * Drop entries of a full load or date window that Dataverse no longer returned
+     * (only those due on or after {@code from}, when given)
+     */
+    private int removeUnseen(String orgId, Campaign.Type kind, Set<String> seen, LocalDate from) {
+        List<ReminderDue> stale = dues.findByOrgIdAndKind(orgId, kind).stream()
+                .filter(due -> !seen.contains(due.getId()))
+                .filter(due -> from == null || !due.getDueDate().isBefore(from))
+                .toList();
+        if (!stale.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> dues.deleteAll(stale));
+        }
+        return stale.size();
+    }
+
+    // ==================== DISPATCH ====================
+
+    /**
+     * Hand today's due reminders to the campaign engine, each type after a random delay.
+     * The dispatch lease is left to expire rather than released, so no other node dispatches the same run.
+     */
+    @Scheduled(cron = "${whatsapp.reminders.dispatch-cron:0 0 10 * * *}", zone = "${whatsapp.reminders.zone:Asia/Kolkata}")
+    public void dispatchDue() {
+        if (!config.isEnabled() || !leaderLock.tryAcquire(DISPATCH_LOCK, config.getJitter().plus(config.getLockTtl()))) {
+            return;
+        }
+        for (Campaign.Type kind : sources().keySet()) {
+            long delay = config.getJitter().isZero() ? 0 : ThreadLocalRandom.current().nextLong(config.getJitter().toMillis());
+            taskScheduler.schedule(() -> dispatch(kind), Instant.now().plusMillis(delay));
+            log.info("{} reminders will be dispatched in {}s", kind, delay / 1000);
+        }
+    }
+
+    /**
+     * Start a campaign per org for the entries of one type that are due today, so each org's
+     * reminders go out from its own WhatsApp number
+     */
+    public List<CampaignStatsDto> dispatch(Campaign.Type kind) {
+        LocalDate today = today();
+        List<ReminderDue> due = kind == Campaign.Type.BIRTHDAY_GREETING
+                ? dues.findBirthdays(kind, birthdayKeys(today), today)
+                : dues.findDue(kind, today);
+        if (due.isEmpty()) {
+            log.info("No {} reminders due on {}", kind, today);
+            return List.of();
+        }
+
+        Map<String, List<ReminderDue>> byOrg = due.stream()
+                .collect(Collectors.groupingBy(ReminderDue::getOrgId, LinkedHashMap::new, Collectors.toList()));
+        List<CampaignStatsDto> started = new ArrayList<>();
+        byOrg.forEach((orgId, orgDue) -> {
+            CampaignStatsDto campaign = CrmOrgContext.call(orgId, () -> dispatch(kind, today, orgDue));
+            if (campaign != null) {
+                started.add(campaign);
+            }
+        });
+        return started;
+    }
+
+    private CampaignStatsDto dispatch(Campaign.Type kind, LocalDate today, List<ReminderDue> due) {
+        String orgId = CrmOrgContext.current();
+        CampaignRequestDto request = new CampaignRequestDto();
+        request.setName(kind.name().toLowerCase() + " " + today + (Dynamics365Config.DEFAULT_ORG.equals(orgId) ? "" : " " + orgId));
+        request.setType(kind);
+        request.setMessagesPerSecond(config.getMessagesPerSecond());
+        CampaignStatsDto campaign;
+        try {
+            campaign = campaignService.create(request, due.stream().map(ReminderScheduler::toRecipient).iterator());
+        } catch (RuntimeException e) {
+            log.error("Could not start {} reminders for {} in org {}", kind, today, orgId, e);
+            return null;
+        }
+
+        // The campaign is persisted and resumable from here, so the entries count as notified
+        List<String> ids = due.stream().map(ReminderDue::getId).toList();
+        for (int from = 0; from < ids.size(); from += UPDATE_BATCH) {
+            List<String> batch = ids.subList(from, Math.min(from + UPDATE_BATCH, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                if (kind == Campaign.Type.BIRTHDAY_GREETING) {
+                    dues.markNotified(batch, today);
+                } else {
+                    dues.markDueNotified(batch);
+                }
+            });
+        }
+        log.info("Started campaign {} with {} {} reminders for org {}", campaign.getId(), campaign.getTotal(), kind, orgId);
+        return campaign;
+    }
+
+    private static CampaignRecipientDto toRecipient(ReminderDue due) {
+        CampaignRecipientDto recipient = new CampaignRecipientDto();
+        recipient.setPhoneNumber(due.getPhoneNumber());
+        recipient.setCustomerName(due.getCustomerName() != null ? due.getCustomerName() : "Customer");
+        recipient.setReference(due.getReference());
+        recipient.setDueDate(due.getDueDate().format(DISPLAY_DATE));
+        recipient.setQuantity(due.getQuantity());
+        return recipient;
+    }
+
+    /**
+     * Today's month-day, plus 29 February on the 28th in non-leap years
+     */
+    private static Set<Integer> birthdayKeys(LocalDate today) {
+        Set<Integer> keys = new HashSet<>();
+        keys.add(today.getMonthValue() * 100 + today.getDayOfMonth());
+        if (today.getMonth() == Month.FEBRUARY && today.getDayOfMonth() == 28 && !today.isLeapYear()) {
+            keys.add(229);
+        }
+        return keys;
+    }
+
+    // ==================== HELPERS ====================
+
+    private Map<Campaign.Type, ReminderConfig.Source> sources() {
+        Map<Campaign.Type, ReminderConfig.Source> sources = new EnumMap<>(Campaign.Type.class);
+        if (config.getBirthday().isEnabled()) {
+            sources.put(Campaign.Type.BIRTHDAY_GREETING, config.getBirthday());
+        }
+        if (config.getContractExpiry().isEnabled()) {
+            sources.put(Campaign.Type.CONTRACT_EXPIRY, config.getContractExpiry());
+        }
+        if (config.getShipmentReminder().isEnabled()) {
+            sources.put(Campaign.Type.SHIPMENT_REMINDER, config.getShipmentReminder());
+        }
+        return sources;
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(ZoneId.of(config.getZone()));
+    }
+
+    /**
+     * $select of the source's columns, plus the $expand of its customer lookup if it has one
+     */
+    private static String columns(ReminderConfig.Source source) {
+        boolean lookup = source.getCustomerLookup() != null;
+        String select = "$select=" + Stream.of(source.getIdField(), source.getDateField(),
+                        lookup ? null : source.getPhoneField(), lookup ? null : source.getNameField(),
+                        source.getReferenceField(), source.getQuantityField())
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.joining(","));
+        if (!lookup) {
+            return select;
+        }
+        return select + "&$expand=" + source.getCustomerLookup() + "($select=" + Stream.of(source.getPhoneField(),
+                source.getNameField()).filter(Objects::nonNull).collect(Collectors.joining(",")) + ")";
+    }
+
+    /**
+     * Key of a contact column in a record read by {@link ODataReader#readFields}
+     */
+    private static String customerField(ReminderConfig.Source source, String column) {
+        return column == null || source.getCustomerLookup() == null ? column : source.getCustomerLookup() + "/" + column;
+    }
+
+    private static String recordId(ReminderConfig.Source source, Map<String, String> record) {
+        String id = record.get(source.getIdField());
+        // $deletedEntity entries
+        return id != null ? id : record.get("id");
+    }
+
+    private static String key(String orgId, Campaign.Type kind, String recordId) {
+        return recordId == null ? orgId + ":" + kind : orgId + ":" + kind + ":" + recordId;
+    }
+
+    private static String field(Map<String, String> record, String name) {
+        return name != null ? record.get(name) : null;
+    }
+
+    /**
+     * Date-only values as they are; date-time values (UTC) as the local date in the reminder zone
+     */
+    private LocalDate date(String value) {
+        if (value == null || value.length() < 10) {
+            return null;
+        }
+        try {
+            return value.length() == 10
+                    ? LocalDate.parse(value)
+                    : OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.of(config.getZone())).toLocalDate();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Double quantity(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dpl.whatsapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls: the first caller for a key executes the call
+ * and every caller arriving while it is in flight shares its result (or failure).
+ * Followers wait at most maxWait and then execute the call themselves.
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.leaders = meterRegistry.counter(name + ".singleflight", "outcome", "leader");
+        this.coalesced = meterRegistry.counter(name + ".singleflight", "outcome", "coalesced");
+        this.timeouts = meterRegistry.counter(name + ".singleflight", "outcome", "timeout");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+
+        if (existing == null) {
+            leaders.increment();
+            try {
+                T result = call.get();
+                own.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return (T) existing.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return call.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for in-flight request", e);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,52 @@
+package com.dpl.whatsapp.service;
+
+/**
+ * Token bucket on the System.nanoTime clock. Callers check {@link #waitNanos} first and
+ * only {@link #take} once every bucket involved in a send has a token available.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long updatedAt;
+    private long pausedUntil;
+
+    public TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.updatedAt = System.nanoTime();
+        this.pausedUntil = updatedAt;
+    }
+
+    /**
+     * Nanoseconds until a token is available (0 when one is available now)
+     */
+    public synchronized long waitNanos(long now) {
+        refill(now);
+        if (now - pausedUntil < 0) {
+            return pausedUntil - now;
+        }
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    public synchronized void take() {
+        tokens -= 1;
+    }
+
+    /**
+     * Stop handing out tokens until the given time, e.g. after a rate limit error
+     */
+    public synchronized void pauseUntil(long until) {
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano);
+        updatedAt = now;
+    }
+}
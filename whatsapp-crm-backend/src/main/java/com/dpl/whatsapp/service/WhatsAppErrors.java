@@ -0,0 +1,41 @@
+package com.dpl.whatsapp.service;
+
+import java.util.Set;
+
+/**
+ * Classifies failed Cloud API sends as retryable (throttling, outages, network trouble)
+ * or permanent (the request itself is wrong or can never be delivered).
+ */
+public final class WhatsAppErrors {
+
+    public static final int THROUGHPUT_LIMIT = 130429;
+    public static final int PAIR_RATE_LIMIT = 131056;
+
+    // Rate limits and temporary Meta-side failures
+    private static final Set<Integer> RETRYABLE = Set.of(
+            1,       // API unknown
+            2,       // API service
+            4,       // Application request limit reached
+            80007,   // WABA rate limit
+            130429,  // Throughput limit
+            131000,  // Something went wrong
+            131016,  // Service unavailable
+            131056,  // Pair rate limit
+            133004   // Server temporarily unavailable
+    );
+
+    private WhatsAppErrors() {
+    }
+
+    /**
+     * @param errorCode Graph API error code, or -1 if the response had none
+     * @param httpStatus HTTP status, or -1 if no response was received (connect/read failures, timeouts)
+     */
+    public static boolean isRetryable(int errorCode, int httpStatus) {
+        if (errorCode >= 0) {
+            return RETRYABLE.contains(errorCode);
+        }
+        // No Graph error: only network failures, throttling and server errors are worth retrying
+        return httpStatus < 0 || httpStatus == 429 || httpStatus >= 500;
+    }
+}
@@ -0,0 +1,326 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.config.WhatsAppConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uploads documents to the Cloud API /media endpoint once and remembers the media id,
+ * so repeated sends of the same quotation or invoice go out by id instead of making
+ * Meta fetch the link each time. Documents are streamed from our document server to a
+ * temp file (hashed on the way) and streamed from disk into the multipart upload.
+ * Media ids are cached by content hash until shortly before Meta deletes the media; a
+ * link only points at a hash for the short link TTL, after which it is revalidated with
+ * a conditional GET, so a document regenerated under the same link is uploaded again.
+ * Only links on the configured document hosts are downloaded. Downloads and uploads run
+ * on the service's own threads, so a sender is not held up by a slow document server.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WhatsAppMediaService {
+
+    private final WhatsAppConfig config;
+    @Qualifier("whatsappMediaWebClient")
+    private final WebClient mediaClient;
+    @Qualifier("documentsWebClient")
+    private final WebClient documentClient;
+    private final MeterRegistry meterRegistry;
+
+    // phone number id + link -> the content last seen at the link
+    private Cache<String, LinkEntry> byLink;
+    // phone number id + SHA-256 of the content -> media id
+    private Cache<String, String> byHash;
+    private SingleFlight uploads;
+    private ExecutorService workers;
+
+    /**
+     * Content hash of a link and the validators to revalidate it with
+     */
+    private record LinkEntry(String sha256, String etag, String lastModified, long validatedAt) {
+    }
+
+    private record Download(Path file, String sha256, MediaType contentType, String etag, String lastModified) {
+    }
+
+    @PostConstruct
+    void init() {
+        WhatsAppConfig.Media media = config.getMedia();
+        byLink = Caffeine.newBuilder()
+                .maximumSize(media.getMaxEntries())
+                .expireAfterWrite(media.getTtl())
+                .build();
+        byHash = Caffeine.newBuilder()
+                .maximumSize(media.getMaxEntries())
+                .expireAfterWrite(media.getTtl())
+                .build();
+        uploads = new SingleFlight("whatsapp.media", Duration.ofMinutes(2), meterRegistry);
+        meterRegistry.gauge("whatsapp.media.cache.entries", byHash, c -> c.estimatedSize());
+
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, media.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "whatsapp-media-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Media id for a document link, uploading the document on first use or when it changed.
+     * Completes at once on a cache hit, otherwise once the document has been revalidated,
+     * downloaded and uploaded on the media threads. Never completes exceptionally: empty if media
+     * upload is disabled, the link is not on a document host, or the upload failed, in which case
+     * the document should be sent by link.
+     */
+    public CompletableFuture<Optional<String>> mediaIdFor(WhatsAppConfig.BusinessNumber number, String link,
+                                                          String filename) {
+        if (!config.getMedia().isEnabled() || link == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        if (!isDocumentHost(link)) {
+            meterRegistry.counter("whatsapp.media", "outcome", "not_allowed").increment();
+            log.debug("{} is not on a configured document host, sending by link", link);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        // Media ids belong to the number that uploaded them
+        String linkKey = number.getPhoneNumberId() + ":" + link;
+        String cached = fresh(number, byLink.getIfPresent(linkKey));
+        if (cached != null) {
+            meterRegistry.counter("whatsapp.media", "outcome", "hit").increment();
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return Optional.of(uploads.execute(linkKey, () -> upload(number, linkKey, link, filename)));
+            } catch (RuntimeException e) {
+                meterRegistry.counter("whatsapp.media", "outcome", "failure").increment();
+                log.warn("Media upload of {} failed, sending by link: {}", link, e.getMessage());
+                return Optional.empty();
+            }
+        }, workers);
+    }
+
+    private boolean isDocumentHost(String link) {
+        try {
+            URI uri = URI.create(link);
+            String scheme = uri.getScheme();
+            return uri.getHost() != null && ("https".equalsIgnoreCase(scheme) || "http".equalsIgnoreCase(scheme))
+                    && config.getMedia().getAllowedHosts().stream().anyMatch(host -> host.equalsIgnoreCase(uri.getHost()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The media id of a link validated within the link TTL, or null
+     */
+    private String fresh(WhatsAppConfig.BusinessNumber number, LinkEntry entry) {
+        if (entry == null || System.nanoTime() - entry.validatedAt() >= config.getMedia().getLinkTtl().toNanos()) {
+            return null;
+        }
+        return byHash.getIfPresent(hashKey(number, entry.sha256()));
+    }
+
+    private String upload(WhatsAppConfig.BusinessNumber number, String linkKey, String link, String filename) {
+        // A concurrent upload of the same link may have just finished
+        LinkEntry entry = byLink.getIfPresent(linkKey);
+        String fresh = fresh(number, entry);
+        if (fresh != null) {
+            return fresh;
+        }
+
+        // Revalidate only while the media id is still usable; otherwise the content is needed anyway
+        String known = entry != null ? byHash.getIfPresent(hashKey(number, entry.sha256())) : null;
+        Download download = download(link, known != null ? entry : null);
+        if (download == null) {
+            byLink.put(linkKey, new LinkEntry(entry.sha256(), entry.etag(), entry.lastModified(), System.nanoTime()));
+            meterRegistry.counter("whatsapp.media", "outcome", "revalidated").increment();
+            return known;
+        }
+        try {
+            String hashKey = hashKey(number, download.sha256());
+            String mediaId = byHash.getIfPresent(hashKey);
+            if (mediaId != null) {
+                // Same document under another link, or unchanged at this one
+                meterRegistry.counter("whatsapp.media", "outcome", "dedup").increment();
+            } else {
+                mediaId = post(number, download, filename != null ? filename : "document");
+                byHash.put(hashKey, mediaId);
+                meterRegistry.counter("whatsapp.media", "outcome", "upload").increment();
+                log.info("Uploaded {} as WhatsApp media {}", link, mediaId);
+            }
+            byLink.put(linkKey, new LinkEntry(download.sha256(), download.etag(), download.lastModified(),
+                    System.nanoTime()));
+            return mediaId;
+        } finally {
+            try {
+                Files.deleteIfExists(download.file());
+            } catch (IOException e) {
+                log.warn("Could not delete media temp file {}: {}", download.file(), e.getMessage());
+            }
+        }
+    }
+
+    private static String hashKey(WhatsAppConfig.BusinessNumber number, String sha256) {
+        return number.getPhoneNumberId() + ":" + sha256;
+    }
+
+    /**
+     * Stream a document to a temp file, hashing it on the way.
+     * With {@code cached}, the request is conditional on its validators; returns null if the
+     * document is unchanged (304).
+     */
+    private Download download(String link, LinkEntry cached) {
+        long maxSize = config.getMedia().getMaxSizeBytes();
+        MessageDigest digest = sha256();
+        AtomicLong size = new AtomicLong();
+        AtomicReference<MediaType> contentType = new AtomicReference<>();
+        AtomicReference<String> etag = new AtomicReference<>();
+        AtomicReference<String> lastModified = new AtomicReference<>();
+        AtomicBoolean notModified = new AtomicBoolean();
+
+        Path file;
+        try {
+            file = Files.createTempFile(Paths.get(config.getMedia().getTempDir()), "whatsapp-media-", ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Flux<DataBuffer> body = documentClient.get()
+                .uri(URI.create(link))
+                .headers(headers -> {
+                    if (cached != null && cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                    if (cached != null && cached.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                    }
+                })
+                .exchangeToFlux(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        notModified.set(true);
+                        return response.releaseBody().thenMany(Flux.empty());
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createException().flatMapMany(Mono::error);
+                    }
+                    response.headers().contentType().ifPresent(contentType::set);
+                    response.headers().header(HttpHeaders.ETAG).stream().findFirst().ifPresent(etag::set);
+                    response.headers().header(HttpHeaders.LAST_MODIFIED).stream().findFirst().ifPresent(lastModified::set);
+                    return response.bodyToFlux(DataBuffer.class);
+                })
+                .doOnNext(buffer -> {
+                    if (size.addAndGet(buffer.readableByteCount()) > maxSize) {
+                        DataBufferUtils.release(buffer);
+                        throw new IllegalStateException("Document exceeds " + maxSize + " bytes");
+                    }
+                    try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                        chunks.forEachRemaining(digest::update);
+                    }
+                });
+
+        try {
+            DataBufferUtils.write(body, file).block();
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        if (notModified.get()) {
+            deleteQuietly(file);
+            return null;
+        }
+        return new Download(file, HexFormat.of().formatHex(digest.digest()), contentType.get(), etag.get(),
+                lastModified.get());
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Best effort; the temp dir is cleaned by the OS
+        }
+    }
+
+    private String post(WhatsAppConfig.BusinessNumber number, Download download, String filename) {
+        MediaType type = download.contentType() != null && !MediaType.APPLICATION_OCTET_STREAM.equals(download.contentType())
+                ? download.contentType()
+                : MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_PDF);
+
+        MultipartBodyBuilder parts = new MultipartBodyBuilder();
+        parts.part("messaging_product", "whatsapp");
+        parts.part("type", type.toString());
+        // Written to the request in chunks straight from disk
+        parts.part("file", new FileSystemResource(download.file()))
+                .filename(filename)
+                .contentType(type);
+
+        JsonNode response = mediaClient.post()
+                .uri(config.getMediaUrl(number))
+                .header("Authorization", "Bearer " + number.getAccessToken())
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(parts.build()))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+
+        String mediaId = response != null ? response.path("id").asText(null) : null;
+        if (mediaId == null) {
+            throw new IllegalStateException("Media upload returned no id");
+        }
+        return mediaId;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dpl.whatsapp.service;
+
+import com.dpl.whatsapp.dto.whatsapp.MessageBody;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams typed message payloads straight into pooled Netty buffers and pulls the
+ * message id out of send responses without building a JSON tree.
+ * Jackson recycles the generator's internal buffers per thread, so a send allocates
+ * little more than the pooled request buffer.
+ */
+@Component
+@RequiredArgsConstructor
+public class WhatsAppPayloadCodec {
+
+    // Most messages fit; the buffer grows for long lists and templates
+    private static final int INITIAL_CAPACITY = 512;
+
+    private static final NettyDataBufferFactory BUFFERS = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Request body that writes the payload when subscribed, so every attempt gets a fresh buffer.
+     * The buffer is released by the HTTP client once written.
+     */
+    public BodyInserter<Mono<DataBuffer>, ReactiveHttpOutputMessage> body(MessageBody payload) {
+        return BodyInserters.fromDataBuffers(Mono.fromCallable(() -> write(payload)));
+    }
+
+    /**
+     * Write a payload into a pooled buffer; the caller owns (and must release) the result
+     */
+    public DataBuffer write(MessageBody payload) {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer(INITIAL_CAPACITY);
+        try (JsonGenerator gen = objectMapper.getFactory()
+                .createGenerator((OutputStream) new ByteBufOutputStream(buf), JsonEncoding.UTF8)) {
+            payload.writeTo(gen);
+        } catch (IOException e) {
+            buf.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+        return BUFFERS.wrap(buf);
+    }
+
+    /**
+     * The request body as a string, for storing a message
+     */
+    public String toJson(MessageBody payload) {
+        StringWriter json = new StringWriter(INITIAL_CAPACITY);
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+            payload.writeTo(gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
+    }
+
+    /**
+     * messages[0].id from a send response; releases the buffer
+     */
+    public String readMessageId(DataBuffer response) throws IOException {
+        try (InputStream in = response.asInputStream(true);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            return readMessageId(parser);
+        }
+    }
+
+    private static String readMessageId(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("messages".equals(field) && value == JsonToken.START_ARRAY) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String messageField = parser.currentName();
+                    parser.nextToken();
+                    if ("id".equals(messageField)) {
+                        return parser.getValueAsString();
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+}
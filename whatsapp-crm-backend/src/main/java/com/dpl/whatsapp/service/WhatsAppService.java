@@ -2,16 +2,15 @@ package com.dpl.whatsapp.service;
 
 import com.dpl.whatsapp.config.WhatsAppConfig;
 import com.dpl.whatsapp.dto.whatsapp.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for sending messages via WhatsApp Business API (Meta Cloud API)
@@ -22,25 +21,26 @@ import java.util.*;
 public class WhatsAppService {
 
     private final WhatsAppConfig config;
+    @Qualifier("whatsappWebClient")
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final OutboundMessageScheduler outboundScheduler;
+    private final WhatsAppMediaService mediaService;
+    private final MessageRetryService retryService;
+    private final MessageTemplateRegistry templateRegistry;
 
     /**
      * Send a simple text message
      */
     public MessageResponse sendTextMessage(String to, String message) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("messaging_product", "whatsapp");
-        payload.put("recipient_type", "individual");
-        payload.put("to", normalizePhoneNumber(to));
-        payload.put("type", "text");
-        
-        Map<String, Object> text = new HashMap<>();
-        text.put("preview_url", false);
-        text.put("body", message);
-        payload.put("text", text);
+        return sendTextMessageAsync(to, message).join();
+    }
 
-        return sendMessage(payload);
+    public CompletableFuture<MessageResponse> sendTextMessageAsync(String to, String message) {
+        return sendMessage(textMessage(to, message));
+    }
+
+    public TextPayload textMessage(String to, String message) {
+        return new TextPayload(recipient(to), message);
     }
 
     /**
@@ -48,56 +48,17 @@ public class WhatsAppService {
      */
     public MessageResponse sendButtonMessage(String to, String headerText, String bodyText, 
                                              String footerText, List<ButtonDto> buttons) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("messaging_product", "whatsapp");
-        payload.put("recipient_type", "individual");
-        payload.put("to", normalizePhoneNumber(to));
-        payload.put("type", "interactive");
-
-        Map<String, Object> interactive = new HashMap<>();
-        interactive.put("type", "button");
-
-        // Header (optional)
-        if (headerText != null && !headerText.isEmpty()) {
-            Map<String, Object> header = new HashMap<>();
-            header.put("type", "text");
-            header.put("text", headerText);
-            interactive.put("header", header);
-        }
-
-        // Body (required)
-        Map<String, Object> body = new HashMap<>();
-        body.put("text", bodyText);
-        interactive.put("body", body);
-
-        // Footer (optional)
-        if (footerText != null && !footerText.isEmpty()) {
-            Map<String, Object> footer = new HashMap<>();
-            footer.put("text", footerText);
-            interactive.put("footer", footer);
-        }
+        return sendButtonMessageAsync(to, headerText, bodyText, footerText, buttons).join();
+    }
 
-        // Buttons (max 3)
-        Map<String, Object> action = new HashMap<>();
-        List<Map<String, Object>> buttonList = new ArrayList<>();
-        
-        for (int i = 0; i < Math.min(buttons.size(), 3); i++) {
-            ButtonDto btn = buttons.get(i);
-            Map<String, Object> button = new HashMap<>();
-            button.put("type", "reply");
-            
-            Map<String, Object> reply = new HashMap<>();
-            reply.put("id", btn.getId());
-            reply.put("title", btn.getTitle().substring(0, Math.min(btn.getTitle().length(), 20)));
-            button.put("reply", reply);
-            
-            buttonList.add(button);
-        }
-        action.put("buttons", buttonList);
-        interactive.put("action", action);
+    public CompletableFuture<MessageResponse> sendButtonMessageAsync(String to, String headerText, String bodyText,
+                                                                     String footerText, List<ButtonDto> buttons) {
+        return sendMessage(buttonMessage(to, headerText, bodyText, footerText, buttons));
+    }
 
-        payload.put("interactive", interactive);
-        return sendMessage(payload);
+    public ButtonPayload buttonMessage(String to, String headerText, String bodyText,
+                                       String footerText, List<ButtonDto> buttons) {
+        return new ButtonPayload(recipient(to), headerText, bodyText, footerText, buttons);
     }
 
     /**
@@ -106,83 +67,50 @@ public class WhatsAppService {
     public MessageResponse sendListMessage(String to, String headerText, String bodyText,
                                            String footerText, String buttonText, 
                                            List<ListSectionDto> sections) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("messaging_product", "whatsapp");
-        payload.put("recipient_type", "individual");
-        payload.put("to", normalizePhoneNumber(to));
-        payload.put("type", "interactive");
-
-        Map<String, Object> interactive = new HashMap<>();
-        interactive.put("type", "list");
-
-        // Header
-        if (headerText != null) {
-            Map<String, Object> header = new HashMap<>();
-            header.put("type", "text");
-            header.put("text", headerText);
-            interactive.put("header", header);
-        }
-
-        // Body
-        Map<String, Object> body = new HashMap<>();
-        body.put("text", bodyText);
-        interactive.put("body", body);
-
-        // Footer
-        if (footerText != null) {
-            Map<String, Object> footer = new HashMap<>();
-            footer.put("text", footerText);
-            interactive.put("footer", footer);
-        }
-
-        // Action with sections
-        Map<String, Object> action = new HashMap<>();
-        action.put("button", buttonText);
-        
-        List<Map<String, Object>> sectionList = new ArrayList<>();
-        for (ListSectionDto section : sections) {
-            Map<String, Object> sectionMap = new HashMap<>();
-            sectionMap.put("title", section.getTitle());
-            
-            List<Map<String, Object>> rows = new ArrayList<>();
-            for (ListRowDto row : section.getRows()) {
-                Map<String, Object> rowMap = new HashMap<>();
-                rowMap.put("id", row.getId());
-                rowMap.put("title", row.getTitle().substring(0, Math.min(row.getTitle().length(), 24)));
-                if (row.getDescription() != null) {
-                    rowMap.put("description", row.getDescription().substring(0, Math.min(row.getDescription().length(), 72)));
-                }
-                rows.add(rowMap);
-            }
-            sectionMap.put("rows", rows);
-            sectionList.add(sectionMap);
-        }
-        action.put("sections", sectionList);
-        interactive.put("action", action);
+        return sendListMessageAsync(to, headerText, bodyText, footerText, buttonText, sections).join();
+    }
 
-        payload.put("interactive", interactive);
-        return sendMessage(payload);
+    public CompletableFuture<MessageResponse> sendListMessageAsync(String to, String headerText, String bodyText,
+                                                                   String footerText, String buttonText,
+                                                                   List<ListSectionDto> sections) {
+        return sendMessage(new ListPayload(recipient(to), headerText, bodyText, footerText,
+                buttonText, sections));
     }
 
     /**
-     * Send a document (PDF, etc.)
+     * Send a document (PDF, etc.), by media id once it has been uploaded
      */
     public MessageResponse sendDocument(String to, String documentUrl, String filename, String caption) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("messaging_product", "whatsapp");
-        payload.put("recipient_type", "individual");
-        payload.put("to", normalizePhoneNumber(to));
-        payload.put("type", "document");
+        return sendDocumentAsync(to, documentUrl, filename, caption).join();
+    }
 
-        Map<String, Object> document = new HashMap<>();
-        document.put("link", documentUrl);
-        document.put("filename", filename);
-        if (caption != null) {
-            document.put("caption", caption);
-        }
-        payload.put("document", document);
+    public CompletableFuture<MessageResponse> sendDocumentAsync(String to, String documentUrl, String filename,
+                                                                String caption) {
+        return sendDocumentAsync(to, documentUrl, filename, caption, List.of())
+                .thenApply(response -> response.getParts().get(0));
+    }
 
-        return sendMessage(payload);
+    /**
+     * Send a document followed by further parts to the same recipient. The document is uploaded
+     * off the caller's thread; once its media id is known, the document and the parts are queued
+     * one after another, so they are delivered in that order.
+     */
+    public CompletableFuture<MultipartMessageResponse> sendDocumentAsync(String to, String documentUrl,
+                                                                         String filename, String caption,
+                                                                         List<? extends WhatsAppPayload> then) {
+        String recipient = recipient(to);
+        WhatsAppConfig.BusinessNumber number = currentNumber();
+        // Queued from a media thread: carry the caller's priority over
+        OutboundPriority priority = OutboundPriority.current();
+        return mediaService.mediaIdFor(number, documentUrl, filename).thenCompose(mediaId -> priority.call(() -> {
+            DocumentPayload document = mediaId
+                    .map(id -> DocumentPayload.ofMediaId(recipient, id, filename, caption))
+                    .orElseGet(() -> DocumentPayload.ofLink(recipient, documentUrl, filename, caption));
+            List<CompletableFuture<MessageResponse>> parts = new ArrayList<>(1 + then.size());
+            parts.add(sendMessage(number, document));
+            then.forEach(part -> parts.add(sendMessage(number, part)));
+            return allOf(parts);
+        }));
     }
 
     /**
@@ -190,54 +118,63 @@ public class WhatsAppService {
      */
     public MessageResponse sendTemplateMessage(String to, String templateName, 
                                                String languageCode, List<TemplateComponentDto> components) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("messaging_product", "whatsapp");
-        payload.put("to", normalizePhoneNumber(to));
-        payload.put("type", "template");
-
-        Map<String, Object> template = new HashMap<>();
-        template.put("name", templateName);
-        
-        Map<String, Object> language = new HashMap<>();
-        language.put("code", languageCode);
-        template.put("language", language);
+        return sendTemplateMessageAsync(to, templateName, languageCode, components).join();
+    }
 
-        if (components != null && !components.isEmpty()) {
-            List<Map<String, Object>> componentList = new ArrayList<>();
-            for (TemplateComponentDto comp : components) {
-                Map<String, Object> component = new HashMap<>();
-                component.put("type", comp.getType());
-                
-                if (comp.getParameters() != null) {
-                    List<Map<String, Object>> params = new ArrayList<>();
-                    for (TemplateParameterDto param : comp.getParameters()) {
-                        Map<String, Object> paramMap = new HashMap<>();
-                        paramMap.put("type", param.getType());
-                        if ("text".equals(param.getType())) {
-                            paramMap.put("text", param.getValue());
-                        } else if ("document".equals(param.getType())) {
-                            Map<String, Object> doc = new HashMap<>();
-                            doc.put("link", param.getValue());
-                            doc.put("filename", param.getFilename());
-                            paramMap.put("document", doc);
-                        }
-                        params.add(paramMap);
-                    }
-                    component.put("parameters", params);
-                }
-                componentList.add(component);
-            }
-            template.put("components", componentList);
+    public CompletableFuture<MessageResponse> sendTemplateMessageAsync(String to, String templateName,
+                                                                       String languageCode,
+                                                                       List<TemplateComponentDto> components) {
+        TemplatePayload payload;
+        try {
+            payload = templateRegistry.payload(recipient(to), templateName, languageCode, components);
+        } catch (IllegalArgumentException e) {
+            // Rejected locally rather than after a round-trip that counts against our quality rating
+            log.warn("Template message to {} rejected: {}", to, e.getMessage());
+            return CompletableFuture.completedFuture(MessageResponse.failure(e.getMessage(), null, false));
         }
+        return sendMessage(payload);
+    }
 
-        payload.put("template", template);
+    /**
+     * Send a payload built with one of the message factories above
+     */
+    public CompletableFuture<MessageResponse> sendAsync(WhatsAppPayload payload) {
         return sendMessage(payload);
     }
 
     /**
-     * Mark a message as read
+     * Send a payload at the given priority rather than the current thread's
+     */
+    public CompletableFuture<MessageResponse> sendAsync(WhatsAppPayload payload, OutboundPriority priority) {
+        try (OutboundPriority.Scope ignored = priority.open()) {
+            return sendMessage(payload);
+        }
+    }
+
+    /**
+     * Send a payload at the given priority without storing a failure; the caller settles it
+     * itself, e.g. with {@link MessageRetryService#store}
+     */
+    public CompletableFuture<MessageResponse> sendUnrecordedAsync(WhatsAppPayload payload, OutboundPriority priority) {
+        return outboundScheduler.sendAsync(currentNumber(), payload, priority);
+    }
+
+    /**
+     * Combine the parts of a multi-part notification once all of them are done.
+     * Parts queued one after another to the same recipient are delivered in that order,
+     * each dispatched as soon as the previous one is accepted.
+     */
+    public static CompletableFuture<MultipartMessageResponse> allOf(List<CompletableFuture<MessageResponse>> parts) {
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .thenApply(done -> new MultipartMessageResponse(
+                        parts.stream().map(CompletableFuture::join).toList()));
+    }
+
+    /**
+     * Mark a message received on the current org's number as read
      */
     public void markAsRead(String messageId) {
+        WhatsAppConfig.BusinessNumber number = currentNumber();
         Map<String, Object> payload = new HashMap<>();
         payload.put("messaging_product", "whatsapp");
         payload.put("status", "read");
@@ -245,8 +182,8 @@ public class WhatsAppService {
 
         try {
             webClient.post()
-                    .uri(config.getMessagesUrl())
-                    .header("Authorization", "Bearer " + config.getAccessToken())
+                    .uri(config.getMessagesUrl(number))
+                    .header("Authorization", "Bearer " + number.getAccessToken())
                     .contentType(MediaType.APPLICATION_JSON)
                     .bodyValue(payload)
                     .retrieve()
@@ -260,61 +197,35 @@ public class WhatsAppService {
     }
 
     /**
-     * Common method to send messages
+     * Common method to send messages: queued behind the outbound rate limits at the current
+     * thread's {@link OutboundPriority}; failures are persisted
      */
-    private MessageResponse sendMessage(Map<String, Object> payload) {
-        try {
-            String response = webClient.post()
-                    .uri(config.getMessagesUrl())
-                    .header("Authorization", "Bearer " + config.getAccessToken())
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(payload)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
+    private CompletableFuture<MessageResponse> sendMessage(WhatsAppPayload payload) {
+        return sendMessage(currentNumber(), payload);
+    }
 
-            JsonNode jsonResponse = objectMapper.readTree(response);
-            
-            MessageResponse result = new MessageResponse();
-            result.setSuccess(true);
-            
-            if (jsonResponse.has("messages") && jsonResponse.get("messages").size() > 0) {
-                result.setMessageId(jsonResponse.get("messages").get(0).get("id").asText());
+    private CompletableFuture<MessageResponse> sendMessage(WhatsAppConfig.BusinessNumber number, WhatsAppPayload payload) {
+        OutboundPriority priority = OutboundPriority.current();
+        return outboundScheduler.sendAsync(number, payload, priority).thenApply(response -> {
+            if (!response.isSuccess()) {
+                // Kept for retry or in the dead-letter table rather than dropped
+                retryService.failed(number, payload, priority, response);
             }
-            
-            log.info("Successfully sent WhatsApp message: {}", result.getMessageId());
-            return result;
+            return response;
+        });
+    }
 
-        } catch (WebClientResponseException e) {
-            log.error("WhatsApp API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            
-            MessageResponse error = new MessageResponse();
-            error.setSuccess(false);
-            error.setError(e.getResponseBodyAsString());
-            return error;
-            
-        } catch (Exception e) {
-            log.error("Failed to send WhatsApp message", e);
-            
-            MessageResponse error = new MessageResponse();
-            error.setSuccess(false);
-            error.setError(e.getMessage());
-            return error;
-        }
+    /**
+     * The business number of the org the current thread works for
+     */
+    private WhatsAppConfig.BusinessNumber currentNumber() {
+        return config.getNumber(CrmOrgContext.current());
     }
 
     /**
-     * Normalize phone number to international format
+     * Canonical recipient for the "to" field
      */
-    private String normalizePhoneNumber(String phone) {
-        // Remove all non-digit characters
-        String normalized = phone.replaceAll("[^0-9]", "");
-        
-        // Ensure it starts with country code (assuming India if not present)
-        if (!normalized.startsWith("91") && normalized.length() == 10) {
-            normalized = "91" + normalized;
-        }
-        
-        return normalized;
+    private static String recipient(String to) {
+        return PhoneNumber.of(to).digits();
     }
 }